@@ -1,18 +1,29 @@
 package com.seungjjun.watermark.api.controller;
 
+import com.seungjjun.watermark.api.dto.request.WatermarkBatchEmbedRequest;
 import com.seungjjun.watermark.api.dto.request.WatermarkEmbedRequest;
 import com.seungjjun.watermark.api.dto.request.WatermarkExtractRequest;
+import com.seungjjun.watermark.api.dto.response.BulkheadStatsResponse;
+import com.seungjjun.watermark.api.dto.response.CacheStatsResponse;
+import com.seungjjun.watermark.api.dto.response.CodecStatsResponse;
 import com.seungjjun.watermark.api.dto.response.WatermarkExtractResponse;
+import com.seungjjun.watermark.api.dto.response.WatermarkJobResponse;
 import com.seungjjun.watermark.service.WatermarkService;
-import com.seungjjun.watermark.service.dto.WatermarkEmbedResult;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+import com.seungjjun.watermark.service.job.WatermarkJob;
+import com.seungjjun.watermark.service.job.WatermarkJobService;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,49 +33,142 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class WatermarkController {
 
+    // AUTO로 요청해도 실제로 쓴 알고리즘을 알려 추출 시 지정할 수 있게 한다
+    private static final String ALGORITHM_HEADER = "X-Watermark-Algorithm";
+    private static final MediaType APPLICATION_ZIP = new MediaType("application", "zip");
+
     private final WatermarkService watermarkService;
+    private final WatermarkJobService watermarkJobService;
 
+    // 삽입 결과를 byte[]로 모으지 않고 응답 스트림에 바로 인코딩한다.
+    // 검증 오류는 body를 만들기 전에 나므로 에러 응답으로 간다. body에서 난 오류도 결과를 64KB씩 모아 내보내므로
+    // 첫 chunk를 보내기 전(CPU 슬롯 대기 초과, 디코딩 실패 등)이면 에러 응답으로 바뀌고,
+    // 그 뒤에 나면 연결을 끊는다 (GlobalExceptionHandler)
     @PostMapping("/embed")
-    public ResponseEntity<byte[]> embedWatermark(@Valid WatermarkEmbedRequest request) {
-        log.info("POST /embed - file: {}, watermarkText: {}",
+    public ResponseEntity<StreamingResponseBody> embedWatermark(@Valid WatermarkEmbedRequest request) {
+        log.info("POST /embed - file: {}, watermarkText: {}, algorithm: {}",
+                request.image().getOriginalFilename(),
+                request.watermarkText(),
+                request.algorithm());
+
+        WatermarkEmbedStream stream = watermarkService.embedWatermarkStreaming(
+                request.image(),
+                request.watermarkText(),
+                request.algorithm(),
+                request.robustRequired()
+        );
+
+        String filename = "watermarked." + stream.format();
+        return ResponseEntity.ok()
+                .contentType(getMediaType(stream.format()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(ALGORITHM_HEADER, stream.algorithm().name())
+                .body(stream::writeTo);
+    }
+
+    // 같은 이미지에 수신자별 텍스트를 삽입한 결과를 zip 하나로 응답 스트림에 차례로 쓴다
+    @PostMapping("/embed/batch")
+    public ResponseEntity<StreamingResponseBody> embedWatermarkBatch(@Valid WatermarkBatchEmbedRequest request) {
+        log.info("POST /embed/batch - file: {}, count: {}, algorithm: {}",
+                request.image().getOriginalFilename(),
+                request.watermarkTexts().size(),
+                request.algorithm());
+
+        WatermarkEmbedStream stream = watermarkService.embedWatermarkBatch(
+                request.image(),
+                request.watermarkTexts(),
+                request.algorithm(),
+                request.robustRequired()
+        );
+
+        String filename = "watermarked." + stream.format();
+        return ResponseEntity.ok()
+                .contentType(getMediaType(stream.format()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(ALGORITHM_HEADER, stream.algorithm().name())
+                .body(stream::writeTo);
+    }
+
+    // 검증만 마치고 삽입은 작업 스레드에 맡겨 바로 202로 응답한다. 대기열이 가득 차면 429와 Retry-After
+    @PostMapping("/jobs")
+    public ResponseEntity<WatermarkJobResponse> submitEmbedJob(@Valid WatermarkEmbedRequest request) {
+        log.info("POST /jobs - file: {}, watermarkText: {}, algorithm: {}",
                 request.image().getOriginalFilename(),
-                request.watermarkText());
+                request.watermarkText(),
+                request.algorithm());
 
-        WatermarkEmbedResult result = watermarkService.embedWatermark(
+        WatermarkJob job = watermarkJobService.submit(
                 request.image(),
-                request.watermarkText()
+                request.watermarkText(),
+                request.algorithm(),
+                request.robustRequired()
         );
 
-        log.info("Watermark embedded successfully - size: {} bytes, format: {}",
-                result.watermarkedImageBytes().length, result.format());
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{jobId}")
+                        .buildAndExpand(job.id())
+                        .toUri())
+                .body(WatermarkJobResponse.from(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public WatermarkJobResponse getJob(@PathVariable String jobId) {
+        return WatermarkJobResponse.from(watermarkJobService.getJob(jobId));
+    }
 
-        String filename = "watermarked." + result.format();
+    // 끝나지 않은 작업은 409, 실패한 작업은 삽입이 실패한 원인으로 응답한다
+    @GetMapping("/jobs/{jobId}/result")
+    public ResponseEntity<StreamingResponseBody> getJobResult(@PathVariable String jobId) {
+        WatermarkEmbedStream stream = watermarkJobService.openResult(jobId);
+
+        String filename = "watermarked." + stream.format();
         return ResponseEntity.ok()
-                .contentType(getMediaType(result.format()))
+                .contentType(getMediaType(stream.format()))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(result.watermarkedImageBytes());
+                .header(ALGORITHM_HEADER, stream.algorithm().name())
+                .body(stream::writeTo);
     }
 
     @PostMapping("/extract")
     public WatermarkExtractResponse extractWatermark(@Valid WatermarkExtractRequest request) {
-        log.info("POST /extract - file: {}, length: {}",
+        log.info("POST /extract - file: {}, length: {}, algorithm: {}",
                 request.image().getOriginalFilename(),
-                request.watermarkLength());
+                request.watermarkLength(),
+                request.algorithm());
 
         String extractedText = watermarkService.extractWatermark(
                 request.image(),
-                request.watermarkLength()
+                request.watermarkLength(),
+                request.algorithm()
         );
 
         log.info("Watermark extracted successfully - text: '{}'", extractedText);
         return WatermarkExtractResponse.from(extractedText);
     }
 
+    @GetMapping("/codec-stats")
+    public List<CodecStatsResponse> getCodecStats() {
+        return CodecStatsResponse.from(watermarkService.getCodecTimings());
+    }
+
+    @GetMapping("/cache-stats")
+    public CacheStatsResponse getCacheStats() {
+        return CacheStatsResponse.from(watermarkService.getCacheStats());
+    }
+
+    // 대기 시간이 길면 업로드가 아니라 CPU 실행 슬롯이 부족한 것
+    @GetMapping("/bulkhead-stats")
+    public BulkheadStatsResponse getBulkheadStats() {
+        return BulkheadStatsResponse.from(watermarkService.getBulkheadStats());
+    }
+
     private MediaType getMediaType(String format) {
         return switch (format.toLowerCase()) {
             case "png" -> MediaType.IMAGE_PNG;
             case "jpg", "jpeg" -> MediaType.IMAGE_JPEG;
             case "gif" -> MediaType.IMAGE_GIF;
+            case "zip" -> APPLICATION_ZIP;
             default -> MediaType.APPLICATION_OCTET_STREAM;
         };
     }
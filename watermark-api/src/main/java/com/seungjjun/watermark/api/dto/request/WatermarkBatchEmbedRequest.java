@@ -0,0 +1,34 @@
+package com.seungjjun.watermark.api.dto.request;
+
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public record WatermarkBatchEmbedRequest(
+    @NotNull(message = "Image file is required")
+    MultipartFile image,
+
+    // 수신자마다 하나. 결과 zip 항목은 이 순서대로 번호가 붙는다
+    @NotEmpty(message = "At least one watermark text is required")
+    @Size(max = 1000, message = "At most 1000 watermark texts per batch")
+    List<@NotBlank(message = "Watermark text is required")
+         @Size(min = 1, max = 128, message = "Watermark text must be between 1 and 128 characters") String>
+        watermarkTexts,
+
+    // 미지정 시 설정의 기본 알고리즘
+    WatermarkAlgorithm algorithm,
+
+    // AUTO일 때 재압축에 견뎌야 하는지 여부 (미지정 시 true)
+    Boolean robust
+) {
+
+    public boolean robustRequired() {
+        return !Boolean.FALSE.equals(robust);
+    }
+}
@@ -1,5 +1,7 @@
 package com.seungjjun.watermark.api.dto.request;
 
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -11,6 +13,16 @@ public record WatermarkEmbedRequest(
 
     @NotBlank(message = "Watermark text is required")
     @Size(min = 1, max = 128, message = "Watermark text must be between 1 and 128 characters")
-    String watermarkText
+    String watermarkText,
+
+    // 미지정 시 설정의 기본 알고리즘
+    WatermarkAlgorithm algorithm,
+
+    // AUTO일 때 재압축에 견뎌야 하는지 여부 (미지정 시 true)
+    Boolean robust
 ) {
+
+    public boolean robustRequired() {
+        return !Boolean.FALSE.equals(robust);
+    }
 }
@@ -1,5 +1,7 @@
 package com.seungjjun.watermark.api.dto.request;
 
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -12,6 +14,9 @@ public record WatermarkExtractRequest(
     @NotNull(message = "Watermark length is required")
     @Min(value = 1, message = "Watermark length must be at least 1")
     @Max(value = 128, message = "Watermark length must not exceed 128")
-    Integer watermarkLength
+    Integer watermarkLength,
+
+    // 미지정 시 설정의 기본 알고리즘. AUTO는 무손실 이미지에서 LSB를 먼저 시도한다
+    WatermarkAlgorithm algorithm
 ) {
 }
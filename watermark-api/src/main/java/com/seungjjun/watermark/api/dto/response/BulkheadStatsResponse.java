@@ -0,0 +1,26 @@
+package com.seungjjun.watermark.api.dto.response;
+
+import com.seungjjun.watermark.service.bulkhead.BulkheadStats;
+
+public record BulkheadStatsResponse(
+    int maxConcurrent,
+    int active,
+    int waiting,
+    long acquired,
+    long rejected,
+    double averageWaitMillis,
+    double maxWaitMillis
+) {
+
+    public static BulkheadStatsResponse from(BulkheadStats stats) {
+        return new BulkheadStatsResponse(
+                stats.maxConcurrent(),
+                stats.active(),
+                stats.waiting(),
+                stats.acquired(),
+                stats.rejected(),
+                stats.averageWaitMillis(),
+                stats.maxWaitMillis()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.seungjjun.watermark.api.dto.response;
+
+import com.seungjjun.watermark.service.cache.CacheStats;
+
+public record CacheStatsResponse(
+    long hits,
+    long misses,
+    double hitRate,
+    long evictions,
+    int entries,
+    long sizeInBytes,
+    long maxBytes
+) {
+
+    public static CacheStatsResponse from(CacheStats stats) {
+        return new CacheStatsResponse(
+                stats.hits(),
+                stats.misses(),
+                stats.hitRate(),
+                stats.evictions(),
+                stats.entries(),
+                stats.sizeInBytes(),
+                stats.maxBytes()
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.seungjjun.watermark.api.dto.response;
+
+import com.seungjjun.watermark.core.codec.CodecTimings;
+
+import java.util.List;
+import java.util.Map;
+
+public record CodecStatsResponse(
+    String format,
+    long decodeCount,
+    double averageDecodeMillis,
+    long encodeCount,
+    double averageEncodeMillis
+) {
+
+    public static List<CodecStatsResponse> from(Map<String, CodecTimings> timings) {
+        return timings.entrySet().stream()
+                .map(entry -> new CodecStatsResponse(
+                        entry.getKey(),
+                        entry.getValue().getDecodeCount(),
+                        entry.getValue().averageDecodeMillis(),
+                        entry.getValue().getEncodeCount(),
+                        entry.getValue().averageEncodeMillis()
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.seungjjun.watermark.api.dto.response;
+
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+import com.seungjjun.watermark.service.job.JobStatus;
+import com.seungjjun.watermark.service.job.WatermarkJob;
+
+import java.time.Instant;
+
+public record WatermarkJobResponse(
+    String jobId,
+    JobStatus status,
+    String format,
+    WatermarkAlgorithm algorithm,
+    Instant createdAt,
+    Instant completedAt,
+    // 이 시각이 지나면 상태와 결과를 조회할 수 없다
+    Instant expiresAt,
+    String errorCode,
+    String errorMessage
+) {
+
+    public static WatermarkJobResponse from(WatermarkJob job) {
+        return new WatermarkJobResponse(
+                job.id(),
+                job.status(),
+                job.format(),
+                job.algorithm(),
+                job.createdAt(),
+                job.completedAt(),
+                job.expiresAt(),
+                job.errorCode() != null ? job.errorCode().getCode() : null,
+                job.errorCode() != null ? job.errorCode().getMessage() : null
+        );
+    }
+}
@@ -3,7 +3,9 @@ package com.seungjjun.watermark.api.exception;
 import com.seungjjun.watermark.api.dto.response.ErrorResponse;
 import com.seungjjun.watermark.common.exception.CoreException;
 import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.service.job.JobRejectedException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,6 +13,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,13 +25,14 @@ import lombok.extern.slf4j.Slf4j;
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(CoreException.class)
-    public ResponseEntity<ErrorResponse> handleCoreException(CoreException e) {
+    public ResponseEntity<ErrorResponse> handleCoreException(CoreException e, HttpServletResponse response) {
         ErrorCode errorCode = e.getErrorCode();
         switch (e.getErrorCode().getLogLevel()) {
             case ERROR -> log.error("CoreException: {}", e.getMessage(), e);
             case WARN -> log.warn("CoreException: {}", e.getMessage(), e);
             default -> log.info("CoreException: {}", e.getMessage(), e);
         }
+        resetForErrorResponse(e, response);
 
         ErrorResponse errorResponse = e.getData() != null
                 ? ErrorResponse.error(errorCode, e.getData())
@@ -38,6 +43,18 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    // 대기열이 가득 차 거절한 작업. Retry-After(초) 뒤에 다시 요청하도록 알린다
+    @ExceptionHandler(JobRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleJobRejectedException(JobRejectedException e) {
+        log.warn("Job rejected: {}", e.getMessage());
+
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity
+                .status(e.getErrorCode().getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ErrorResponse.error(e.getErrorCode()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException e) {
         log.warn("Validation error: {}", e.getMessage());
@@ -80,8 +97,9 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleException(Exception e) {
+    public ResponseEntity<ErrorResponse> handleException(Exception e, HttpServletResponse response) throws Exception {
         log.error("Unexpected error occurred", e);
+        resetForErrorResponse(e, response);
 
         ErrorResponse errorResponse = ErrorResponse.error(ErrorCode.INTERNAL_SERVER_ERROR);
 
@@ -89,4 +107,14 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(errorResponse);
     }
+
+    // 스트리밍 응답의 body에서 난 예외는 200과 이미지 헤더를 정한 뒤에 온다. 아직 아무것도 보내지 않았으면
+    // 이미지 헤더를 지우고 에러 응답으로 바꾼다. 이미 일부를 보냈으면 상태 코드를 바꿀 수 없으므로 예외를 다시 던져
+    // 컨테이너가 연결을 끊게 한다. 클라이언트는 정상으로 끝난 것처럼 보이는 잘린 이미지 대신 끝나지 않은 응답을 받는다
+    private static <E extends Exception> void resetForErrorResponse(E e, HttpServletResponse response) throws E {
+        if (response.isCommitted()) {
+            throw e;
+        }
+        response.reset();
+    }
 }
@@ -1,18 +1,41 @@
 package com.seungjjun.watermark.api.controller;
 
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.core.codec.CodecTimings;
 import com.seungjjun.watermark.service.WatermarkService;
-import com.seungjjun.watermark.service.dto.WatermarkEmbedResult;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+import com.seungjjun.watermark.service.bulkhead.BulkheadStats;
+import com.seungjjun.watermark.service.cache.CacheStats;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+import com.seungjjun.watermark.service.job.JobRejectedException;
+import com.seungjjun.watermark.service.job.JobStatus;
+import com.seungjjun.watermark.service.job.WatermarkJob;
+import com.seungjjun.watermark.service.job.WatermarkJobService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import jakarta.servlet.ServletException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,6 +49,9 @@ class WatermarkControllerTest {
     @MockBean
     private WatermarkService watermarkService;
 
+    @MockBean
+    private WatermarkJobService watermarkJobService;
+
     @Test
     @DisplayName("워터마크 삽입 - 정상 케이스")
     void embedWatermark_Success() throws Exception {
@@ -40,21 +66,189 @@ class WatermarkControllerTest {
         String watermarkText = "MyWatermark";
         byte[] resultBytes = "watermarked image".getBytes();
 
-        WatermarkEmbedResult mockResult = WatermarkEmbedResult.of(resultBytes, "png");
-        given(watermarkService.embedWatermark(any(), eq(watermarkText)))
-                .willReturn(mockResult);
+        WatermarkEmbedStream mockStream = new WatermarkEmbedStream("png", WatermarkAlgorithm.DCT,
+                output -> output.write(resultBytes));
+        given(watermarkService.embedWatermarkStreaming(any(), eq(watermarkText), isNull(), eq(true)))
+                .willReturn(mockStream);
 
-        // when & then
-        mockMvc.perform(multipart("/v1/watermark/embed")
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed")
                         .file(imageFile)
                         .param("watermarkText", watermarkText))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", MediaType.IMAGE_PNG_VALUE))
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"watermarked.png\""))
+                .andExpect(header().string("X-Watermark-Algorithm", "DCT"))
+                .andExpect(content().bytes(resultBytes));
+    }
+
+    @Test
+    @DisplayName("워터마크 삽입 - 알고리즘과 견고성 지정 시 서비스에 전달하고 사용한 알고리즘을 헤더로 반환")
+    void embedWatermark_WithAlgorithm() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.jpg",
+                MediaType.IMAGE_JPEG_VALUE,
+                "test image content".getBytes()
+        );
+
+        String watermarkText = "MyWatermark";
+        byte[] resultBytes = "watermarked image".getBytes();
+
+        // LSB는 무손실 출력만 가능하므로 JPG 입력이어도 PNG로 응답한다
+        WatermarkEmbedStream mockStream = new WatermarkEmbedStream("png", WatermarkAlgorithm.LSB,
+                output -> output.write(resultBytes));
+        given(watermarkService.embedWatermarkStreaming(
+                any(), eq(watermarkText), eq(WatermarkAlgorithm.AUTO), eq(false)))
+                .willReturn(mockStream);
+
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed")
+                        .file(imageFile)
+                        .param("watermarkText", watermarkText)
+                        .param("algorithm", "AUTO")
+                        .param("robust", "false"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.IMAGE_PNG_VALUE))
+                .andExpect(header().string("X-Watermark-Algorithm", "LSB"))
                 .andExpect(content().bytes(resultBytes));
     }
 
+    @Test
+    @DisplayName("워터마크 삽입 - 결과를 보내기 전에 CPU 실행 슬롯 대기 시간을 넘으면 이미지 헤더 없이 503")
+    void embedWatermark_ServerBusyBeforeWriting() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+
+        WatermarkEmbedStream busyStream = new WatermarkEmbedStream("png", WatermarkAlgorithm.DCT, output -> {
+            throw new CoreException(ErrorCode.SERVER_BUSY);
+        });
+        given(watermarkService.embedWatermarkStreaming(any(), eq("MyWatermark"), isNull(), eq(true)))
+                .willReturn(busyStream);
+
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed")
+                        .file(imageFile)
+                        .param("watermarkText", "MyWatermark"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(header().doesNotExist("X-Watermark-Algorithm"))
+                .andExpect(jsonPath("$.code").value(ErrorCode.SERVER_BUSY.getCode()));
+    }
+
+    @Test
+    @DisplayName("워터마크 삽입 - 응답을 보내기 전에 처리 중 오류가 나면 쓰던 결과를 버리고 에러 응답")
+    void embedWatermark_ProcessingFailsBeforeCommit() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+
+        WatermarkEmbedStream failingStream = new WatermarkEmbedStream("png", WatermarkAlgorithm.DCT, output -> {
+            output.write("partial image".getBytes());
+            throw new CoreException(ErrorCode.IMAGE_PROCESSING_FAILED);
+        });
+        given(watermarkService.embedWatermarkStreaming(any(), eq("MyWatermark"), isNull(), eq(true)))
+                .willReturn(failingStream);
+
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed")
+                        .file(imageFile)
+                        .param("watermarkText", "MyWatermark"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(jsonPath("$.code").value(ErrorCode.IMAGE_PROCESSING_FAILED.getCode()));
+    }
+
+    @Test
+    @DisplayName("워터마크 삽입 - 응답을 보내기 시작한 뒤 오류가 나면 에러 응답으로 바꾸지 않고 예외를 컨테이너로 넘겨 연결을 끊는다")
+    void embedWatermark_ProcessingFailsAfterCommit() throws Exception {
+        // given: 응답 버퍼(4KB)보다 많이 써서 상태 코드와 헤더가 이미 나간 뒤 실패한다
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+
+        byte[] sent = new byte[8 * 1024];
+        WatermarkEmbedStream failingStream = new WatermarkEmbedStream("png", WatermarkAlgorithm.DCT, output -> {
+            output.write(sent);
+            throw new CoreException(ErrorCode.IMAGE_PROCESSING_FAILED);
+        });
+        given(watermarkService.embedWatermarkStreaming(any(), eq("MyWatermark"), isNull(), eq(true)))
+                .willReturn(failingStream);
+
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed")
+                        .file(imageFile)
+                        .param("watermarkText", "MyWatermark"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        assertThatThrownBy(() -> mockMvc.perform(asyncDispatch(asyncResult)))
+                .isInstanceOf(ServletException.class)
+                .hasCauseInstanceOf(CoreException.class);
+        MockHttpServletResponse response = asyncResult.getResponse();
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).hasSize(sent.length);
+    }
+
+    @Test
+    @DisplayName("워터마크 삽입 - 지원하지 않는 알고리즘")
+    void embedWatermark_UnknownAlgorithm() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+
+        // when & then
+        mockMvc.perform(multipart("/v1/watermark/embed")
+                        .file(imageFile)
+                        .param("watermarkText", "MyWatermark")
+                        .param("algorithm", "WAVELET"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("워터마크 삽입 - 이미지 파일 누락")
     void embedWatermark_MissingImage() throws Exception {
@@ -123,6 +317,64 @@ class WatermarkControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("워터마크 일괄 삽입 - 텍스트 목록을 순서대로 전달하고 zip으로 응답")
+    void embedWatermarkBatch_Success() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+
+        byte[] resultBytes = "zip content".getBytes();
+        WatermarkEmbedStream mockStream = new WatermarkEmbedStream("zip", WatermarkAlgorithm.DCT,
+                output -> output.write(resultBytes));
+        given(watermarkService.embedWatermarkBatch(
+                any(), eq(List.of("alice@example.com", "bob@example.com")), isNull(), eq(true)))
+                .willReturn(mockStream);
+
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed/batch")
+                        .file(imageFile)
+                        .param("watermarkTexts", "alice@example.com", "bob@example.com"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/zip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"watermarked.zip\""))
+                .andExpect(header().string("X-Watermark-Algorithm", "DCT"))
+                .andExpect(content().bytes(resultBytes));
+    }
+
+    @Test
+    @DisplayName("워터마크 일괄 삽입 - 텍스트 목록 누락 또는 빈 텍스트 포함")
+    void embedWatermarkBatch_MissingOrBlankTexts() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+
+        // when & then
+        mockMvc.perform(multipart("/v1/watermark/embed/batch")
+                        .file(imageFile))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(multipart("/v1/watermark/embed/batch")
+                        .file(imageFile)
+                        .param("watermarkTexts", "alice@example.com", " "))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("워터마크 추출 - 정상 케이스")
     void extractWatermark_Success() throws Exception {
@@ -137,7 +389,7 @@ class WatermarkControllerTest {
         int watermarkLength = 11;
         String extractedText = "MyWatermark";
 
-        given(watermarkService.extractWatermark(any(), eq(watermarkLength)))
+        given(watermarkService.extractWatermark(any(), eq(watermarkLength), isNull()))
                 .willReturn(extractedText);
 
         // when & then
@@ -151,6 +403,30 @@ class WatermarkControllerTest {
                 .andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    @DisplayName("워터마크 추출 - 알고리즘 지정")
+    void extractWatermark_WithAlgorithm() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "watermarked.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "watermarked image content".getBytes()
+        );
+
+        given(watermarkService.extractWatermark(any(), eq(11), eq(WatermarkAlgorithm.LSB)))
+                .willReturn("MyWatermark");
+
+        // when & then
+        mockMvc.perform(multipart("/v1/watermark/extract")
+                        .file(imageFile)
+                        .param("watermarkLength", "11")
+                        .param("algorithm", "LSB"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.extractedText").value("MyWatermark"));
+    }
+
     @Test
     @DisplayName("워터마크 추출 - 이미지 파일 누락")
     void extractWatermark_MissingImage() throws Exception {
@@ -231,18 +507,219 @@ class WatermarkControllerTest {
         String watermarkText = "MyWatermark";
         byte[] resultBytes = "watermarked image".getBytes();
 
-        WatermarkEmbedResult mockResult = WatermarkEmbedResult.of(resultBytes, "jpg");
-        given(watermarkService.embedWatermark(any(), eq(watermarkText)))
-                .willReturn(mockResult);
+        WatermarkEmbedStream mockStream = new WatermarkEmbedStream("jpg", WatermarkAlgorithm.DCT,
+                output -> output.write(resultBytes));
+        given(watermarkService.embedWatermarkStreaming(any(), eq(watermarkText), isNull(), eq(true)))
+                .willReturn(mockStream);
 
-        // when & then
-        mockMvc.perform(multipart("/v1/watermark/embed")
+        // when
+        MvcResult asyncResult = mockMvc.perform(multipart("/v1/watermark/embed")
                         .file(imageFile)
                         .param("watermarkText", watermarkText))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.IMAGE_JPEG_VALUE))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"watermarked.jpg\""))
+                .andExpect(content().bytes(resultBytes));
+    }
+
+    @Test
+    @DisplayName("코덱 통계 조회 - 포맷별 평균 디코딩/인코딩 시간")
+    void getCodecStats_Success() throws Exception {
+        // given
+        given(watermarkService.getCodecTimings())
+                .willReturn(Map.of("png", new CodecTimings(2, 6_000_000, 1, 5_000_000)));
+
+        // when & then
+        mockMvc.perform(get("/v1/watermark/codec-stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].format").value("png"))
+                .andExpect(jsonPath("$[0].decodeCount").value(2))
+                .andExpect(jsonPath("$[0].averageDecodeMillis").value(3.0))
+                .andExpect(jsonPath("$[0].encodeCount").value(1))
+                .andExpect(jsonPath("$[0].averageEncodeMillis").value(5.0));
+    }
+
+    @Test
+    @DisplayName("변환 결과 캐시 통계 조회 - 적중률과 사용 중인 크기")
+    void getCacheStats_Success() throws Exception {
+        // given
+        given(watermarkService.getCacheStats())
+                .willReturn(new CacheStats(3, 1, 0, 1, 86_400, 268_435_456));
+
+        // when & then
+        mockMvc.perform(get("/v1/watermark/cache-stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(3))
+                .andExpect(jsonPath("$.misses").value(1))
+                .andExpect(jsonPath("$.hitRate").value(0.75))
+                .andExpect(jsonPath("$.evictions").value(0))
+                .andExpect(jsonPath("$.entries").value(1))
+                .andExpect(jsonPath("$.sizeInBytes").value(86_400))
+                .andExpect(jsonPath("$.maxBytes").value(268_435_456));
+    }
+
+    @Test
+    @DisplayName("CPU 실행 슬롯 통계 조회 - 대기 시간은 밀리초")
+    void getBulkheadStats_Success() throws Exception {
+        // given
+        given(watermarkService.getBulkheadStats())
+                .willReturn(new BulkheadStats(4, 4, 2, 9, 1, 50_000_000, 20_000_000));
+
+        // when & then
+        mockMvc.perform(get("/v1/watermark/bulkhead-stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxConcurrent").value(4))
+                .andExpect(jsonPath("$.active").value(4))
+                .andExpect(jsonPath("$.waiting").value(2))
+                .andExpect(jsonPath("$.acquired").value(9))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.averageWaitMillis").value(5.0))
+                .andExpect(jsonPath("$.maxWaitMillis").value(20.0));
+    }
+
+    @Test
+    @DisplayName("워터마크 추출 - CPU 실행 슬롯을 기다리다 제한 시간을 넘으면 503")
+    void extractWatermark_ServerBusy() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "watermarked.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "watermarked image content".getBytes()
+        );
+
+        given(watermarkService.extractWatermark(any(), eq(11), isNull()))
+                .willThrow(new CoreException(ErrorCode.SERVER_BUSY));
+
+        // when & then
+        mockMvc.perform(multipart("/v1/watermark/extract")
+                        .file(imageFile)
+                        .param("watermarkLength", "11"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value(ErrorCode.SERVER_BUSY.getCode()));
+    }
+
+    @Test
+    @DisplayName("비동기 삽입 작업 제출 - 202와 작업 상태 URL 반환")
+    void submitEmbedJob_Accepted() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+        WatermarkJob job = new WatermarkJob("job-1", JobStatus.QUEUED, "png", WatermarkAlgorithm.DCT,
+                Instant.parse("2024-01-01T00:00:00Z"), null, null, null, null);
+        given(watermarkJobService.submit(any(), eq("MyWatermark"), isNull(), eq(true))).willReturn(job);
+
+        // when & then
+        mockMvc.perform(multipart("/v1/watermark/jobs")
+                        .file(imageFile)
+                        .param("watermarkText", "MyWatermark"))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/v1/watermark/jobs/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.format").value("png"))
+                .andExpect(jsonPath("$.algorithm").value("DCT"));
+    }
+
+    @Test
+    @DisplayName("비동기 삽입 작업 제출 - 대기열이 가득 차면 429와 Retry-After")
+    void submitEmbedJob_QueueFull() throws Exception {
+        // given
+        MockMultipartFile imageFile = new MockMultipartFile(
+                "image",
+                "test.png",
+                MediaType.IMAGE_PNG_VALUE,
+                "test image content".getBytes()
+        );
+        given(watermarkJobService.submit(any(), any(), any(), anyBoolean()))
+                .willThrow(new JobRejectedException(Duration.ofMillis(4500)));
+
+        // when & then
+        mockMvc.perform(multipart("/v1/watermark/jobs")
+                        .file(imageFile)
+                        .param("watermarkText", "MyWatermark"))
                 .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.code").value(ErrorCode.JOB_QUEUE_FULL.getCode()));
+    }
+
+    @Test
+    @DisplayName("작업 상태 조회 - 실패한 작업은 원인 에러 코드를 함께 반환")
+    void getJob_Failed() throws Exception {
+        // given
+        WatermarkJob job = new WatermarkJob("job-1", JobStatus.FAILED, "png", WatermarkAlgorithm.DCT,
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-01T00:00:03Z"),
+                Instant.parse("2024-01-01T00:10:03Z"), ErrorCode.IMAGE_READ_FAILED, null);
+        given(watermarkJobService.getJob("job-1")).willReturn(job);
+
+        // when & then
+        mockMvc.perform(get("/v1/watermark/jobs/job-1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.completedAt").value("2024-01-01T00:00:03Z"))
+                .andExpect(jsonPath("$.expiresAt").value("2024-01-01T00:10:03Z"))
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.IMAGE_READ_FAILED.getCode()));
+    }
+
+    @Test
+    @DisplayName("작업 상태 조회 - 없거나 보관 기간이 지난 작업은 404")
+    void getJob_NotFound() throws Exception {
+        // given
+        given(watermarkJobService.getJob("unknown")).willThrow(new CoreException(ErrorCode.JOB_NOT_FOUND));
+
+        // when & then
+        mockMvc.perform(get("/v1/watermark/jobs/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(ErrorCode.JOB_NOT_FOUND.getCode()));
+    }
+
+    @Test
+    @DisplayName("작업 결과 조회 - 완료된 작업의 결과 이미지를 스트리밍")
+    void getJobResult_Success() throws Exception {
+        // given
+        byte[] resultBytes = "watermarked image".getBytes();
+        given(watermarkJobService.openResult("job-1")).willReturn(
+                new WatermarkEmbedStream("jpg", WatermarkAlgorithm.DCT, output -> output.write(resultBytes)));
+
+        // when
+        MvcResult asyncResult = mockMvc.perform(get("/v1/watermark/jobs/job-1/result"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", MediaType.IMAGE_JPEG_VALUE))
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"watermarked.jpg\""))
+                .andExpect(header().string("X-Watermark-Algorithm", "DCT"))
                 .andExpect(content().bytes(resultBytes));
     }
+
+    @Test
+    @DisplayName("작업 결과 조회 - 아직 끝나지 않은 작업은 409")
+    void getJobResult_NotCompleted() throws Exception {
+        // given
+        given(watermarkJobService.openResult("job-1")).willThrow(new CoreException(ErrorCode.JOB_NOT_COMPLETED));
+
+        // when & then
+        mockMvc.perform(get("/v1/watermark/jobs/job-1/result"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value(ErrorCode.JOB_NOT_COMPLETED.getCode()));
+    }
 }
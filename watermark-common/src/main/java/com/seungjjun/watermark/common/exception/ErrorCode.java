@@ -16,12 +16,18 @@ public enum ErrorCode {
     WATERMARK_TEXT_EMPTY("WM101", "워터마크 텍스트가 비어있습니다", 400, Level.INFO),
     WATERMARK_LENGTH_INVALID("WM103", "워터마크 길이가 유효하지 않습니다", 400, Level.INFO),
     WATERMARK_LENGTH_EXCEEDS_CAPACITY("WM104", "이미지 용량을 초과하는 워터마크 길이입니다", 400, Level.INFO),
+    WATERMARK_NOT_FOUND("WM105", "이미지에서 워터마크를 찾을 수 없습니다", 400, Level.INFO),
 
     WATERMARK_EMBEDDING_FAILED("WM201", "워터마크 삽입 중 오류가 발생했습니다", 500, Level.ERROR),
     WATERMARK_EXTRACTION_FAILED("WM202", "워터마크 추출 중 오류가 발생했습니다", 500, Level.ERROR),
     IMAGE_PROCESSING_FAILED("WM203", "이미지 처리 중 오류가 발생했습니다", 500, Level.ERROR),
     IMAGE_CONVERSION_FAILED("WM204", "이미지 변환 중 오류가 발생했습니다", 500, Level.ERROR),
 
+    JOB_NOT_FOUND("WM301", "작업을 찾을 수 없거나 결과 보관 기간이 지났습니다", 404, Level.INFO),
+    JOB_NOT_COMPLETED("WM302", "작업이 아직 완료되지 않았습니다", 409, Level.INFO),
+    JOB_QUEUE_FULL("WM303", "대기 중인 작업이 많아 요청을 받을 수 없습니다. 잠시 후 다시 시도해 주세요", 429, Level.WARN),
+    SERVER_BUSY("WM304", "처리 중인 이미지 작업이 많아 요청을 처리할 수 없습니다. 잠시 후 다시 시도해 주세요", 503, Level.WARN),
+
     INTERNAL_SERVER_ERROR("WM999", "예기치 못한 오류가 발생했습니다", 500, Level.ERROR);
 
     private final String code;
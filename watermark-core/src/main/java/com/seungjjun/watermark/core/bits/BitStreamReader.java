@@ -0,0 +1,57 @@
+package com.seungjjun.watermark.core.bits;
+
+// BitVector를 position부터 최대 64비트씩 차례로 읽는 커서. 길이를 넘는 비트는 0으로 읽는다.
+// 픽셀마다 호출되므로 길이 안쪽은 워드 배열에서 바로 읽는다
+public final class BitStreamReader {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+
+    private final BitVector bits;
+    private final long[] words;
+    private final long length;
+    private long position;
+
+    public BitStreamReader(BitVector bits) {
+        this(bits, 0);
+    }
+
+    public BitStreamReader(BitVector bits, long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position must not be negative: " + position);
+        }
+        this.bits = bits;
+        this.words = bits.words();
+        this.length = bits.length();
+        this.position = position;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    // 다음 count(1~64)비트를 첫 비트가 최상위가 되도록 하위 count비트에 담아 반환
+    public long next(int count) {
+        if (count < 1 || count > Long.SIZE) {
+            throw new IllegalArgumentException("Bit count must be between 1 and 64: " + count);
+        }
+        long end = position + count;
+        long value;
+        if (end <= length) {
+            int word = (int) (position >>> WORD_SHIFT);
+            int offset = (int) position & WORD_MASK;
+            value = words[word] << offset;
+            if (offset + count > Long.SIZE) {
+                value |= words[word + 1] >>> (Long.SIZE - offset);
+            }
+            value >>>= Long.SIZE - count;
+        } else if (position < length) {
+            int available = (int) (length - position);
+            value = bits.getBits((int) position, available) << (count - available);
+        } else {
+            value = 0;
+        }
+        position = end;
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.seungjjun.watermark.core.bits;
+
+// BitVector의 position부터 최대 64비트씩 차례로 쓰는 커서
+public final class BitStreamWriter {
+
+    private final BitVector bits;
+    private int position;
+
+    public BitStreamWriter(BitVector bits) {
+        this(bits, 0);
+    }
+
+    public BitStreamWriter(BitVector bits, int position) {
+        if (position < 0 || position > bits.length()) {
+            throw new IllegalArgumentException("Position " + position + " out of range [0, " + bits.length() + "]");
+        }
+        this.bits = bits;
+        this.position = position;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    // value의 하위 count(1~64)비트를 상위 비트부터 쓴다
+    public void put(int count, long value) {
+        bits.setBits(position, count, value);
+        position += count;
+    }
+}
@@ -0,0 +1,156 @@
+package com.seungjjun.watermark.core.bits;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// long 워드에 64비트씩 채운 고정 길이 비트열. 인덱스 i는 words[i / 64]의 상위(MSB)에서 i % 64번째 비트라서
+// 바이트 배열을 big-endian으로 8바이트씩 워드에 옮기면 바이트마다 MSB부터인 페이로드 순서와 같다.
+// 같은 워드를 여러 스레드가 동시에 쓰면 안 되므로 병렬 추출은 스레드별 벡터를 만든 뒤 or로 합치거나 워드 단위로 나눠 쓴다
+public final class BitVector {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+    private static final int BYTE_SHIFT = 3;
+    private static final int BYTES_PER_WORD_MASK = Long.BYTES - 1;
+    private static final long BYTE_MASK = 0xFFL;
+
+    private final long[] words;
+    private final int length;
+
+    public BitVector(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative");
+        }
+        this.length = length;
+        this.words = new long[(int) (((long) length + WORD_MASK) >>> WORD_SHIFT)];
+    }
+
+    public static BitVector of(boolean[] bits) {
+        BitVector vector = new BitVector(bits.length);
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i]) {
+                vector.set(i, true);
+            }
+        }
+        return vector;
+    }
+
+    // 바이트마다 MSB부터 이어 붙인 비트열
+    public static BitVector fromBytes(byte[] bytes) {
+        if (bytes.length > Integer.MAX_VALUE >>> BYTE_SHIFT) {
+            throw new IllegalArgumentException("Too many bytes for a bit vector: " + bytes.length);
+        }
+        BitVector vector = new BitVector(bytes.length << BYTE_SHIFT);
+        // 8바이트 단위는 big-endian long으로 한 번에 옮기고 남는 바이트만 하나씩 채운다
+        int fullWords = bytes.length / Long.BYTES;
+        ByteBuffer.wrap(bytes).asLongBuffer().get(vector.words, 0, fullWords);
+        for (int i = fullWords * Long.BYTES; i < bytes.length; i++) {
+            vector.words[i >>> BYTE_SHIFT] |= (bytes[i] & BYTE_MASK) << byteShift(i);
+        }
+        return vector;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // 같은 패키지의 스트림 커서가 범위 검사 없이 워드를 직접 읽는다
+    long[] words() {
+        return words;
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        return (words[index >>> WORD_SHIFT] & (Long.MIN_VALUE >>> (index & WORD_MASK))) != 0;
+    }
+
+    public void set(int index, boolean value) {
+        checkIndex(index);
+        long mask = Long.MIN_VALUE >>> (index & WORD_MASK);
+        if (value) {
+            words[index >>> WORD_SHIFT] |= mask;
+        } else {
+            words[index >>> WORD_SHIFT] &= ~mask;
+        }
+    }
+
+    // [index, index + count) 비트를 첫 비트가 최상위가 되도록 결과의 하위 count비트에 담는다 (count 1~64)
+    public long getBits(int index, int count) {
+        checkRange(index, count);
+        int word = index >>> WORD_SHIFT;
+        int offset = index & WORD_MASK;
+
+        long value = words[word] << offset;
+        if (offset + count > Long.SIZE) {
+            value |= words[word + 1] >>> (Long.SIZE - offset);
+        }
+        return value >>> (Long.SIZE - count);
+    }
+
+    // value의 하위 count비트를 [index, index + count)에 덮어쓴다 (count 1~64)
+    public void setBits(int index, int count, long value) {
+        checkRange(index, count);
+        int word = index >>> WORD_SHIFT;
+        int offset = index & WORD_MASK;
+        long aligned = value << (Long.SIZE - count);
+        long mask = -1L << (Long.SIZE - count);
+
+        words[word] = (words[word] & ~(mask >>> offset)) | (aligned >>> offset);
+        if (offset + count > Long.SIZE) {
+            int shift = Long.SIZE - offset;
+            words[word + 1] = (words[word + 1] & ~(mask << shift)) | (aligned << shift);
+        }
+    }
+
+    public void or(BitVector other) {
+        if (other.length != length) {
+            throw new IllegalArgumentException("Bit vector lengths differ: " + length + " vs " + other.length);
+        }
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    public boolean[] toArray() {
+        boolean[] bits = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            bits[i] = get(i);
+        }
+        return bits;
+    }
+
+    // fromBytes의 역변환. 길이가 8의 배수가 아니면 마지막 바이트의 남는 하위 비트는 0
+    public byte[] toBytes() {
+        byte[] bytes = new byte[(int) (((long) length + Byte.SIZE - 1) >>> BYTE_SHIFT)];
+        int fullWords = bytes.length / Long.BYTES;
+        ByteBuffer.wrap(bytes).asLongBuffer().put(words, 0, fullWords);
+        for (int i = fullWords * Long.BYTES; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> BYTE_SHIFT] >>> byteShift(i));
+        }
+        return bytes;
+    }
+
+    private static int byteShift(int byteIndex) {
+        return (BYTES_PER_WORD_MASK - (byteIndex & BYTES_PER_WORD_MASK)) << BYTE_SHIFT;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Bit index " + index + " out of range [0, " + length + ")");
+        }
+    }
+
+    private void checkRange(int index, int count) {
+        if (count < 1 || count > Long.SIZE) {
+            throw new IllegalArgumentException("Bit count must be between 1 and 64: " + count);
+        }
+        if (index < 0 || index > length - count) {
+            throw new IndexOutOfBoundsException(
+                "Bit range [" + index + ", " + ((long) index + count) + ") out of range [0, " + length + ")");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.seungjjun.watermark.core.bits;
+
+import java.nio.charset.StandardCharsets;
+
+// 워터마크 텍스트 <-> 비트열 변환 (UTF-8 바이트, 바이트마다 MSB부터)
+public final class WatermarkBits {
+
+    private WatermarkBits() {
+    }
+
+    public static BitVector fromText(String text) {
+        return BitVector.fromBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String toText(BitVector bits) {
+        return new String(bits.toBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package com.seungjjun.watermark.core.codec;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+
+// 이미 메모리에 있는 바이트 배열을 그대로 읽는 입력 스트림.
+// ImageIO 기본 스트림처럼 디스크 캐시 파일이나 별도 메모리 캐시로 복사하지 않는다
+final class ByteArrayImageInputStream extends ImageInputStreamImpl {
+
+    private final byte[] data;
+
+    ByteArrayImageInputStream(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public int read() {
+        if (streamPos >= data.length) {
+            return -1;
+        }
+        bitOffset = 0;
+        return data[(int) streamPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (streamPos >= data.length) {
+            return -1;
+        }
+        int count = (int) Math.min(len, data.length - streamPos);
+        System.arraycopy(data, (int) streamPos, b, off, count);
+        streamPos += count;
+        bitOffset = 0;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return data.length;
+    }
+}
@@ -0,0 +1,48 @@
+package com.seungjjun.watermark.core.codec;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 포맷별 디코딩/인코딩 횟수와 누적 시간
+public final class CodecStats {
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    void recordDecode(String format, long nanos) {
+        counters(format).record(true, nanos);
+    }
+
+    void recordEncode(String format, long nanos) {
+        counters(format).record(false, nanos);
+    }
+
+    // 포맷 이름 순으로 정렬된 현재 값
+    public Map<String, CodecTimings> snapshot() {
+        Map<String, CodecTimings> snapshot = new TreeMap<>();
+        counters.forEach((format, value) -> snapshot.put(format, value.toTimings()));
+        return snapshot;
+    }
+
+    private Counters counters(String format) {
+        return counters.computeIfAbsent(format, key -> new Counters());
+    }
+
+    private static final class Counters {
+
+        private final LongAdder decodeCount = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+        private final LongAdder encodeCount = new LongAdder();
+        private final LongAdder encodeNanos = new LongAdder();
+
+        void record(boolean decode, long nanos) {
+            (decode ? decodeCount : encodeCount).increment();
+            (decode ? decodeNanos : encodeNanos).add(nanos);
+        }
+
+        CodecTimings toTimings() {
+            return new CodecTimings(decodeCount.sum(), decodeNanos.sum(), encodeCount.sum(), encodeNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.seungjjun.watermark.core.codec;
+
+public final class CodecTimings {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long decodeCount;
+    private final long decodeNanos;
+    private final long encodeCount;
+    private final long encodeNanos;
+
+    public CodecTimings(long decodeCount, long decodeNanos, long encodeCount, long encodeNanos) {
+        this.decodeCount = decodeCount;
+        this.decodeNanos = decodeNanos;
+        this.encodeCount = encodeCount;
+        this.encodeNanos = encodeNanos;
+    }
+
+    public long getDecodeCount() {
+        return decodeCount;
+    }
+
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    public long getEncodeCount() {
+        return encodeCount;
+    }
+
+    public long getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    public double averageDecodeMillis() {
+        return decodeCount == 0 ? 0.0 : decodeNanos / NANOS_PER_MILLI / decodeCount;
+    }
+
+    public double averageEncodeMillis() {
+        return encodeCount == 0 ? 0.0 : encodeNanos / NANOS_PER_MILLI / encodeCount;
+    }
+}
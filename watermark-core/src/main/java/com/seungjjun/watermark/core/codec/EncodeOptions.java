@@ -0,0 +1,48 @@
+package com.seungjjun.watermark.core.codec;
+
+// 포맷별 인코딩 파라미터. 기본값은 JDK writer의 기본 동작과 같다
+public final class EncodeOptions {
+
+    public static final float DEFAULT_JPEG_QUALITY = 0.75f;
+    public static final int DEFAULT_PNG_COMPRESSION_LEVEL = 4;
+    private static final int MAX_PNG_COMPRESSION_LEVEL = 9;
+
+    private final float jpegQuality;
+    // JPEG에만 적용. PNG Adam7 인터레이스는 band 단위 인코딩에서 패스마다 band를 다시 렌더링하게 된다
+    private final boolean progressive;
+    // deflate 레벨 (0: 무압축 ~ 9: 최대 압축)
+    private final int pngCompressionLevel;
+
+    public EncodeOptions(float jpegQuality, boolean progressive, int pngCompressionLevel) {
+        if (!(jpegQuality >= 0f && jpegQuality <= 1f)) {
+            throw new IllegalArgumentException("JPEG quality must be between 0 and 1: " + jpegQuality);
+        }
+        if (pngCompressionLevel < 0 || pngCompressionLevel > MAX_PNG_COMPRESSION_LEVEL) {
+            throw new IllegalArgumentException("PNG compression level must be between 0 and 9: " + pngCompressionLevel);
+        }
+        this.jpegQuality = jpegQuality;
+        this.progressive = progressive;
+        this.pngCompressionLevel = pngCompressionLevel;
+    }
+
+    public static EncodeOptions defaults() {
+        return new EncodeOptions(DEFAULT_JPEG_QUALITY, false, DEFAULT_PNG_COMPRESSION_LEVEL);
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+
+    public boolean isProgressive() {
+        return progressive;
+    }
+
+    public int getPngCompressionLevel() {
+        return pngCompressionLevel;
+    }
+
+    // PNG writer는 deflate 레벨을 9 - round(9 * quality)로 계산한다
+    float pngCompressionQuality() {
+        return (float) (MAX_PNG_COMPRESSION_LEVEL - pngCompressionLevel) / MAX_PNG_COMPRESSION_LEVEL;
+    }
+}
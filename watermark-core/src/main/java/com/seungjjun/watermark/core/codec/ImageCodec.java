@@ -0,0 +1,235 @@
+package com.seungjjun.watermark.core.codec;
+
+import com.seungjjun.watermark.core.raster.BandReader;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 포맷별로 ImageReader/ImageWriter를 풀링하고 메모리 스트림으로만 읽고 쓰는 코덱.
+// 요청마다 SPI 조회, 디스크 캐시 파일 생성, reader/writer 생성을 반복하지 않는다
+public final class ImageCodec {
+
+    public static final String FORMAT_JPEG = "jpeg";
+    public static final String FORMAT_PNG = "png";
+
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final EncodeOptions options;
+    private final int maxIdlePerFormat;
+    private final Map<String, BlockingQueue<ImageReader>> readers = new ConcurrentHashMap<>();
+    private final Map<String, BlockingQueue<ImageWriter>> writers = new ConcurrentHashMap<>();
+    private final CodecStats stats = new CodecStats();
+
+    public ImageCodec() {
+        this(EncodeOptions.defaults());
+    }
+
+    public ImageCodec(EncodeOptions options) {
+        this(options, Runtime.getRuntime().availableProcessors());
+    }
+
+    // maxIdlePerFormat: 포맷마다 재사용을 위해 보관하는 reader/writer 수 상한
+    public ImageCodec(EncodeOptions options, int maxIdlePerFormat) {
+        if (options == null) {
+            throw new IllegalArgumentException("Encode options must not be null");
+        }
+        if (maxIdlePerFormat < 1) {
+            throw new IllegalArgumentException("Max idle per format must be at least 1");
+        }
+        this.options = options;
+        this.maxIdlePerFormat = maxIdlePerFormat;
+    }
+
+    public EncodeOptions getOptions() {
+        return options;
+    }
+
+    public CodecStats getStats() {
+        return stats;
+    }
+
+    // ImageIO.read와 같이 읽을 수 있는 reader가 없으면 null
+    public BufferedImage decode(byte[] data) throws IOException {
+        ImageInputStream input = new ByteArrayImageInputStream(data);
+        String format = detectFormat(data);
+        ImageReader reader = borrowReader(format, input);
+        if (reader == null) {
+            input.close();
+            return null;
+        }
+        String statsFormat = format != null ? format : normalize(reader.getFormatName());
+
+        long start = System.nanoTime();
+        try {
+            reader.setInput(input, true, true);
+            return reader.read(0, reader.getDefaultReadParam());
+        } finally {
+            stats.recordDecode(statsFormat, System.nanoTime() - start);
+            input.close();
+            releaseReader(format, reader);
+        }
+    }
+
+    // 풀의 reader로 band 단위 읽기를 연다. 읽을 수 있는 reader가 없으면 null
+    public BandReader openBands(byte[] data) throws IOException {
+        ImageInputStream input = new ByteArrayImageInputStream(data);
+        String format = detectFormat(data);
+        ImageReader reader = borrowReader(format, input);
+        if (reader == null) {
+            input.close();
+            return null;
+        }
+        String statsFormat = format != null ? format : normalize(reader.getFormatName());
+
+        reader.setInput(input, false, true);
+        try {
+            return new BandReader(input, reader, band -> {
+                // 헤더만 읽고 닫은 경우는 디코딩으로 세지 않는다
+                if (band.getDecodeNanos() > 0) {
+                    stats.recordDecode(statsFormat, band.getDecodeNanos());
+                }
+                releaseReader(format, reader);
+            });
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            releaseReader(format, reader);
+            throw e;
+        }
+    }
+
+    public byte[] encode(RenderedImage image, String format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        encode(image, format, options, output);
+        return output.toByteArray();
+    }
+
+    public void encode(RenderedImage image, String format, OutputStream output) throws IOException {
+        encode(image, format, options, output);
+    }
+
+    public void encode(RenderedImage image, String format, EncodeOptions encodeOptions, OutputStream output)
+        throws IOException {
+        String key = normalize(format);
+        ImageWriter writer = borrowWriter(key);
+
+        long start = System.nanoTime();
+        try (ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), writeParam(writer, key, encodeOptions));
+        } finally {
+            stats.recordEncode(key, System.nanoTime() - start);
+            releaseWriter(key, writer);
+        }
+    }
+
+    private ImageWriteParam writeParam(ImageWriter writer, String format, EncodeOptions encodeOptions) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (FORMAT_JPEG.equals(format)) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(encodeOptions.getJpegQuality());
+            if (encodeOptions.isProgressive() && param.canWriteProgressive()) {
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+        } else if (FORMAT_PNG.equals(format) && param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(encodeOptions.pngCompressionQuality());
+        }
+        return param;
+    }
+
+    // 시그니처로 알 수 있는 포맷은 SPI 조회 없이 풀에서 꺼내고, 그 외 포맷은 매번 SPI로 찾는다
+    private ImageReader borrowReader(String format, ImageInputStream input) {
+        if (format == null) {
+            Iterator<ImageReader> candidates = ImageIO.getImageReaders(input);
+            return candidates.hasNext() ? candidates.next() : null;
+        }
+
+        ImageReader reader = readerPool(format).poll();
+        if (reader != null) {
+            return reader;
+        }
+        Iterator<ImageReader> candidates = ImageIO.getImageReadersByFormatName(format);
+        return candidates.hasNext() ? candidates.next() : null;
+    }
+
+    private void releaseReader(String format, ImageReader reader) {
+        // reset은 입력과 리스너를 떼어 내 이전 요청의 이미지를 붙잡지 않게 한다
+        reader.reset();
+        if (format == null || !readerPool(format).offer(reader)) {
+            reader.dispose();
+        }
+    }
+
+    private ImageWriter borrowWriter(String format) throws IOException {
+        ImageWriter writer = writerPool(format).poll();
+        if (writer != null) {
+            return writer;
+        }
+        Iterator<ImageWriter> candidates = ImageIO.getImageWritersByFormatName(format);
+        if (!candidates.hasNext()) {
+            throw new IOException("No image writer for format: " + format);
+        }
+        return candidates.next();
+    }
+
+    private void releaseWriter(String format, ImageWriter writer) {
+        writer.reset();
+        if (!writerPool(format).offer(writer)) {
+            writer.dispose();
+        }
+    }
+
+    private BlockingQueue<ImageReader> readerPool(String format) {
+        return readers.computeIfAbsent(format, key -> new ArrayBlockingQueue<>(maxIdlePerFormat));
+    }
+
+    private BlockingQueue<ImageWriter> writerPool(String format) {
+        return writers.computeIfAbsent(format, key -> new ArrayBlockingQueue<>(maxIdlePerFormat));
+    }
+
+    static String detectFormat(byte[] data) {
+        if (startsWith(data, JPEG_SIGNATURE)) {
+            return FORMAT_JPEG;
+        }
+        if (startsWith(data, PNG_SIGNATURE)) {
+            return FORMAT_PNG;
+        }
+        return null;
+    }
+
+    // jpg/JPG/JPEG는 모두 같은 풀과 통계를 쓴다
+    static String normalize(String format) {
+        String lower = format.toLowerCase(Locale.ROOT);
+        return "jpg".equals(lower) ? FORMAT_JPEG : lower;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] signature) {
+        if (data == null || data.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (data[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
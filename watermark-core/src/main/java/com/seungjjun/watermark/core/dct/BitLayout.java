@@ -0,0 +1,87 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.dct.strategy.PlaneWatermarkStrategy;
+
+import java.util.TreeSet;
+
+// 블록당 비트 수에 따른 삽입 위치와 비트 배치.
+// 블록당 N비트면 P비트 페이로드를 K = ceil(P / N)개 블록에 담고, j번째 위치가 비트 [j*K, (j+1)*K)를 블록 순서대로 담는다
+public final class BitLayout {
+
+    public static final int MAX_BITS_PER_BLOCK = 4;
+
+    // 대각선 중주파 위치 (targetPosition). 1비트 모드는 기존과 같은 (4,4)만 쓴다
+    private static final int[] POSITIONS = {4, 3, 5, 2};
+
+    private final int bitsPerBlock;
+
+    public BitLayout(int bitsPerBlock) {
+        if (bitsPerBlock < 1 || bitsPerBlock > MAX_BITS_PER_BLOCK) {
+            throw new IllegalArgumentException(
+                "Bits per block must be between 1 and " + MAX_BITS_PER_BLOCK + ": " + bitsPerBlock);
+        }
+        this.bitsPerBlock = bitsPerBlock;
+    }
+
+    public static BitLayout singleBit() {
+        return new BitLayout(1);
+    }
+
+    public int getBitsPerBlock() {
+        return bitsPerBlock;
+    }
+
+    public int position(int slot) {
+        return POSITIONS[slot];
+    }
+
+    public int capacity(int totalBlocks) {
+        return totalBlocks * bitsPerBlock;
+    }
+
+    // 페이로드를 담는 블록 수 (추출 시 변환하는 블록 수)
+    public int payloadBlocks(int payloadBits) {
+        return (payloadBits + bitsPerBlock - 1) / bitsPerBlock;
+    }
+
+    // firstBlock부터 blockCount개 블록 중 앞에서부터 삽입하는 블록 수.
+    // 1비트 모드는 기존처럼 페이로드 뒤 블록에도 0 비트를 넣고, 다중 비트 모드는 페이로드 블록만 건드린다
+    public int embeddedBlocks(int payloadBits, int firstBlock, int blockCount) {
+        if (bitsPerBlock == 1) {
+            return blockCount;
+        }
+        return Math.max(0, Math.min(blockCount, payloadBlocks(payloadBits) - firstBlock));
+    }
+
+    // 삽입 대상 블록이 있는 블록 행 수
+    public int embeddedRows(int payloadBits, int blocksPerRow, int blockRows) {
+        if (bitsPerBlock == 1) {
+            return blockRows;
+        }
+        return payloadRows(payloadBits, blocksPerRow, blockRows);
+    }
+
+    // 추출 시 변환하는 블록 행 수
+    public int payloadRows(int payloadBits, int blocksPerRow, int blockRows) {
+        if (blocksPerRow == 0) {
+            return 0;
+        }
+        return Math.min(blockRows, (payloadBlocks(payloadBits) + blocksPerRow - 1) / blocksPerRow);
+    }
+
+    // slot번째 위치가 담는 비트 평면의 시작 비트 인덱스
+    public int bitOffset(int slot, int payloadBits) {
+        return slot * payloadBlocks(payloadBits);
+    }
+
+    // 모든 위치에서 전략이 필요로 하는 계수 인덱스의 합집합
+    public int[] planeIndices(PlaneWatermarkStrategy strategy, int blockSize) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (int slot = 0; slot < bitsPerBlock; slot++) {
+            for (int index : strategy.planeIndices(position(slot), blockSize)) {
+                indices.add(index);
+            }
+        }
+        return indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
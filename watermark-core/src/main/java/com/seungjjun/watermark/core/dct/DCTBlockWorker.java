@@ -0,0 +1,166 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+import com.seungjjun.watermark.core.dct.color.ColorConversionKernel;
+import com.seungjjun.watermark.core.dct.color.LumaBlock;
+import com.seungjjun.watermark.core.dct.strategy.CoefficientPlane;
+import com.seungjjun.watermark.core.dct.strategy.PlaneWatermarkStrategy;
+import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
+
+// stripe 하나를 처리하는 스레드 한정 워커. 블록 단위 할당 없이 작업 공간을 재사용한다.
+// 전략 호출은 블록 행 단위로, 행의 모든 블록 계수를 모은 CoefficientPlane 하나로 한 번에 수행한다
+final class DCTBlockWorker {
+
+    private final int blockSize;
+    private final BitLayout layout;
+    private final DCTProcessor dctProcessor;
+    private final PlaneWatermarkStrategy planeStrategy;
+    private final int[] planeIndices;
+    private final ColorConversionKernel colorKernel;
+    private final LumaBlock block;
+
+    // 블록 행 길이에 맞춰 처음 쓰일 때 만든다
+    private CoefficientPlane plane;
+    private CoefficientPlane originalPlane;
+
+    DCTBlockWorker(int blockSize, BitLayout layout, WatermarkStrategy strategy, ColorConversionKernel colorKernel) {
+        this.blockSize = blockSize;
+        this.layout = layout;
+        this.dctProcessor = new DCTProcessor(blockSize, strategy);
+        this.planeStrategy = PlaneWatermarkStrategy.of(strategy);
+        this.planeIndices = layout.planeIndices(planeStrategy, blockSize);
+        this.colorKernel = colorKernel;
+        this.block = new LumaBlock(blockSize);
+    }
+
+    // 공간 패턴은 위치 하나만 캐싱하므로 1비트 모드에서만 쓴다. 이때는 순방향 계수가 필요 없다
+    boolean usesSpatialPattern() {
+        return dctProcessor.supportsSpatialEmbedding() && layout.getBitsPerBlock() == 1;
+    }
+
+    void embedRows(PixelAccessor src, PixelAccessor dest, int fromRow, int toRow, int blocksPerRow,
+                   BitVector watermarkBits, double strength) {
+        embedRows(src, dest, fromRow, toRow, blocksPerRow, null, watermarkBits, strength);
+    }
+
+    // transformed가 있으면 transformRows로 미리 계산해 둔 행별 순방향 계수를 변환 없이 쓴다
+    void embedRows(PixelAccessor src, PixelAccessor dest, int fromRow, int toRow, int blocksPerRow,
+                   CoefficientPlane[] transformed, BitVector watermarkBits, double strength) {
+        if (usesSpatialPattern()) {
+            embedRowsWithPattern(src, dest, fromRow, toRow, blocksPerRow, watermarkBits, strength);
+            return;
+        }
+
+        preparePlanes(blocksPerRow);
+        int payloadBits = watermarkBits.length();
+        for (int row = fromRow; row < toRow; row++) {
+            int firstBlock = row * blocksPerRow;
+            int blockCount = layout.embeddedBlocks(payloadBits, firstBlock, blocksPerRow);
+
+            // 페이로드가 닿지 않는 행은 계수를 계산해 두지 않았을 수 있다
+            if (transformed != null && blockCount > 0) {
+                plane.copyFrom(transformed[row]);
+                plane.reset(firstBlock, blockCount);
+            } else {
+                plane.reset(firstBlock, blockCount);
+                forwardRow(src, row, blockCount, plane);
+            }
+
+            originalPlane.copyFrom(plane);
+            for (int slot = 0; slot < layout.getBitsPerBlock(); slot++) {
+                plane.rebase(layout.bitOffset(slot, payloadBits) + firstBlock);
+                planeStrategy.embedBits(plane, watermarkBits, strength, layout.position(slot), blockSize);
+            }
+
+            // 픽셀은 행 전체를 보관하지 않고 다시 읽어 계수 변화량만큼의 휘도를 더한다
+            for (int col = 0; col < blockCount; col++) {
+                int x = col * blockSize;
+                int y = row * blockSize;
+                block.readFromImage(src, x, y);
+                dctProcessor.inverseFromPlane(originalPlane, plane, col, block.getLumaDelta());
+                block.writeToImage(dest, x, y, block.getLumaDelta(), colorKernel);
+            }
+            copyBlocks(src, dest, row, blockCount, blocksPerRow);
+        }
+    }
+
+    void extractRows(PixelAccessor src, int fromRow, int toRow, int blocksPerRow, BitVector extractedBits) {
+        preparePlanes(blocksPerRow);
+        int payloadBits = extractedBits.length();
+        int payloadBlocks = layout.payloadBlocks(payloadBits);
+        for (int row = fromRow; row < toRow; row++) {
+            int firstBlock = row * blocksPerRow;
+            int blockCount = Math.min(blocksPerRow, payloadBlocks - firstBlock);
+            if (blockCount <= 0) {
+                return;
+            }
+
+            plane.reset(firstBlock, blockCount);
+            forwardRow(src, row, blockCount, plane);
+            for (int slot = 0; slot < layout.getBitsPerBlock(); slot++) {
+                plane.rebase(layout.bitOffset(slot, payloadBits) + firstBlock);
+                planeStrategy.extractBits(plane, extractedBits, layout.position(slot), blockSize);
+            }
+        }
+    }
+
+    // 행의 모든 블록 순방향 계수를 행마다 새 평면에 담는다. 페이로드 길이와 무관하므로 여러 번의 삽입이 공유한다
+    void transformRows(PixelAccessor src, int fromRow, int toRow, int blocksPerRow, CoefficientPlane[] transformed) {
+        for (int row = fromRow; row < toRow; row++) {
+            CoefficientPlane rowPlane = new CoefficientPlane(planeIndices, blockSize * blockSize, blocksPerRow);
+            rowPlane.reset(row * blocksPerRow, blocksPerRow);
+            forwardRow(src, row, blocksPerRow, rowPlane);
+            transformed[row] = rowPlane;
+        }
+    }
+
+    // 평면 전략이 블록마다 보관하는 계수 수. 공간 패턴이면 계수를 보관하지 않는다
+    int planeCoefficients() {
+        return usesSpatialPattern() ? 0 : planeIndices.length;
+    }
+
+    private void forwardRow(PixelAccessor src, int row, int blockCount, CoefficientPlane target) {
+        for (int col = 0; col < blockCount; col++) {
+            block.readFromImage(src, col * blockSize, row * blockSize);
+            block.computeLuma(colorKernel);
+            dctProcessor.forwardToPlane(block.getYChannel(), target, col);
+        }
+    }
+
+    // 선형 전략은 계수를 계산할 필요 없이 비트별 공간 패턴이 곧 휘도 변화량이다
+    private void embedRowsWithPattern(PixelAccessor src, PixelAccessor dest, int fromRow, int toRow, int blocksPerRow,
+                                      BitVector watermarkBits, double strength) {
+        int targetPosition = layout.position(0);
+        for (int row = fromRow; row < toRow; row++) {
+            for (int col = 0; col < blocksPerRow; col++) {
+                int bitIndex = row * blocksPerRow + col;
+                boolean bit = bitIndex < watermarkBits.length() && watermarkBits.get(bitIndex);
+
+                int x = col * blockSize;
+                int y = row * blockSize;
+                block.readFromImage(src, x, y);
+                block.writeToImage(dest, x, y, dctProcessor.spatialPattern(bit, strength, targetPosition), colorKernel);
+            }
+        }
+    }
+
+    // 삽입하지 않는 블록은 변환 없이 원본 픽셀을 그대로 옮긴다
+    private void copyBlocks(PixelAccessor src, PixelAccessor dest, int row, int fromCol, int toCol) {
+        int[] pixels = block.getPixels();
+        for (int col = fromCol; col < toCol; col++) {
+            int x = col * blockSize;
+            int y = row * blockSize;
+            src.read(x, y, blockSize, blockSize, pixels, 0);
+            dest.write(x, y, blockSize, blockSize, pixels, 0);
+        }
+    }
+
+    private void preparePlanes(int blocksPerRow) {
+        if (plane == null || plane.getCapacity() < blocksPerRow) {
+            int blockLength = blockSize * blockSize;
+            plane = new CoefficientPlane(planeIndices, blockLength, blocksPerRow);
+            originalPlane = new CoefficientPlane(planeIndices, blockLength, blocksPerRow);
+        }
+    }
+}
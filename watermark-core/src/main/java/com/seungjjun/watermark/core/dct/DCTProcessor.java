@@ -1,48 +1,175 @@
 package com.seungjjun.watermark.core.dct;
 
+import com.seungjjun.watermark.core.dct.strategy.CoefficientPlane;
 import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
-import org.jtransforms.dct.DoubleDCT_2D;
+import com.seungjjun.watermark.core.dct.transform.DCTBasis;
+import com.seungjjun.watermark.core.dct.transform.DCTTransform;
 
+import java.util.Arrays;
+
+// 블록 데이터를 제자리(in-place)에서 변환한다. 스레드 간 공유 금지
 public class DCTProcessor {
 
+    private static final int NO_POSITION = -1;
+
     private final int blockSize;
-    private final DoubleDCT_2D dctCalculator;
+    private final DCTTransform dctCalculator;
     private final WatermarkStrategy strategy;
+    private final double[] sparseCoefficients;
+    private final double[] onePattern;
+    private final double[] zeroPattern;
+    private final double[] planeBuffer;
+    // 평면 계수별 기저 벡터 (처음 쓰일 때 계산)
+    private final double[][] planeBasis;
+
+    // 같은 targetPosition이 반복 호출되므로 마지막 위치의 기저 벡터만 캐싱
+    private int cachedPosition = NO_POSITION;
+    private int[] cachedIndices;
+    private double[][] cachedBasis;
+
+    // 선형 전략의 비트별 공간 패턴(onePattern/zeroPattern). 요청마다 strength가 달라질 수 있어 (위치, 강도)가 바뀌면 다시 계산
+    private int patternPosition = NO_POSITION;
+    private double patternStrength = Double.NaN;
 
     public DCTProcessor(int blockSize, WatermarkStrategy strategy) {
+        this(blockSize, strategy, DCTTransform.forBlockSize(blockSize));
+    }
+
+    public DCTProcessor(int blockSize, WatermarkStrategy strategy, DCTTransform dctCalculator) {
         this.blockSize = blockSize;
-        this.dctCalculator = new DoubleDCT_2D(blockSize, blockSize);
+        this.dctCalculator = dctCalculator;
         this.strategy = strategy;
+        this.sparseCoefficients = new double[blockSize * blockSize];
+        this.onePattern = new double[blockSize * blockSize];
+        this.zeroPattern = new double[blockSize * blockSize];
+        this.planeBuffer = new double[blockSize * blockSize];
+        this.planeBasis = new double[blockSize * blockSize][];
     }
 
-    public void embedWatermarkBit(double[][] yChannel, boolean bit, double strength, int targetPosition) {
-        double[] flatY = flatten(yChannel);
-        dctCalculator.forward(flatY, true);
+    public void embedWatermarkBit(double[] yChannel, boolean bit, double strength, int targetPosition) {
+        if (strategy.isLinear()) {
+            double[] pattern = spatialPattern(bit, strength, targetPosition);
+            for (int i = 0; i < yChannel.length; i++) {
+                yChannel[i] += pattern[i];
+            }
+            return;
+        }
+
+        dctCalculator.forward(yChannel);
+
+        strategy.embedBit(yChannel, bit, strength, targetPosition, blockSize);
+
+        dctCalculator.inverse(yChannel);
+    }
+
+    public boolean supportsSpatialEmbedding() {
+        return strategy.isLinear();
+    }
+
+    // 선형 전략의 휘도 변화량 패턴. 캐시된 배열이므로 호출자는 수정하면 안 된다
+    public double[] spatialPattern(boolean bit, double strength, int targetPosition) {
+        preparePatterns(strength, targetPosition);
+        return bit ? onePattern : zeroPattern;
+    }
+
+    public boolean extractWatermarkBit(double[] yChannel, int targetPosition) {
+        prepareBasis(targetPosition);
+
+        if (cachedIndices == null) {
+            dctCalculator.forward(yChannel);
+            return strategy.extractBit(yChannel, targetPosition, blockSize);
+        }
 
-        strategy.embedBit(flatY, bit, strength, targetPosition, blockSize);
+        // 전략이 읽는 계수만 기저 벡터와의 내적으로 계산
+        for (int i = 0; i < cachedIndices.length; i++) {
+            sparseCoefficients[cachedIndices[i]] = DCTBasis.project(yChannel, cachedBasis[i]);
+        }
+        return strategy.extractBit(sparseCoefficients, targetPosition, blockSize);
+    }
+
+    // 블록의 평면 계수를 계산해 plane의 block번째 열에 기록. 평면이 블록 전체 계수를 담으면 전체 순방향 DCT를 쓴다
+    public void forwardToPlane(double[] yChannel, CoefficientPlane plane, int block) {
+        int[] indices = plane.getCoefficientIndices();
+        if (indices.length == planeBuffer.length) {
+            System.arraycopy(yChannel, 0, planeBuffer, 0, planeBuffer.length);
+            dctCalculator.forward(planeBuffer);
+            for (int slot = 0; slot < indices.length; slot++) {
+                plane.valuesAt(slot)[block] = planeBuffer[indices[slot]];
+            }
+            return;
+        }
 
-        dctCalculator.inverse(flatY, true);
-        unflattenInto(flatY, yChannel);
+        for (int slot = 0; slot < indices.length; slot++) {
+            plane.valuesAt(slot)[block] = DCTBasis.project(yChannel, planeBasis(indices[slot]));
+        }
     }
 
-    public boolean extractWatermarkBit(double[][] yChannel, int targetPosition) {
-        double[] flatY = flatten(yChannel);
-        dctCalculator.forward(flatY, true);
+    // 평면 계수 변화량(after - before)의 역 DCT, 즉 block번째 블록에 더할 휘도 변화량을 delta에 기록
+    public void inverseFromPlane(CoefficientPlane before, CoefficientPlane after, int block, double[] delta) {
+        int[] indices = after.getCoefficientIndices();
+        if (indices.length == planeBuffer.length) {
+            for (int slot = 0; slot < indices.length; slot++) {
+                planeBuffer[indices[slot]] = after.valuesAt(slot)[block] - before.valuesAt(slot)[block];
+            }
+            dctCalculator.inverse(planeBuffer);
+            System.arraycopy(planeBuffer, 0, delta, 0, delta.length);
+            return;
+        }
 
-        return strategy.extractBit(flatY, targetPosition, blockSize);
+        Arrays.fill(delta, 0.0);
+        for (int slot = 0; slot < indices.length; slot++) {
+            double change = after.valuesAt(slot)[block] - before.valuesAt(slot)[block];
+            if (change == 0.0) {
+                continue;
+            }
+            double[] basis = planeBasis(indices[slot]);
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] += change * basis[i];
+            }
+        }
     }
 
-    private double[] flatten(double[][] arr) {
-        double[] res = new double[blockSize * blockSize];
-        for (int i = 0; i < blockSize; i++) {
-            System.arraycopy(arr[i], 0, res, i * blockSize, blockSize);
+    private double[] planeBasis(int coefficientIndex) {
+        if (planeBasis[coefficientIndex] == null) {
+            planeBasis[coefficientIndex] = DCTBasis.basisVector(blockSize, coefficientIndex);
         }
-        return res;
+        return planeBasis[coefficientIndex];
     }
 
-    private void unflattenInto(double[] arr, double[][] dest) {
-        for (int i = 0; i < blockSize; i++) {
-            System.arraycopy(arr, i * blockSize, dest[i], 0, blockSize);
+    private void prepareBasis(int targetPosition) {
+        if (targetPosition == cachedPosition) {
+            return;
         }
+
+        int[] indices = strategy.coefficientIndices(targetPosition, blockSize);
+        double[][] basis = null;
+        if (indices != null) {
+            basis = new double[indices.length][];
+            for (int i = 0; i < indices.length; i++) {
+                basis[i] = DCTBasis.basisVector(blockSize, indices[i]);
+            }
+        }
+
+        cachedPosition = targetPosition;
+        cachedIndices = indices;
+        cachedBasis = basis;
+    }
+
+    private void preparePatterns(double strength, int targetPosition) {
+        if (targetPosition == patternPosition && Double.compare(strength, patternStrength) == 0) {
+            return;
+        }
+
+        computePattern(onePattern, true, strength, targetPosition);
+        computePattern(zeroPattern, false, strength, targetPosition);
+        patternPosition = targetPosition;
+        patternStrength = strength;
+    }
+
+    // 0 계수 블록에 비트를 삽입한 결과가 곧 계수 변화량이므로, 그 역변환이 픽셀 영역 패턴이 된다
+    private void computePattern(double[] pattern, boolean bit, double strength, int targetPosition) {
+        Arrays.fill(pattern, 0.0);
+        strategy.embedBit(pattern, bit, strength, targetPosition, blockSize);
+        dctCalculator.inverse(pattern);
     }
 }
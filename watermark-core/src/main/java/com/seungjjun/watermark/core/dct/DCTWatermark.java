@@ -1,33 +1,66 @@
 package com.seungjjun.watermark.core.dct;
 
-import com.seungjjun.watermark.core.dct.color.YCbCrBlock;
+import com.seungjjun.watermark.core.bits.BitVector;
+import com.seungjjun.watermark.core.bits.WatermarkBits;
+import com.seungjjun.watermark.core.codec.ImageCodec;
+import com.seungjjun.watermark.core.dct.color.ColorConversionKernel;
+import com.seungjjun.watermark.core.dct.color.ColorConversionKernels;
+import com.seungjjun.watermark.core.dct.color.ColorMode;
 import com.seungjjun.watermark.core.dct.color.YCbCrConverter;
 import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.dct.strategy.CoefficientPlane;
 import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import com.seungjjun.watermark.core.raster.BandReader;
+import com.seungjjun.watermark.core.raster.BandedImage;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 public class DCTWatermark {
 
     private static final int BITS_PER_BYTE = 8;
     private static final int DEFAULT_BLOCK_SIZE = 8;
-    private static final double DEFAULT_STRENGTH = 20.0;
-    private static final int DEFAULT_DCT_POSITION = 4;
+    static final double DEFAULT_STRENGTH = 20.0;
+    // 스트리밍 삽입 시 band 하나의 픽셀 수 상한 (결과 band 기준 약 32MB)
+    private static final int BAND_PIXEL_BUDGET = 8 * 1024 * 1024;
 
-    private final DCTProcessor dctProcessor;
-    private final YCbCrConverter colorConverter;
+    private final WatermarkStrategy strategy;
+    private final BitLayout layout;
+    private final ColorConversionKernel colorKernel;
+    private final StripeScheduler scheduler;
+    private final ImageCodec codec;
 
     public DCTWatermark() {
         this(new AdditiveDCTStrategy());
     }
 
     public DCTWatermark(WatermarkStrategy strategy) {
-        this.dctProcessor = new DCTProcessor(DEFAULT_BLOCK_SIZE, strategy);
-        this.colorConverter = new YCbCrConverter();
+        this(strategy, StripeScheduler.commonPool());
+    }
+
+    public DCTWatermark(WatermarkStrategy strategy, StripeScheduler scheduler) {
+        this(strategy, scheduler, ColorMode.AUTO);
+    }
+
+    public DCTWatermark(WatermarkStrategy strategy, StripeScheduler scheduler, ColorMode colorMode) {
+        this(strategy, scheduler, colorMode, BitLayout.singleBit());
+    }
+
+    public DCTWatermark(WatermarkStrategy strategy, StripeScheduler scheduler, ColorMode colorMode, BitLayout layout) {
+        this(strategy, scheduler, colorMode, layout, new ImageCodec());
+    }
+
+    public DCTWatermark(WatermarkStrategy strategy, StripeScheduler scheduler, ColorMode colorMode, BitLayout layout,
+                        ImageCodec codec) {
+        this.strategy = strategy;
+        this.layout = layout;
+        this.colorKernel = ColorConversionKernels.create(colorMode, new YCbCrConverter());
+        this.scheduler = scheduler;
+        this.codec = codec;
     }
 
     public byte[] embedWatermark(BufferedImage originalImage, String watermarkText, String format) throws IOException {
@@ -35,16 +68,136 @@ public class DCTWatermark {
     }
 
     public byte[] embedWatermark(BufferedImage originalImage, String watermarkText, String format, double strength) throws IOException {
-        boolean[] watermarkBits = textToBits(watermarkText);
+        BitVector watermarkBits = WatermarkBits.fromText(watermarkText);
 
         int width = (originalImage.getWidth() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
         int height = (originalImage.getHeight() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
 
         BufferedImage watermarkedImage = processImageWithText(originalImage, width, height, watermarkBits, strength);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(watermarkedImage, format, baos);
-        return baos.toByteArray();
+        return codec.encode(watermarkedImage, format);
+    }
+
+    // 인코딩 결과를 byte[]로 모으지 않고 output에 바로 쓴다
+    public void embedWatermark(BufferedImage originalImage, OutputStream output, String watermarkText, String format)
+        throws IOException {
+        BitVector watermarkBits = WatermarkBits.fromText(watermarkText);
+
+        int width = (originalImage.getWidth() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
+        int height = (originalImage.getHeight() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
+
+        BufferedImage watermarkedImage = processImageWithText(originalImage, width, height, watermarkBits,
+            DEFAULT_STRENGTH);
+        codec.encode(watermarkedImage, format, output);
+    }
+
+    public void embedWatermark(BandReader source, OutputStream output, String watermarkText, String format)
+        throws IOException {
+        embedWatermark(source, output, watermarkText, format, DEFAULT_STRENGTH);
+    }
+
+    // 원본과 결과 이미지 전체를 메모리에 올리지 않고 블록 행에 맞춘 band 단위로 읽고 삽입해 인코딩한다.
+    // 결과는 embedWatermark(BufferedImage, ...)와 픽셀 단위로 같다
+    public void embedWatermark(BandReader source, OutputStream output, String watermarkText, String format,
+                               double strength) throws IOException {
+        int width = (source.getWidth() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
+        int bandBlockRows = Math.max(1, BAND_PIXEL_BUDGET / Math.max(1, width) / DEFAULT_BLOCK_SIZE);
+        embedWatermark(source, output, watermarkText, format, strength, bandBlockRows * DEFAULT_BLOCK_SIZE);
+    }
+
+    void embedWatermark(BandReader source, OutputStream output, String watermarkText, String format,
+                        double strength, int bandHeight) throws IOException {
+        BitVector watermarkBits = WatermarkBits.fromText(watermarkText);
+
+        int width = (source.getWidth() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
+        int height = (source.getHeight() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
+        int blocksPerRow = width / DEFAULT_BLOCK_SIZE;
+
+        BandedImage watermarkedImage = new BandedImage(width, height, bandHeight, (y, rows) -> {
+            BufferedImage band = new BufferedImage(width, rows, BufferedImage.TYPE_INT_RGB);
+            PixelAccessor bandSource = PixelAccessor.translated(source.read(y, rows), 0, y);
+            PixelAccessor bandDest = PixelAccessor.translated(band, 0, y);
+
+            int firstRow = y / DEFAULT_BLOCK_SIZE;
+            scheduler.run(rows / DEFAULT_BLOCK_SIZE, (fromRow, toRow) ->
+                newWorker().embedRows(bandSource, bandDest, firstRow + fromRow, firstRow + toRow, blocksPerRow,
+                    watermarkBits, strength));
+            return band;
+        });
+
+        write(watermarkedImage, format, output);
+    }
+
+    public void embedWatermark(TransformedImage source, OutputStream output, String watermarkText, String format)
+        throws IOException {
+        embedWatermark(source, output, watermarkText, format, DEFAULT_STRENGTH);
+    }
+
+    // 미리 변환해 둔 원본에서 순방향 변환 없이 삽입하고 결과는 band 단위로 인코딩한다.
+    // 결과는 embedWatermark(원본, ...)와 픽셀 단위로 같고, 같은 source로 여러 스레드가 동시에 호출해도 된다
+    public void embedWatermark(TransformedImage source, OutputStream output, String watermarkText, String format,
+                               double strength) throws IOException {
+        int bandBlockRows = Math.max(1, BAND_PIXEL_BUDGET / Math.max(1, source.getWidth()) / DEFAULT_BLOCK_SIZE);
+        embedWatermark(source, output, watermarkText, format, strength, bandBlockRows * DEFAULT_BLOCK_SIZE);
+    }
+
+    void embedWatermark(TransformedImage source, OutputStream output, String watermarkText, String format,
+                        double strength, int bandHeight) throws IOException {
+        checkOwner(source);
+        BitVector watermarkBits = WatermarkBits.fromText(watermarkText);
+
+        int width = source.getWidth();
+        int blocksPerRow = source.getBlocksPerRow();
+        CoefficientPlane[] transformed = source.transformedRows(
+            layout.embeddedRows(watermarkBits.length(), blocksPerRow, source.getBlockRows()));
+        PixelAccessor pixels = source.getSource();
+
+        BandedImage watermarkedImage = new BandedImage(width, source.getHeight(), bandHeight, (y, rows) -> {
+            BufferedImage band = new BufferedImage(width, rows, BufferedImage.TYPE_INT_RGB);
+            PixelAccessor bandDest = PixelAccessor.translated(band, 0, y);
+
+            int firstRow = y / DEFAULT_BLOCK_SIZE;
+            scheduler.run(rows / DEFAULT_BLOCK_SIZE, (fromRow, toRow) ->
+                newWorker().embedRows(pixels, bandDest, firstRow + fromRow, firstRow + toRow, blocksPerRow,
+                    transformed, watermarkBits, strength));
+            return band;
+        });
+
+        write(watermarkedImage, format, output);
+    }
+
+    // 같은 원본에 여러 페이로드를 차례로 삽입할 때 디코딩한 원본을 블록 격자로 자르고 변환을 한 번만 준비한다
+    public PreparedImage prepare(BufferedImage originalImage) {
+        return prepare(transform(originalImage, false));
+    }
+
+    public PreparedImage prepare(TransformedImage source) {
+        checkOwner(source);
+        return new PreparedImage(source);
+    }
+
+    // 원본을 블록 격자로 자른 사본을 만든다. 순방향 계수는 삽입이 처음 필요로 할 때 계산해 보관한다.
+    // offHeap이면 픽셀을 힙 밖 direct buffer에 둔다
+    public TransformedImage transform(BufferedImage originalImage, boolean offHeap) {
+        DCTBlockWorker worker = newWorker();
+        return new TransformedImage(this, originalImage, DEFAULT_BLOCK_SIZE, worker.planeCoefficients(),
+            worker.usesSpatialPattern(), offHeap);
+    }
+
+    // transform 결과가 차지할 바이트 수 상한 (원본을 디코딩하기 전에 캐시에 담을지 정할 때)
+    public long transformedSize(int width, int height) {
+        return TransformedImage.sizeInBytes(width, height, DEFAULT_BLOCK_SIZE, newWorker().planeCoefficients());
+    }
+
+    // 페이로드가 담긴 위쪽 블록 행만 디코딩해서 추출한다
+    public String extractWatermark(BandReader source, int textLength) throws IOException {
+        int blocksPerRow = source.getWidth() / DEFAULT_BLOCK_SIZE;
+        int blockRows = layout.payloadRows(textLength * BITS_PER_BYTE, blocksPerRow,
+            source.getHeight() / DEFAULT_BLOCK_SIZE);
+        if (blockRows == 0) {
+            return WatermarkBits.toText(new BitVector(textLength * BITS_PER_BYTE));
+        }
+        return extractWatermark(source.read(0, blockRows * DEFAULT_BLOCK_SIZE), textLength);
     }
 
     public String extractWatermark(BufferedImage watermarkedImage, int textLength) {
@@ -52,72 +205,69 @@ public class DCTWatermark {
         int height = (watermarkedImage.getHeight() / DEFAULT_BLOCK_SIZE) * DEFAULT_BLOCK_SIZE;
 
         int totalBits = textLength * BITS_PER_BYTE;
-        boolean[] extractedBits = new boolean[totalBits];
+        BitVector extractedBits = new BitVector(totalBits);
+
+        // 페이로드가 담긴 블록 행까지만 스케줄링
+        int blocksPerRow = width / DEFAULT_BLOCK_SIZE;
+        int blockRows = layout.payloadRows(totalBits, blocksPerRow, height / DEFAULT_BLOCK_SIZE);
 
-        int bitIndex = 0;
-        for (int y = 0; y < height && bitIndex < totalBits; y += DEFAULT_BLOCK_SIZE) {
-            for (int x = 0; x < width && bitIndex < totalBits; x += DEFAULT_BLOCK_SIZE) {
-                extractedBits[bitIndex] = extractBitFromBlock(watermarkedImage, x, y);
-                bitIndex++;
+        PixelAccessor source = PixelAccessor.of(watermarkedImage);
+        // 경계 워드를 여러 stripe가 함께 쓰지 않도록 stripe별 비트열에 추출한 뒤 합친다
+        scheduler.run(blockRows, (fromRow, toRow) -> {
+            BitVector stripeBits = new BitVector(totalBits);
+            newWorker().extractRows(source, fromRow, toRow, blocksPerRow, stripeBits);
+            synchronized (extractedBits) {
+                extractedBits.or(stripeBits);
             }
-        }
+        });
 
-        return bitsToText(extractedBits);
+        return WatermarkBits.toText(extractedBits);
     }
 
-    private boolean[] textToBits(String text) {
-        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
-        boolean[] bits = new boolean[bytes.length * BITS_PER_BYTE];
+    private BufferedImage processImageWithText(BufferedImage img, int width, int height, BitVector watermarkBits, double strength) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
-        for (int i = 0; i < bytes.length; i++) {
-            for (int j = 0; j < BITS_PER_BYTE; j++) {
-                bits[i * BITS_PER_BYTE + j] = ((bytes[i] >> (BITS_PER_BYTE - 1 - j)) & 1) == 1;
-            }
-        }
+        int blocksPerRow = width / DEFAULT_BLOCK_SIZE;
+        int blockRows = height / DEFAULT_BLOCK_SIZE;
 
-        return bits;
-    }
+        PixelAccessor source = PixelAccessor.of(img);
+        PixelAccessor dest = PixelAccessor.of(result);
+        scheduler.run(blockRows, (fromRow, toRow) ->
+            newWorker().embedRows(source, dest, fromRow, toRow, blocksPerRow, watermarkBits, strength));
 
-    private String bitsToText(boolean[] bits) {
-        byte[] bytes = new byte[bits.length / BITS_PER_BYTE];
+        return result;
+    }
 
-        for (int i = 0; i < bytes.length; i++) {
-            byte b = 0;
-            for (int j = 0; j < BITS_PER_BYTE; j++) {
-                if (bits[i * BITS_PER_BYTE + j]) {
-                    b |= (1 << (BITS_PER_BYTE - 1 - j));
-                }
-            }
-            bytes[i] = b;
+    // band 렌더링 중 발생한 읽기 오류는 UncheckedIOException으로 감싸져 writer를 빠져나온다
+    private void write(BandedImage image, String format, OutputStream output) throws IOException {
+        try {
+            codec.encode(image, format, output);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
-        return new String(bytes, StandardCharsets.UTF_8);
     }
 
-    private BufferedImage processImageWithText(BufferedImage img, int width, int height, boolean[] watermarkBits, double strength) {
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-
-        int bitIndex = 0;
-        for (int y = 0; y < height; y += DEFAULT_BLOCK_SIZE) {
-            for (int x = 0; x < width; x += DEFAULT_BLOCK_SIZE) {
-                boolean bit = (bitIndex < watermarkBits.length) ? watermarkBits[bitIndex] : false;
-                embedWatermarkBitToBlock(img, result, x, y, bit, strength);
-                bitIndex++;
-            }
+    // 계수 평면은 만든 DCTWatermark의 전략과 layout에 맞춰져 있다
+    private void checkOwner(TransformedImage source) {
+        if (source.getOwner() != this) {
+            throw new IllegalArgumentException("Transformed image belongs to a different watermark");
         }
+    }
 
-        return result;
+    BitLayout getLayout() {
+        return layout;
     }
 
-    private void embedWatermarkBitToBlock(BufferedImage src, BufferedImage dest, int x, int y, boolean bit, double strength) {
-        YCbCrBlock block = YCbCrBlock.fromImage(src, x, y, DEFAULT_BLOCK_SIZE, colorConverter);
-        dctProcessor.embedWatermarkBit(block.getYChannel(), bit, strength, DEFAULT_DCT_POSITION);
-        block.writeToImage(dest, x, y, colorConverter);
+    StripeScheduler getScheduler() {
+        return scheduler;
     }
 
-    private boolean extractBitFromBlock(BufferedImage src, int x, int y) {
-        YCbCrBlock block = YCbCrBlock.fromImage(src, x, y, DEFAULT_BLOCK_SIZE, colorConverter);
-        return dctProcessor.extractWatermarkBit(block.getYChannel(), DEFAULT_DCT_POSITION);
+    ImageCodec getCodec() {
+        return codec;
     }
 
+    // stripe마다 워커를 만들어 JTransforms 인스턴스와 작업 공간을 워커 스레드에 한정시킨다
+    DCTBlockWorker newWorker() {
+        return new DCTBlockWorker(DEFAULT_BLOCK_SIZE, layout, strategy, colorKernel);
+    }
 }
@@ -0,0 +1,65 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+import com.seungjjun.watermark.core.bits.WatermarkBits;
+import com.seungjjun.watermark.core.dct.strategy.CoefficientPlane;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 같은 원본에 페이로드만 바꿔 여러 번 삽입하기 위해 디코딩과 순방향 변환을 한 번만 해 둔 이미지.
+// 원본과 블록 행별 순방향 계수는 TransformedImage에 두고, 삽입마다 계수 변화량의 역변환만 더한다.
+// 결과 버퍼 하나를 재사용하므로 한 번에 하나의 삽입만 호출해야 한다 (삽입 안의 stripe 병렬화는 그대로)
+public final class PreparedImage {
+
+    private final TransformedImage source;
+    private final DCTWatermark watermark;
+    private final BufferedImage result;
+    private final int[] resultPixels;
+    private final PixelAccessor dest;
+
+    // 직전 삽입이 바꾼 블록 행 수. 다음 삽입이 덮어쓰지 않는 행은 원본으로 되돌린다
+    private int dirtyRows;
+
+    PreparedImage(TransformedImage source) {
+        this.source = source;
+        this.watermark = source.getOwner();
+        this.result = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        this.resultPixels = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+        source.copyRows(0, source.getBlockRows(), resultPixels);
+        this.dest = PixelAccessor.of(result);
+    }
+
+    public int getWidth() {
+        return result.getWidth();
+    }
+
+    public int getHeight() {
+        return result.getHeight();
+    }
+
+    // 결과는 DCTWatermark.embedWatermark(원본, output, watermarkText, format)과 픽셀 단위로 같다
+    public void embedWatermark(String watermarkText, String format, OutputStream output) throws IOException {
+        embedWatermark(watermarkText, format, output, DCTWatermark.DEFAULT_STRENGTH);
+    }
+
+    public void embedWatermark(String watermarkText, String format, OutputStream output, double strength)
+        throws IOException {
+        BitVector watermarkBits = WatermarkBits.fromText(watermarkText);
+        int blocksPerRow = source.getBlocksPerRow();
+        int rows = watermark.getLayout().embeddedRows(watermarkBits.length(), blocksPerRow, source.getBlockRows());
+
+        source.copyRows(rows, dirtyRows, resultPixels);
+        CoefficientPlane[] transformed = source.transformedRows(rows);
+        PixelAccessor base = source.getSource();
+        watermark.getScheduler().run(rows, (fromRow, toRow) ->
+            watermark.newWorker().embedRows(base, dest, fromRow, toRow, blocksPerRow, transformed, watermarkBits,
+                strength));
+        dirtyRows = rows;
+
+        watermark.getCodec().encode(result, format, output);
+    }
+}
@@ -0,0 +1,135 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.dct.strategy.CoefficientPlane;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 블록 격자로 자른 원본 RGB와 블록 행별 순방향 계수. 페이로드와 무관하므로 같은 원본에 대한 여러 요청이 공유한다.
+// 픽셀은 힙 배열이나 힙 밖 direct buffer에 두고, 계수는 페이로드가 닿는 행까지만 처음 필요할 때 계산한다.
+// 공간 패턴으로 삽입하는 기본 설정(블록당 1비트 additive)은 계수가 없어 디코딩한 픽셀만 담는다.
+// 계산이 끝난 행은 읽기만 하므로 여러 스레드가 동시에 삽입해도 된다
+public final class TransformedImage {
+
+    private final DCTWatermark owner;
+    private final int blockSize;
+    private final int blocksPerRow;
+    private final int blockRows;
+    private final IntBuffer pixels;
+    private final PixelAccessor source;
+    private final boolean offHeap;
+    private final long sizeInBytes;
+
+    // 공간 패턴으로 삽입하면 순방향 계수가 필요 없으므로 null
+    private final CoefficientPlane[] transformed;
+    private int transformedRows;
+    // 계산하는 동안 stripe를 기다리므로 synchronized 대신 써서 가상 스레드가 캐리어 스레드를 붙잡지 않게 한다
+    private final ReentrantLock transformLock = new ReentrantLock();
+
+    TransformedImage(DCTWatermark owner, BufferedImage image, int blockSize, int planeCoefficients,
+                     boolean spatialPattern, boolean offHeap) {
+        this.owner = owner;
+        this.blockSize = blockSize;
+        this.blocksPerRow = image.getWidth() / blockSize;
+        this.blockRows = image.getHeight() / blockSize;
+        this.offHeap = offHeap;
+        this.transformed = spatialPattern ? null : new CoefficientPlane[blockRows];
+
+        int width = getWidth();
+        int height = getHeight();
+        this.sizeInBytes = sizeInBytes(width, height, blockSize, spatialPattern ? 0 : planeCoefficients);
+        this.pixels = allocate(width * height, offHeap);
+        this.source = PixelAccessor.of(pixels, width, height);
+
+        // 블록 행 단위로 옮겨 원본 크기의 임시 배열을 만들지 않는다
+        PixelAccessor original = PixelAccessor.of(image);
+        int[] rowPixels = new int[width * blockSize];
+        for (int row = 0; row < blockRows && width > 0; row++) {
+            original.read(0, row * blockSize, width, blockSize, rowPixels, 0);
+            source.write(0, row * blockSize, width, blockSize, rowPixels, 0);
+        }
+    }
+
+    // 원본 width x height를 변환했을 때 픽셀과 모든 블록 행의 계수가 차지하는 바이트 수 (계수는 행마다 double 배열)
+    static long sizeInBytes(int width, int height, int blockSize, int planeCoefficients) {
+        long blocksPerRow = width / blockSize;
+        long blockRows = height / blockSize;
+        long pixelBytes = blocksPerRow * blockRows * blockSize * blockSize * Integer.BYTES;
+        return pixelBytes + blockRows * blocksPerRow * planeCoefficients * Double.BYTES;
+    }
+
+    public int getWidth() {
+        return blocksPerRow * blockSize;
+    }
+
+    public int getHeight() {
+        return blockRows * blockSize;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // 계수를 아직 계산하지 않은 행도 계산한 것으로 셈한 상한
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    DCTWatermark getOwner() {
+        return owner;
+    }
+
+    int getBlocksPerRow() {
+        return blocksPerRow;
+    }
+
+    int getBlockRows() {
+        return blockRows;
+    }
+
+    PixelAccessor getSource() {
+        return source;
+    }
+
+    // 위쪽 rows개 블록 행의 순방향 계수. 모자란 행만 이어서 계산하고, 공간 패턴이면 null
+    CoefficientPlane[] transformedRows(int rows) {
+        if (transformed == null) {
+            return null;
+        }
+        transformLock.lock();
+        try {
+            if (rows > transformedRows) {
+                int firstRow = transformedRows;
+                owner.getScheduler().run(rows - firstRow, (fromRow, toRow) ->
+                    owner.newWorker().transformRows(source, firstRow + fromRow, firstRow + toRow, blocksPerRow,
+                        transformed));
+                transformedRows = rows;
+            }
+            return transformed;
+        } finally {
+            transformLock.unlock();
+        }
+    }
+
+    // 블록 행 [fromRow, toRow)의 원본 픽셀을 같은 배치의 target에 복사한다
+    void copyRows(int fromRow, int toRow, int[] target) {
+        if (fromRow >= toRow) {
+            return;
+        }
+        int rowPixels = blocksPerRow * blockSize * blockSize;
+        pixels.get(fromRow * rowPixels, target, fromRow * rowPixels, (toRow - fromRow) * rowPixels);
+    }
+
+    private static IntBuffer allocate(int pixelCount, boolean offHeap) {
+        if (!offHeap) {
+            return IntBuffer.allocate(pixelCount);
+        }
+        return ByteBuffer.allocateDirect(Math.multiplyExact(pixelCount, Integer.BYTES))
+            .order(ByteOrder.nativeOrder())
+            .asIntBuffer();
+    }
+}
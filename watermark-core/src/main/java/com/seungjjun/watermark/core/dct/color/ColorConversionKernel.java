@@ -0,0 +1,11 @@
+package com.seungjjun.watermark.core.dct.color;
+
+// 블록(또는 행) 단위로 packed ARGB 픽셀을 일괄 변환한다. 구현체는 상태가 없어 스레드 간 공유 가능
+public interface ColorConversionKernel {
+
+    // luma[i] = Y(argb[i]) - 128
+    void toLuma(int[] argb, double[] luma, int length);
+
+    // argb[i] = YCbCrConverter.applyLumaDelta(argb[i], delta[i])
+    void applyLumaDelta(int[] argb, double[] delta, int length);
+}
@@ -0,0 +1,50 @@
+package com.seungjjun.watermark.core.dct.color;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public final class ColorConversionKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private ColorConversionKernels() {
+    }
+
+    public static ColorConversionKernel create(YCbCrConverter converter) {
+        return create(ColorMode.AUTO, converter);
+    }
+
+    public static ColorConversionKernel create(ColorMode mode, YCbCrConverter converter) {
+        return switch (mode) {
+            case SCALAR -> new ScalarColorKernel(converter);
+            case FIXED_POINT -> new FixedPointColorKernel(converter);
+            case VECTOR, AUTO -> vectorOrScalar(mode, converter);
+        };
+    }
+
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    // --add-modules jdk.incubator.vector로 실행된 경우에만 벡터 구현을 사용하고, 그 외에는 스칼라 구현으로 대체
+    // AUTO로 대체될 때도 운영 환경에서 옵션이 빠졌는지 알 수 있게 로그를 남긴다
+    private static ColorConversionKernel vectorOrScalar(ColorMode mode, YCbCrConverter converter) {
+        if (isVectorApiAvailable()) {
+            try {
+                ColorConversionKernel kernel = new VectorColorKernel(converter);
+                log.info("Color conversion kernel: vector ({})", VECTOR_MODULE);
+                return kernel;
+            } catch (LinkageError e) {
+                log.warn("Vector API is present but could not be initialized, falling back to scalar kernel: {}",
+                    e.toString());
+            }
+        } else if (mode == ColorMode.VECTOR) {
+            log.warn("Color mode VECTOR requested but {} is not available, falling back to scalar kernel",
+                VECTOR_MODULE);
+        } else {
+            log.info("Color conversion kernel: scalar ({} not available, run with --add-modules {} to enable "
+                + "the vector kernel)", VECTOR_MODULE, VECTOR_MODULE);
+        }
+        return new ScalarColorKernel(converter);
+    }
+}
@@ -0,0 +1,11 @@
+package com.seungjjun.watermark.core.dct.color;
+
+public enum ColorMode {
+
+    // 벡터 API가 있으면 VECTOR, 없으면 SCALAR
+    AUTO,
+    SCALAR,
+    VECTOR,
+    // libjpeg jccolor 방식의 정수 고정소수점 + 룩업 테이블
+    FIXED_POINT
+}
@@ -0,0 +1,79 @@
+package com.seungjjun.watermark.core.dct.color;
+
+// libjpeg jccolor.c와 같은 방식: 계수를 2^16 배 한 정수로 채널별 256칸 테이블을 미리 만들어 두고
+// 픽셀마다 테이블 세 번 조회와 정수 덧셈, 시프트만 수행한다
+public class FixedPointColorKernel implements ColorConversionKernel {
+
+    private static final int SCALE_BITS = 16;
+    private static final int ONE_HALF = 1 << (SCALE_BITS - 1);
+    private static final int CHANNEL_VALUES = 256;
+
+    private static final int RGB_RED_SHIFT = 16;
+    private static final int RGB_GREEN_SHIFT = 8;
+    private static final int RGB_MASK = 0xFF;
+    private static final int RGB_MAX = 255;
+
+    private static final double Y_FROM_R = 0.299;
+    private static final double Y_FROM_G = 0.587;
+    private static final double Y_FROM_B = 0.114;
+
+    // libjpeg range_limit과 같은 클램프 테이블: [-256, 511] 구간을 [0, 255]로 매핑
+    private static final int RANGE_OFFSET = CHANNEL_VALUES;
+    private static final int MAX_DELTA = CHANNEL_VALUES - 1;
+
+    private static final int[] R_Y = coefficientTable(Y_FROM_R, 0);
+    private static final int[] G_Y = coefficientTable(Y_FROM_G, 0);
+    // 반올림 오프셋은 B 테이블에 미리 더해 둔다
+    private static final int[] B_Y = coefficientTable(Y_FROM_B, ONE_HALF);
+    private static final int[] RANGE_LIMIT = rangeLimitTable();
+
+    private final int offset;
+
+    public FixedPointColorKernel(YCbCrConverter converter) {
+        this.offset = (int) converter.getYCbCrOffset();
+    }
+
+    // 휘도를 정수로 반올림하므로 double 경로와 최대 0.5만큼 차이가 난다
+    @Override
+    public void toLuma(int[] argb, double[] luma, int length) {
+        for (int i = 0; i < length; i++) {
+            int rgb = argb[i];
+            int y = (R_Y[(rgb >> RGB_RED_SHIFT) & RGB_MASK]
+                + G_Y[(rgb >> RGB_GREEN_SHIFT) & RGB_MASK]
+                + B_Y[rgb & RGB_MASK]) >> SCALE_BITS;
+            luma[i] = y - offset;
+        }
+    }
+
+    // 채널 값이 정수이므로 floor(c + d + 0.5) = c + floor(d + 0.5) 이고, 클램프까지 포함해 스칼라 경로와 결과가 같다
+    @Override
+    public void applyLumaDelta(int[] argb, double[] delta, int length) {
+        for (int i = 0; i < length; i++) {
+            int rgb = argb[i];
+            int d = (int) Math.floor(delta[i] + 0.5);
+            int shift = RANGE_OFFSET + Math.max(-MAX_DELTA, Math.min(MAX_DELTA, d));
+
+            int r = RANGE_LIMIT[((rgb >> RGB_RED_SHIFT) & RGB_MASK) + shift];
+            int g = RANGE_LIMIT[((rgb >> RGB_GREEN_SHIFT) & RGB_MASK) + shift];
+            int b = RANGE_LIMIT[(rgb & RGB_MASK) + shift];
+            argb[i] = (r << RGB_RED_SHIFT) | (g << RGB_GREEN_SHIFT) | b;
+        }
+    }
+
+    private static int[] coefficientTable(double coefficient, int bias) {
+        int fixed = (int) (coefficient * (1L << SCALE_BITS) + 0.5);
+        int[] table = new int[CHANNEL_VALUES];
+        for (int i = 0; i < CHANNEL_VALUES; i++) {
+            table[i] = fixed * i + bias;
+        }
+        return table;
+    }
+
+    private static int[] rangeLimitTable() {
+        int[] table = new int[CHANNEL_VALUES * 3];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = Math.max(0, Math.min(RGB_MAX, i - RANGE_OFFSET));
+        }
+        return table;
+    }
+}
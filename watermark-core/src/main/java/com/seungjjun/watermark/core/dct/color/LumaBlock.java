@@ -0,0 +1,38 @@
+package com.seungjjun.watermark.core.dct.color;
+
+import com.seungjjun.watermark.core.raster.PixelAccessor;
+
+import lombok.Getter;
+
+// 블록마다 새로 만들지 않고 워커 스레드별로 하나를 재사용하는 작업 공간 (행 우선 1차원 배열).
+// 워터마크는 휘도만 바꾸므로 색차 채널은 보관하지 않고, 휘도 변화량을 원본 RGB에 더해 되돌린다
+@Getter
+public class LumaBlock {
+
+    private final int blockSize;
+    private final int[] pixels;
+    private final double[] yChannel;
+    private final double[] lumaDelta;
+
+    public LumaBlock(int blockSize) {
+        int length = blockSize * blockSize;
+        this.blockSize = blockSize;
+        this.pixels = new int[length];
+        this.yChannel = new double[length];
+        this.lumaDelta = new double[length];
+    }
+
+    public void readFromImage(PixelAccessor image, int x, int y) {
+        image.read(x, y, blockSize, blockSize, pixels, 0);
+    }
+
+    public void computeLuma(ColorConversionKernel kernel) {
+        kernel.toLuma(pixels, yChannel, pixels.length);
+    }
+
+    public void writeToImage(PixelAccessor dest, int x, int y, double[] delta, ColorConversionKernel kernel) {
+        kernel.applyLumaDelta(pixels, delta, pixels.length);
+
+        dest.write(x, y, blockSize, blockSize, pixels, 0);
+    }
+}
@@ -0,0 +1,29 @@
+package com.seungjjun.watermark.core.dct.color;
+
+public class ScalarColorKernel implements ColorConversionKernel {
+
+    private final YCbCrConverter converter;
+
+    public ScalarColorKernel(YCbCrConverter converter) {
+        this.converter = converter;
+    }
+
+    @Override
+    public void toLuma(int[] argb, double[] luma, int length) {
+        for (int i = 0; i < length; i++) {
+            int rgb = argb[i];
+            int r = converter.extractRed(rgb);
+            int g = converter.extractGreen(rgb);
+            int b = converter.extractBlue(rgb);
+
+            luma[i] = converter.calculateY(r, g, b) - converter.getYCbCrOffset();
+        }
+    }
+
+    @Override
+    public void applyLumaDelta(int[] argb, double[] delta, int length) {
+        for (int i = 0; i < length; i++) {
+            argb[i] = converter.applyLumaDelta(argb[i], delta[i]);
+        }
+    }
+}
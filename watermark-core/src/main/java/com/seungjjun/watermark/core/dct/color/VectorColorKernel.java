@@ -0,0 +1,73 @@
+package com.seungjjun.watermark.core.dct.color;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// jdk.incubator.vector 기반 구현. 스칼라 경로와 같은 double 연산을 같은 순서로 수행하므로 결과가 비트 단위로 같다.
+// 모듈이 없는 런타임에서 로드되지 않도록 ColorConversionKernels를 통해서만 생성한다
+class VectorColorKernel implements ColorConversionKernel {
+
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+    // double 레인 수와 같은 레인 수의 int 벡터 (비트 폭은 절반)
+    private static final VectorSpecies<Integer> INT_SPECIES = VectorSpecies.of(int.class,
+        VectorShape.forBitSize(DOUBLE_SPECIES.vectorBitSize() / 2));
+
+    private static final int RGB_RED_SHIFT = 16;
+    private static final int RGB_GREEN_SHIFT = 8;
+    private static final int RGB_MASK = 0xFF;
+
+    private static final double Y_FROM_R = 0.299;
+    private static final double Y_FROM_G = 0.587;
+    private static final double Y_FROM_B = 0.114;
+
+    private final YCbCrConverter converter;
+    private final double offset;
+
+    VectorColorKernel(YCbCrConverter converter) {
+        this.converter = converter;
+        this.offset = converter.getYCbCrOffset();
+    }
+
+    @Override
+    public void toLuma(int[] argb, double[] luma, int length) {
+        int upperBound = INT_SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += INT_SPECIES.length()) {
+            IntVector pixels = IntVector.fromArray(INT_SPECIES, argb, i);
+            DoubleVector r = channel(pixels, RGB_RED_SHIFT);
+            DoubleVector g = channel(pixels, RGB_GREEN_SHIFT);
+            DoubleVector b = channel(pixels, 0);
+
+            r.mul(Y_FROM_R)
+                .add(g.mul(Y_FROM_G))
+                .add(b.mul(Y_FROM_B))
+                .sub(offset)
+                .intoArray(luma, i);
+        }
+
+        // 나머지 픽셀은 스칼라 경로로 처리
+        for (; i < length; i++) {
+            int rgb = argb[i];
+            luma[i] = converter.calculateY(converter.extractRed(rgb), converter.extractGreen(rgb),
+                converter.extractBlue(rgb)) - offset;
+        }
+    }
+
+    // double -> int 축소 변환(D2I)은 JDK 17 인큐베이터에서 인트린식으로 컴파일되지 않아 레인마다 박싱 할당이
+    // 발생하므로, 되쓰기는 스칼라 경로를 그대로 사용한다
+    @Override
+    public void applyLumaDelta(int[] argb, double[] delta, int length) {
+        for (int i = 0; i < length; i++) {
+            argb[i] = converter.applyLumaDelta(argb[i], delta[i]);
+        }
+    }
+
+    private DoubleVector channel(IntVector pixels, int shift) {
+        return (DoubleVector) pixels.lanewise(VectorOperators.LSHR, shift)
+            .and(RGB_MASK)
+            .convertShape(VectorOperators.I2D, DOUBLE_SPECIES, 0);
+    }
+}
@@ -8,6 +8,8 @@ public class YCbCrConverter {
     private static final int RGB_MIN = 0;
     private static final int RGB_MAX = 255;
 
+    private static final double ROUNDING_OFFSET = 0.5;
+
     private static final double YCBCR_OFFSET = 128.0;
     private static final double Y_FROM_R = 0.299;
     private static final double Y_FROM_G = 0.587;
@@ -63,6 +65,14 @@ public class YCbCrConverter {
         return clamp(B_FROM_Y * y + B_FROM_CB * (cb - YCBCR_OFFSET));
     }
 
+    // Cb, Cr이 그대로면 Y 변화량은 R, G, B 각각에 같은 크기로 더해진다 (R_FROM_Y = G_FROM_Y = B_FROM_Y = 1)
+    public int applyLumaDelta(int rgb, double delta) {
+        int r = clamp(extractRed(rgb) + delta + ROUNDING_OFFSET);
+        int g = clamp(extractGreen(rgb) + delta + ROUNDING_OFFSET);
+        int b = clamp(extractBlue(rgb) + delta + ROUNDING_OFFSET);
+        return combineRGB(r, g, b);
+    }
+
     public int combineRGB(int r, int g, int b) {
         return (r << RGB_RED_SHIFT) | (g << RGB_GREEN_SHIFT) | b;
     }
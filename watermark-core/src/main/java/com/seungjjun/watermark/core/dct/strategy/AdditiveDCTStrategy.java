@@ -1,6 +1,8 @@
 package com.seungjjun.watermark.core.dct.strategy;
 
-public class AdditiveDCTStrategy implements WatermarkStrategy {
+import com.seungjjun.watermark.core.bits.BitVector;
+
+public class AdditiveDCTStrategy implements WatermarkStrategy, PlaneWatermarkStrategy {
 
     @Override
     public void embedBit(double[] dctCoefficients, boolean bit, double strength, int targetPosition, int blockSize) {
@@ -13,4 +15,37 @@ public class AdditiveDCTStrategy implements WatermarkStrategy {
         int targetIndex = targetPosition * blockSize + targetPosition;
         return dctCoefficients[targetIndex] > 0;
     }
+
+    @Override
+    public int[] coefficientIndices(int targetPosition, int blockSize) {
+        return new int[]{targetPosition * blockSize + targetPosition};
+    }
+
+    @Override
+    public int[] planeIndices(int targetPosition, int blockSize) {
+        return coefficientIndices(targetPosition, blockSize);
+    }
+
+    @Override
+    public boolean isLinear() {
+        return true;
+    }
+
+    @Override
+    public void embedBits(CoefficientPlane plane, BitVector bits, double strength, int targetPosition, int blockSize) {
+        double[] target = plane.values(targetPosition * blockSize + targetPosition);
+        for (int b = 0; b < plane.getBlockCount(); b++) {
+            target[b] += plane.bitAt(bits, b) ? strength : -strength;
+        }
+    }
+
+    @Override
+    public void extractBits(CoefficientPlane plane, BitVector bits, int targetPosition, int blockSize) {
+        double[] target = plane.values(targetPosition * blockSize + targetPosition);
+        int firstBlock = plane.getFirstBlock();
+        int payloadBlocks = plane.payloadBlocks(bits);
+        for (int b = 0; b < payloadBlocks; b++) {
+            bits.set(firstBlock + b, target[b] > 0);
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package com.seungjjun.watermark.core.dct.strategy;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+
+import java.util.Arrays;
+
+// 블록 단위 WatermarkStrategy를 평면 SPI로 감싼다. 블록마다 평면의 계수를 작업 블록에 모았다가 다시 흩뿌린다.
+// 작업 블록을 가지므로 스레드 간 공유 금지 (워커마다 하나씩 만든다)
+public class BlockStrategyAdapter implements PlaneWatermarkStrategy {
+
+    private final WatermarkStrategy strategy;
+    private double[] block = new double[0];
+
+    public BlockStrategyAdapter(WatermarkStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // 선형 전략은 읽는 계수와 삽입 변화량이 생기는 계수만, 그 외에는 블록 전체 계수가 필요하다
+    @Override
+    public int[] planeIndices(int targetPosition, int blockSize) {
+        int length = blockSize * blockSize;
+        int[] readIndices = strategy.coefficientIndices(targetPosition, blockSize);
+        if (!strategy.isLinear() || readIndices == null) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        boolean[] used = new boolean[length];
+        for (int index : readIndices) {
+            used[index] = true;
+        }
+        for (boolean bit : new boolean[]{true, false}) {
+            double[] delta = new double[length];
+            strategy.embedBit(delta, bit, 1.0, targetPosition, blockSize);
+            for (int i = 0; i < length; i++) {
+                used[i] |= delta[i] != 0.0;
+            }
+        }
+
+        int[] indices = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (used[i]) {
+                indices[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    @Override
+    public boolean isLinear() {
+        return strategy.isLinear();
+    }
+
+    @Override
+    public void embedBits(CoefficientPlane plane, BitVector bits, double strength, int targetPosition, int blockSize) {
+        double[] work = workBlock(blockSize);
+        for (int b = 0; b < plane.getBlockCount(); b++) {
+            gather(plane, b, work);
+            strategy.embedBit(work, plane.bitAt(bits, b), strength, targetPosition, blockSize);
+            scatter(work, plane, b);
+        }
+    }
+
+    @Override
+    public void extractBits(CoefficientPlane plane, BitVector bits, int targetPosition, int blockSize) {
+        double[] work = workBlock(blockSize);
+        int payloadBlocks = plane.payloadBlocks(bits);
+        for (int b = 0; b < payloadBlocks; b++) {
+            gather(plane, b, work);
+            bits.set(plane.getFirstBlock() + b, strategy.extractBit(work, targetPosition, blockSize));
+        }
+    }
+
+    private double[] workBlock(int blockSize) {
+        if (block.length != blockSize * blockSize) {
+            block = new double[blockSize * blockSize];
+        }
+        return block;
+    }
+
+    private void gather(CoefficientPlane plane, int b, double[] work) {
+        int[] indices = plane.getCoefficientIndices();
+        for (int slot = 0; slot < indices.length; slot++) {
+            work[indices[slot]] = plane.valuesAt(slot)[b];
+        }
+    }
+
+    private void scatter(double[] work, CoefficientPlane plane, int b) {
+        int[] indices = plane.getCoefficientIndices();
+        for (int slot = 0; slot < indices.length; slot++) {
+            plane.valuesAt(slot)[b] = work[indices[slot]];
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.seungjjun.watermark.core.dct.strategy;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+
+import java.util.Arrays;
+
+// 여러 블록의 같은 위치 계수를 계수별 연속 배열로 모은 구조(SoA). values(k)[b]는 b번째 블록의 k번 계수(자연 순서)이다.
+// 워커 스레드마다 하나를 만들어 블록 행마다 reset으로 재사용한다
+public final class CoefficientPlane {
+
+    private static final int ABSENT = -1;
+
+    private final int[] coefficientIndices;
+    private final int[] slots;
+    private final double[][] values;
+    private final int capacity;
+
+    private int firstBlock;
+    private int blockCount;
+
+    public CoefficientPlane(int[] coefficientIndices, int blockLength, int capacity) {
+        this.coefficientIndices = coefficientIndices.clone();
+        this.slots = new int[blockLength];
+        this.values = new double[coefficientIndices.length][capacity];
+        this.capacity = capacity;
+
+        Arrays.fill(slots, ABSENT);
+        for (int slot = 0; slot < coefficientIndices.length; slot++) {
+            slots[coefficientIndices[slot]] = slot;
+        }
+    }
+
+    // firstBlock: 0번 블록의 전역 블록 인덱스(= 비트 인덱스)
+    public void reset(int firstBlock, int blockCount) {
+        if (blockCount > capacity) {
+            throw new IllegalArgumentException("Block count " + blockCount + " exceeds plane capacity " + capacity);
+        }
+        this.firstBlock = firstBlock;
+        this.blockCount = blockCount;
+    }
+
+    // 값은 그대로 두고 0번 블록에 대응하는 비트 인덱스만 옮긴다 (블록당 여러 비트를 위치별 비트 평면으로 나눠 처리할 때)
+    public void rebase(int firstBlock) {
+        this.firstBlock = firstBlock;
+    }
+
+    public int getFirstBlock() {
+        return firstBlock;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int[] getCoefficientIndices() {
+        return coefficientIndices;
+    }
+
+    public boolean contains(int coefficientIndex) {
+        return slots[coefficientIndex] != ABSENT;
+    }
+
+    public double[] values(int coefficientIndex) {
+        int slot = slots[coefficientIndex];
+        if (slot == ABSENT) {
+            throw new IllegalArgumentException("Coefficient " + coefficientIndex + " is not in this plane");
+        }
+        return values[slot];
+    }
+
+    public double[] valuesAt(int slot) {
+        return values[slot];
+    }
+
+    // 페이로드 뒤의 블록에는 0 비트를 삽입한다
+    public boolean bitAt(BitVector bits, int block) {
+        int bitIndex = firstBlock + block;
+        return bitIndex < bits.length() && bits.get(bitIndex);
+    }
+
+    // 페이로드 범위 안의 블록 수
+    public int payloadBlocks(BitVector bits) {
+        return Math.max(0, Math.min(blockCount, bits.length() - firstBlock));
+    }
+
+    public void copyFrom(CoefficientPlane other) {
+        if (!Arrays.equals(coefficientIndices, other.coefficientIndices)) {
+            throw new IllegalArgumentException("Coefficient planes hold different coefficients");
+        }
+        reset(other.firstBlock, other.blockCount);
+        for (int slot = 0; slot < values.length; slot++) {
+            System.arraycopy(other.values[slot], 0, values[slot], 0, blockCount);
+        }
+    }
+}
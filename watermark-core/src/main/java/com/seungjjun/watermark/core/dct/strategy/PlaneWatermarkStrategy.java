@@ -0,0 +1,27 @@
+package com.seungjjun.watermark.core.dct.strategy;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+
+// 블록 하나씩이 아니라 블록 행 전체의 계수 평면을 한 번에 처리하는 전략 SPI.
+// 블록 b의 비트 인덱스는 plane.getFirstBlock() + b 이다
+public interface PlaneWatermarkStrategy {
+
+    // 평면에 담아야 할 계수 인덱스 (자연 순서). 삽입과 추출 모두 이 계수만 읽고 쓴다
+    int[] planeIndices(int targetPosition, int blockSize);
+
+    // 이 전략이 WatermarkStrategy.isLinear와 같은 의미로 선형이면 true
+    boolean isLinear();
+
+    void embedBits(CoefficientPlane plane, BitVector bits, double strength, int targetPosition, int blockSize);
+
+    // 페이로드 범위 안의 블록만 bits에 기록한다
+    void extractBits(CoefficientPlane plane, BitVector bits, int targetPosition, int blockSize);
+
+    // 평면 SPI를 직접 구현하지 않은 전략은 블록 단위 어댑터로 감싼다
+    static PlaneWatermarkStrategy of(WatermarkStrategy strategy) {
+        if (strategy instanceof PlaneWatermarkStrategy planeStrategy) {
+            return planeStrategy;
+        }
+        return new BlockStrategyAdapter(strategy);
+    }
+}
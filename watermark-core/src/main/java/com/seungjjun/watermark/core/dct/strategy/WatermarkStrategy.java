@@ -5,4 +5,15 @@ public interface WatermarkStrategy {
     void embedBit(double[] dctCoefficients, boolean bit, double strength, int targetPosition, int blockSize);
 
     boolean extractBit(double[] dctCoefficients, int targetPosition, int blockSize);
+
+    // extractBit가 읽는 계수 인덱스. 선언하면 전체 순방향 DCT 대신 해당 계수만 계산한다 (null이면 전체 변환)
+    default int[] coefficientIndices(int targetPosition, int blockSize) {
+        return null;
+    }
+
+    // embedBit(c) == c + embedBit(0) 처럼 계수 변화량이 기존 계수 값과 무관하면 true.
+    // 이 경우 변화량의 역 DCT(공간 패턴)를 픽셀 영역에 직접 더해 순방향/역방향 변환을 생략한다
+    default boolean isLinear() {
+        return false;
+    }
 }
@@ -0,0 +1,40 @@
+package com.seungjjun.watermark.core.dct.transform;
+
+// 정규직교 2D DCT 기저 벡터. 계수 (u, v) = sum(block[i][j] * basis[i][j]) 이고, 역변환에서는 계수만큼 더해지는 공간 패턴이 된다
+public final class DCTBasis {
+
+    private DCTBasis() {
+    }
+
+    public static double[] basisVector(int blockSize, int coefficientIndex) {
+        int u = coefficientIndex / blockSize;
+        int v = coefficientIndex % blockSize;
+        double[] rowCosines = cosines(blockSize, u);
+        double[] colCosines = cosines(blockSize, v);
+
+        double[] basis = new double[blockSize * blockSize];
+        for (int i = 0; i < blockSize; i++) {
+            for (int j = 0; j < blockSize; j++) {
+                basis[i * blockSize + j] = rowCosines[i] * colCosines[j];
+            }
+        }
+        return basis;
+    }
+
+    public static double project(double[] block, double[] basis) {
+        double sum = 0.0;
+        for (int i = 0; i < basis.length; i++) {
+            sum += block[i] * basis[i];
+        }
+        return sum;
+    }
+
+    private static double[] cosines(int blockSize, int frequency) {
+        double normalization = frequency == 0 ? Math.sqrt(1.0 / blockSize) : Math.sqrt(2.0 / blockSize);
+        double[] values = new double[blockSize];
+        for (int i = 0; i < blockSize; i++) {
+            values[i] = normalization * Math.cos((2 * i + 1) * frequency * Math.PI / (2.0 * blockSize));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,16 @@
+package com.seungjjun.watermark.core.dct.transform;
+
+// 행 우선 blockSize x blockSize 배열을 제자리에서 정규직교(orthonormal) 2D DCT-II/III 변환한다. 스레드 간 공유 금지
+public interface DCTTransform {
+
+    void forward(double[] block);
+
+    void inverse(double[] block);
+
+    static DCTTransform forBlockSize(int blockSize) {
+        if (blockSize == Fast8x8DCT.BLOCK_SIZE) {
+            return new Fast8x8DCT();
+        }
+        return new JTransformsDCT(blockSize);
+    }
+}
@@ -0,0 +1,285 @@
+package com.seungjjun.watermark.core.dct.transform;
+
+// 8x8 전용 AAN(Arai-Agui-Nakajima) 분리형 DCT. libjpeg의 jfdctflt/jidctflt와 같은 버터플라이 구조이며
+// AAN 출력에 남는 열/행 스케일 인자를 상수 테이블로 보정해 JTransforms(scale=true)와 같은 정규직교 계수를 만든다
+public class Fast8x8DCT implements DCTTransform {
+
+    static final int BLOCK_SIZE = 8;
+    private static final int BLOCK_LENGTH = BLOCK_SIZE * BLOCK_SIZE;
+
+    private static final double C4 = 0.707106781186547524;            // cos(4pi/16)
+    private static final double C6 = 0.382683432365089772;            // cos(6pi/16)
+    private static final double C2_MINUS_C6 = 0.541196100146196984;  // cos(2pi/16) - cos(6pi/16)
+    private static final double C2_PLUS_C6 = 1.306562964876376527;   // cos(2pi/16) + cos(6pi/16)
+    private static final double SQRT2 = 1.414213562373095049;
+    private static final double IDCT_Z5 = 1.847759065022573512;      // 2cos(2pi/16)
+    private static final double IDCT_Z12 = 1.082392200292393968;     // 2(cos(2pi/16) - cos(6pi/16))
+    private static final double IDCT_Z10 = 2.613125929752753055;     // 2(cos(2pi/16) + cos(6pi/16))
+
+    private static final double[] FORWARD_SCALE = new double[BLOCK_LENGTH];
+    private static final double[] INVERSE_SCALE = new double[BLOCK_LENGTH];
+    private static final float[] FORWARD_SCALE_FLOAT = new float[BLOCK_LENGTH];
+    private static final float[] INVERSE_SCALE_FLOAT = new float[BLOCK_LENGTH];
+
+    static {
+        double[] aanScale = new double[BLOCK_SIZE];
+        aanScale[0] = 1.0;
+        for (int k = 1; k < BLOCK_SIZE; k++) {
+            aanScale[k] = Math.cos(k * Math.PI / 16) * Math.sqrt(2);
+        }
+
+        for (int u = 0; u < BLOCK_SIZE; u++) {
+            for (int v = 0; v < BLOCK_SIZE; v++) {
+                double scale = aanScale[u] * aanScale[v];
+                FORWARD_SCALE[u * BLOCK_SIZE + v] = 1.0 / (scale * BLOCK_SIZE);
+                INVERSE_SCALE[u * BLOCK_SIZE + v] = scale / BLOCK_SIZE;
+                FORWARD_SCALE_FLOAT[u * BLOCK_SIZE + v] = (float) FORWARD_SCALE[u * BLOCK_SIZE + v];
+                INVERSE_SCALE_FLOAT[u * BLOCK_SIZE + v] = (float) INVERSE_SCALE[u * BLOCK_SIZE + v];
+            }
+        }
+    }
+
+    @Override
+    public void forward(double[] block) {
+        for (int row = 0; row < BLOCK_LENGTH; row += BLOCK_SIZE) {
+            forward1D(block, row, 1);
+        }
+        for (int col = 0; col < BLOCK_SIZE; col++) {
+            forward1D(block, col, BLOCK_SIZE);
+        }
+        for (int i = 0; i < BLOCK_LENGTH; i++) {
+            block[i] *= FORWARD_SCALE[i];
+        }
+    }
+
+    @Override
+    public void inverse(double[] block) {
+        for (int i = 0; i < BLOCK_LENGTH; i++) {
+            block[i] *= INVERSE_SCALE[i];
+        }
+        for (int col = 0; col < BLOCK_SIZE; col++) {
+            inverse1D(block, col, BLOCK_SIZE);
+        }
+        for (int row = 0; row < BLOCK_LENGTH; row += BLOCK_SIZE) {
+            inverse1D(block, row, 1);
+        }
+    }
+
+    public void forward(float[] block) {
+        for (int row = 0; row < BLOCK_LENGTH; row += BLOCK_SIZE) {
+            forward1D(block, row, 1);
+        }
+        for (int col = 0; col < BLOCK_SIZE; col++) {
+            forward1D(block, col, BLOCK_SIZE);
+        }
+        for (int i = 0; i < BLOCK_LENGTH; i++) {
+            block[i] *= FORWARD_SCALE_FLOAT[i];
+        }
+    }
+
+    public void inverse(float[] block) {
+        for (int i = 0; i < BLOCK_LENGTH; i++) {
+            block[i] *= INVERSE_SCALE_FLOAT[i];
+        }
+        for (int col = 0; col < BLOCK_SIZE; col++) {
+            inverse1D(block, col, BLOCK_SIZE);
+        }
+        for (int row = 0; row < BLOCK_LENGTH; row += BLOCK_SIZE) {
+            inverse1D(block, row, 1);
+        }
+    }
+
+    private static void forward1D(double[] d, int offset, int stride) {
+        int i0 = offset;
+        int i1 = i0 + stride;
+        int i2 = i1 + stride;
+        int i3 = i2 + stride;
+        int i4 = i3 + stride;
+        int i5 = i4 + stride;
+        int i6 = i5 + stride;
+        int i7 = i6 + stride;
+
+        double tmp0 = d[i0] + d[i7];
+        double tmp7 = d[i0] - d[i7];
+        double tmp1 = d[i1] + d[i6];
+        double tmp6 = d[i1] - d[i6];
+        double tmp2 = d[i2] + d[i5];
+        double tmp5 = d[i2] - d[i5];
+        double tmp3 = d[i3] + d[i4];
+        double tmp4 = d[i3] - d[i4];
+
+        // 짝수 항
+        double tmp10 = tmp0 + tmp3;
+        double tmp13 = tmp0 - tmp3;
+        double tmp11 = tmp1 + tmp2;
+        double tmp12 = tmp1 - tmp2;
+
+        d[i0] = tmp10 + tmp11;
+        d[i4] = tmp10 - tmp11;
+
+        double z1 = (tmp12 + tmp13) * C4;
+        d[i2] = tmp13 + z1;
+        d[i6] = tmp13 - z1;
+
+        // 홀수 항
+        tmp10 = tmp4 + tmp5;
+        tmp11 = tmp5 + tmp6;
+        tmp12 = tmp6 + tmp7;
+
+        double z5 = (tmp10 - tmp12) * C6;
+        double z2 = C2_MINUS_C6 * tmp10 + z5;
+        double z4 = C2_PLUS_C6 * tmp12 + z5;
+        double z3 = tmp11 * C4;
+
+        double z11 = tmp7 + z3;
+        double z13 = tmp7 - z3;
+
+        d[i5] = z13 + z2;
+        d[i3] = z13 - z2;
+        d[i1] = z11 + z4;
+        d[i7] = z11 - z4;
+    }
+
+    private static void inverse1D(double[] d, int offset, int stride) {
+        int i0 = offset;
+        int i1 = i0 + stride;
+        int i2 = i1 + stride;
+        int i3 = i2 + stride;
+        int i4 = i3 + stride;
+        int i5 = i4 + stride;
+        int i6 = i5 + stride;
+        int i7 = i6 + stride;
+
+        // 짝수 항
+        double tmp10 = d[i0] + d[i4];
+        double tmp11 = d[i0] - d[i4];
+        double tmp13 = d[i2] + d[i6];
+        double tmp12 = (d[i2] - d[i6]) * SQRT2 - tmp13;
+
+        double tmp0 = tmp10 + tmp13;
+        double tmp3 = tmp10 - tmp13;
+        double tmp1 = tmp11 + tmp12;
+        double tmp2 = tmp11 - tmp12;
+
+        // 홀수 항
+        double z13 = d[i5] + d[i3];
+        double z10 = d[i5] - d[i3];
+        double z11 = d[i1] + d[i7];
+        double z12 = d[i1] - d[i7];
+
+        double tmp7 = z11 + z13;
+        tmp11 = (z11 - z13) * SQRT2;
+
+        double z5 = (z10 + z12) * IDCT_Z5;
+        tmp10 = IDCT_Z12 * z12 - z5;
+        tmp12 = -IDCT_Z10 * z10 + z5;
+
+        double tmp6 = tmp12 - tmp7;
+        double tmp5 = tmp11 - tmp6;
+        double tmp4 = tmp10 + tmp5;
+
+        d[i0] = tmp0 + tmp7;
+        d[i7] = tmp0 - tmp7;
+        d[i1] = tmp1 + tmp6;
+        d[i6] = tmp1 - tmp6;
+        d[i2] = tmp2 + tmp5;
+        d[i5] = tmp2 - tmp5;
+        d[i4] = tmp3 + tmp4;
+        d[i3] = tmp3 - tmp4;
+    }
+
+    private static void forward1D(float[] d, int offset, int stride) {
+        int i0 = offset;
+        int i1 = i0 + stride;
+        int i2 = i1 + stride;
+        int i3 = i2 + stride;
+        int i4 = i3 + stride;
+        int i5 = i4 + stride;
+        int i6 = i5 + stride;
+        int i7 = i6 + stride;
+
+        float tmp0 = d[i0] + d[i7];
+        float tmp7 = d[i0] - d[i7];
+        float tmp1 = d[i1] + d[i6];
+        float tmp6 = d[i1] - d[i6];
+        float tmp2 = d[i2] + d[i5];
+        float tmp5 = d[i2] - d[i5];
+        float tmp3 = d[i3] + d[i4];
+        float tmp4 = d[i3] - d[i4];
+
+        float tmp10 = tmp0 + tmp3;
+        float tmp13 = tmp0 - tmp3;
+        float tmp11 = tmp1 + tmp2;
+        float tmp12 = tmp1 - tmp2;
+
+        d[i0] = tmp10 + tmp11;
+        d[i4] = tmp10 - tmp11;
+
+        float z1 = (tmp12 + tmp13) * (float) C4;
+        d[i2] = tmp13 + z1;
+        d[i6] = tmp13 - z1;
+
+        tmp10 = tmp4 + tmp5;
+        tmp11 = tmp5 + tmp6;
+        tmp12 = tmp6 + tmp7;
+
+        float z5 = (tmp10 - tmp12) * (float) C6;
+        float z2 = (float) C2_MINUS_C6 * tmp10 + z5;
+        float z4 = (float) C2_PLUS_C6 * tmp12 + z5;
+        float z3 = tmp11 * (float) C4;
+
+        float z11 = tmp7 + z3;
+        float z13 = tmp7 - z3;
+
+        d[i5] = z13 + z2;
+        d[i3] = z13 - z2;
+        d[i1] = z11 + z4;
+        d[i7] = z11 - z4;
+    }
+
+    private static void inverse1D(float[] d, int offset, int stride) {
+        int i0 = offset;
+        int i1 = i0 + stride;
+        int i2 = i1 + stride;
+        int i3 = i2 + stride;
+        int i4 = i3 + stride;
+        int i5 = i4 + stride;
+        int i6 = i5 + stride;
+        int i7 = i6 + stride;
+
+        float tmp10 = d[i0] + d[i4];
+        float tmp11 = d[i0] - d[i4];
+        float tmp13 = d[i2] + d[i6];
+        float tmp12 = (d[i2] - d[i6]) * (float) SQRT2 - tmp13;
+
+        float tmp0 = tmp10 + tmp13;
+        float tmp3 = tmp10 - tmp13;
+        float tmp1 = tmp11 + tmp12;
+        float tmp2 = tmp11 - tmp12;
+
+        float z13 = d[i5] + d[i3];
+        float z10 = d[i5] - d[i3];
+        float z11 = d[i1] + d[i7];
+        float z12 = d[i1] - d[i7];
+
+        float tmp7 = z11 + z13;
+        tmp11 = (z11 - z13) * (float) SQRT2;
+
+        float z5 = (z10 + z12) * (float) IDCT_Z5;
+        tmp10 = (float) IDCT_Z12 * z12 - z5;
+        tmp12 = (float) -IDCT_Z10 * z10 + z5;
+
+        float tmp6 = tmp12 - tmp7;
+        float tmp5 = tmp11 - tmp6;
+        float tmp4 = tmp10 + tmp5;
+
+        d[i0] = tmp0 + tmp7;
+        d[i7] = tmp0 - tmp7;
+        d[i1] = tmp1 + tmp6;
+        d[i6] = tmp1 - tmp6;
+        d[i2] = tmp2 + tmp5;
+        d[i5] = tmp2 - tmp5;
+        d[i4] = tmp3 + tmp4;
+        d[i3] = tmp3 - tmp4;
+    }
+}
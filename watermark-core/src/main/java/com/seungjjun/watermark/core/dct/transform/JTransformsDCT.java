@@ -0,0 +1,50 @@
+package com.seungjjun.watermark.core.dct.transform;
+
+import org.jtransforms.dct.DoubleDCT_1D;
+
+// 임의 블록 크기용 기준 구현. 8x8 전용 커널의 정확도 검증 기준으로도 사용
+public class JTransformsDCT implements DCTTransform {
+
+    private final int blockSize;
+    private final DoubleDCT_1D dctCalculator;
+    private final double[] transposeBuffer;
+
+    public JTransformsDCT(int blockSize) {
+        this.blockSize = blockSize;
+        this.dctCalculator = new DoubleDCT_1D(blockSize);
+        this.transposeBuffer = new double[blockSize * blockSize];
+    }
+
+    // DoubleDCT_2D는 호출마다 임시 배열을 할당하므로 1D 변환을 열 -> 행 순서(DoubleDCT_2D와 동일)로 적용
+    @Override
+    public void forward(double[] block) {
+        transpose(block, transposeBuffer);
+        for (int i = 0; i < blockSize; i++) {
+            dctCalculator.forward(transposeBuffer, i * blockSize, true);
+        }
+        transpose(transposeBuffer, block);
+        for (int i = 0; i < blockSize; i++) {
+            dctCalculator.forward(block, i * blockSize, true);
+        }
+    }
+
+    @Override
+    public void inverse(double[] block) {
+        transpose(block, transposeBuffer);
+        for (int i = 0; i < blockSize; i++) {
+            dctCalculator.inverse(transposeBuffer, i * blockSize, true);
+        }
+        transpose(transposeBuffer, block);
+        for (int i = 0; i < blockSize; i++) {
+            dctCalculator.inverse(block, i * blockSize, true);
+        }
+    }
+
+    private void transpose(double[] src, double[] dest) {
+        for (int i = 0; i < blockSize; i++) {
+            for (int j = 0; j < blockSize; j++) {
+                dest[j * blockSize + i] = src[i * blockSize + j];
+            }
+        }
+    }
+}
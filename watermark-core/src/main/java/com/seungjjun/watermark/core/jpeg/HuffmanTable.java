@@ -0,0 +1,200 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// JPEG 허프만 테이블 (ITU T.81 Annex C). 디코딩용 룩업 테이블과 인코딩용 코드 표를 함께 가진다
+final class HuffmanTable {
+
+    static final int MAX_CODE_LENGTH = 16;
+    static final int SYMBOL_COUNT = 256;
+
+    // 9비트 이하 코드는 한 번의 테이블 조회로 디코딩
+    static final int LOOKAHEAD_BITS = 9;
+    private static final int LOOKAHEAD_SIZE = 1 << LOOKAHEAD_BITS;
+    private static final int LENGTH_SHIFT = 8;
+    private static final int SYMBOL_MASK = 0xFF;
+
+    // 최적 테이블 생성 시 모든 비트가 1인 코드를 쓰지 않도록 예약하는 가상 심볼 (Annex K.2)
+    private static final int RESERVED_SYMBOL = SYMBOL_COUNT;
+    private static final int MAX_BUILD_LENGTH = 32;
+
+    private final int[] bits;
+    private final int[] values;
+
+    private final int[] lookahead = new int[LOOKAHEAD_SIZE];
+    private final int[] maxCode = new int[MAX_CODE_LENGTH + 1];
+    private final int[] valueOffset = new int[MAX_CODE_LENGTH + 1];
+
+    private final int[] codes = new int[SYMBOL_COUNT];
+    private final int[] codeLengths = new int[SYMBOL_COUNT];
+
+    // bits[l]: 길이 l(1..16)인 코드 수, values: 코드 순서대로 나열한 심볼
+    HuffmanTable(int[] bits, int[] values) throws IOException {
+        this.bits = bits.clone();
+        this.values = values.clone();
+        build();
+    }
+
+    int[] getBits() {
+        return bits;
+    }
+
+    int[] getValues() {
+        return values;
+    }
+
+    int code(int symbol) {
+        return codes[symbol];
+    }
+
+    int codeLength(int symbol) {
+        return codeLengths[symbol];
+    }
+
+    // (길이 << 8 | 심볼), 앞쪽 9비트로 결정되지 않는 코드는 0
+    int lookahead(int peekedBits) {
+        return lookahead[peekedBits];
+    }
+
+    // 길이 length인 코드 code에 해당하는 심볼, 없으면 -1
+    int decodeLong(int code, int length) throws IOException {
+        if (code > maxCode[length]) {
+            return -1;
+        }
+        int index = valueOffset[length] + code;
+        if (index < 0 || index >= values.length) {
+            throw new IOException("Corrupt JPEG: invalid Huffman code");
+        }
+        return values[index];
+    }
+
+    // 심볼 빈도로 최대 16비트 길이 제한의 최적 테이블 생성 (libjpeg jpeg_gen_optimal_table과 동일한 절차)
+    static HuffmanTable optimal(long[] frequencies) throws IOException {
+        long[] freq = Arrays.copyOf(frequencies, SYMBOL_COUNT + 1);
+        freq[RESERVED_SYMBOL] = 1;
+
+        int[] codeSize = new int[SYMBOL_COUNT + 1];
+        int[] others = new int[SYMBOL_COUNT + 1];
+        Arrays.fill(others, -1);
+
+        while (true) {
+            int c1 = leastFrequent(freq, -1);
+            int c2 = leastFrequent(freq, c1);
+            if (c2 < 0) {
+                break;
+            }
+
+            freq[c1] += freq[c2];
+            freq[c2] = 0;
+
+            codeSize[c1]++;
+            while (others[c1] >= 0) {
+                c1 = others[c1];
+                codeSize[c1]++;
+            }
+            others[c1] = c2;
+
+            codeSize[c2]++;
+            while (others[c2] >= 0) {
+                c2 = others[c2];
+                codeSize[c2]++;
+            }
+        }
+
+        int[] lengthCounts = new int[MAX_BUILD_LENGTH + 1];
+        for (int size : codeSize) {
+            if (size > 0) {
+                lengthCounts[size]++;
+            }
+        }
+
+        // 16비트를 넘는 코드는 트리를 조정해 길이를 줄인다
+        for (int i = MAX_BUILD_LENGTH; i > MAX_CODE_LENGTH; i--) {
+            while (lengthCounts[i] > 0) {
+                int j = i - 2;
+                while (lengthCounts[j] == 0) {
+                    j--;
+                }
+                lengthCounts[i] -= 2;
+                lengthCounts[i - 1]++;
+                lengthCounts[j + 1] += 2;
+                lengthCounts[j]--;
+            }
+        }
+
+        // 가상 심볼이 차지한 가장 긴 코드 하나를 제거
+        int longest = MAX_CODE_LENGTH;
+        while (lengthCounts[longest] == 0) {
+            longest--;
+        }
+        lengthCounts[longest]--;
+
+        int[] bits = new int[MAX_CODE_LENGTH + 1];
+        System.arraycopy(lengthCounts, 1, bits, 1, MAX_CODE_LENGTH);
+
+        int[] values = new int[SYMBOL_COUNT];
+        int count = 0;
+        for (int length = 1; length <= MAX_BUILD_LENGTH; length++) {
+            for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+                if (codeSize[symbol] == length) {
+                    values[count++] = symbol;
+                }
+            }
+        }
+        return new HuffmanTable(bits, Arrays.copyOf(values, count));
+    }
+
+    private static int leastFrequent(long[] freq, int exclude) {
+        int found = -1;
+        long min = Long.MAX_VALUE;
+        // 같은 빈도면 인덱스가 큰 심볼을 고른다 (libjpeg과 같은 결과를 내기 위해 <=)
+        for (int i = 0; i < freq.length; i++) {
+            if (freq[i] != 0 && freq[i] <= min && i != exclude) {
+                min = freq[i];
+                found = i;
+            }
+        }
+        return found;
+    }
+
+    private void build() throws IOException {
+        Arrays.fill(codeLengths, 0);
+        Arrays.fill(maxCode, -1);
+
+        int total = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+            total += bits[length];
+        }
+        if (total > SYMBOL_COUNT || total != values.length) {
+            throw new IOException("Corrupt JPEG: bad Huffman table");
+        }
+
+        int code = 0;
+        int k = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+            valueOffset[length] = k - code;
+            for (int i = 0; i < bits[length]; i++) {
+                // 길이 length로 만들 수 있는 코드 수를 넘으면 룩업 테이블 범위도 넘는다
+                if (code >= (1 << length)) {
+                    throw new IOException("Corrupt JPEG: bad Huffman table");
+                }
+                int symbol = values[k++];
+                codes[symbol] = code;
+                codeLengths[symbol] = length;
+
+                if (length <= LOOKAHEAD_BITS) {
+                    int shift = LOOKAHEAD_BITS - length;
+                    int base = code << shift;
+                    int entry = (length << LENGTH_SHIFT) | (symbol & SYMBOL_MASK);
+                    Arrays.fill(lookahead, base, base + (1 << shift), entry);
+                }
+                code++;
+            }
+            if (bits[length] > 0) {
+                maxCode[length] = code - 1;
+            }
+            code <<= 1;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.IOException;
+
+// 엔트로피 부호화 구간의 비트 리더. 0xFF 0x00 바이트 스터핑을 제거하고, 마커를 만나면 그 자리에 멈춘 채 0 비트를 공급한다
+final class JpegBitReader {
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MARKER_PREFIX = 0xFF;
+    private static final int BUFFER_FILL_LIMIT = 56;
+
+    private final byte[] data;
+    private int position;
+    private long buffer;
+    private int bitCount;
+    private boolean markerReached;
+
+    JpegBitReader(byte[] data, int position) {
+        this.data = data;
+        this.position = position;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    int decode(HuffmanTable table) throws IOException {
+        ensure(HuffmanTable.MAX_CODE_LENGTH);
+        int entry = table.lookahead(peek(HuffmanTable.LOOKAHEAD_BITS));
+        if (entry != 0) {
+            skip(entry >>> 8);
+            return entry & BYTE_MASK;
+        }
+
+        for (int length = HuffmanTable.LOOKAHEAD_BITS + 1; length <= HuffmanTable.MAX_CODE_LENGTH; length++) {
+            int symbol = table.decodeLong(peek(length), length);
+            if (symbol >= 0) {
+                skip(length);
+                return symbol;
+            }
+        }
+        throw new IOException("Corrupt JPEG: invalid Huffman code");
+    }
+
+    int readBits(int count) {
+        if (count == 0) {
+            return 0;
+        }
+        ensure(count);
+        int value = peek(count);
+        skip(count);
+        return value;
+    }
+
+    int readBit() {
+        return readBits(1);
+    }
+
+    // count 비트를 읽어 부호 있는 값으로 확장 (Annex F.2.2.1 EXTEND)
+    int receiveExtend(int count) {
+        if (count == 0) {
+            return 0;
+        }
+        int value = readBits(count);
+        return value < (1 << (count - 1)) ? value - (1 << count) + 1 : value;
+    }
+
+    // 재시작 구간 경계: 남은 비트를 버리고 RSTn 마커를 건너뛴다
+    void restart() {
+        buffer = 0;
+        bitCount = 0;
+        markerReached = false;
+
+        while (position + 1 < data.length) {
+            if ((data[position] & BYTE_MASK) != MARKER_PREFIX) {
+                position++;
+                continue;
+            }
+            int marker = data[position + 1] & BYTE_MASK;
+            if (marker == MARKER_PREFIX) {
+                position++;
+            } else if (JpegConstants.isRestartMarker(marker)) {
+                position += 2;
+                return;
+            } else if (marker == 0) {
+                position += 2;
+            } else {
+                // 예상한 RST 대신 다른 마커가 나오면 손상된 구간으로 보고 그대로 둔다
+                return;
+            }
+        }
+    }
+
+    private void ensure(int count) {
+        if (bitCount >= count) {
+            return;
+        }
+        while (bitCount <= BUFFER_FILL_LIMIT) {
+            int next = 0;
+            if (!markerReached && position < data.length) {
+                next = data[position] & BYTE_MASK;
+                if (next == MARKER_PREFIX) {
+                    int following = position + 1 < data.length ? data[position + 1] & BYTE_MASK : 0;
+                    if (following == 0) {
+                        position += 2;
+                    } else {
+                        markerReached = true;
+                        next = 0;
+                    }
+                } else {
+                    position++;
+                }
+            }
+            buffer = (buffer << 8) | next;
+            bitCount += 8;
+        }
+    }
+
+    private int peek(int count) {
+        return (int) (buffer >>> (bitCount - count)) & ((1 << count) - 1);
+    }
+
+    private void skip(int count) {
+        bitCount -= count;
+    }
+}
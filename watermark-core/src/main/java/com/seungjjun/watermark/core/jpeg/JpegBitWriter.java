@@ -0,0 +1,99 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// JPEG 출력 버퍼. 마커 세그먼트는 바이트 단위로, 엔트로피 부호화 구간은 비트 단위로 쓰며 0xFF 뒤에 0x00을 채워 넣는다.
+// 고정 크기 버퍼가 차면 출력 스트림으로 내보내므로 인코딩 결과 전체를 메모리에 들고 있지 않는다.
+// 부호화 루프를 checked 예외로 오염시키지 않도록 쓰기 오류는 UncheckedIOException으로 감싼다
+final class JpegBitWriter {
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream output;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private int size;
+    private long bitBuffer;
+    private int bitCount;
+
+    JpegBitWriter(OutputStream output) {
+        this.output = output;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    void writeShort(int value) {
+        writeByte(value >> BITS_PER_BYTE);
+        writeByte(value);
+    }
+
+    void writeBytes(byte[] values) {
+        int offset = 0;
+        while (offset < values.length) {
+            ensureCapacity(1);
+            int count = Math.min(values.length - offset, bytes.length - size);
+            System.arraycopy(values, offset, bytes, size, count);
+            size += count;
+            offset += count;
+        }
+    }
+
+    void writeMarker(int marker) {
+        writeByte(BYTE_MASK);
+        writeByte(marker);
+    }
+
+    void writeBits(int value, int length) {
+        bitBuffer = (bitBuffer << length) | (value & ((1L << length) - 1));
+        bitCount += length;
+        while (bitCount >= BITS_PER_BYTE) {
+            bitCount -= BITS_PER_BYTE;
+            int b = (int) (bitBuffer >>> bitCount) & BYTE_MASK;
+            ensureCapacity(2);
+            bytes[size++] = (byte) b;
+            if (b == BYTE_MASK) {
+                bytes[size++] = 0;
+            }
+        }
+    }
+
+    // 남은 비트를 1로 채워 바이트 경계에 맞춘다 (F.1.2.3)
+    void flushBits() {
+        if (bitCount > 0) {
+            int padding = BITS_PER_BYTE - bitCount;
+            writeBits((1 << padding) - 1, padding);
+        }
+        bitBuffer = 0;
+    }
+
+    // 버퍼에 남은 바이트를 출력 스트림으로 내보낸다
+    void flush() {
+        drain();
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        try {
+            output.write(bytes, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size = 0;
+    }
+}
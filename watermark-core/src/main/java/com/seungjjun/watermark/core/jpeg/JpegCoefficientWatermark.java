@@ -0,0 +1,140 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+import com.seungjjun.watermark.core.bits.WatermarkBits;
+import com.seungjjun.watermark.core.dct.BitLayout;
+import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// JPEG 입력을 픽셀로 디코딩하지 않고 휘도 DCT 계수에 직접 워터마크를 삽입/추출한다.
+// 블록 배치는 DCTWatermark와 같다 (floor(width/8) x floor(height/8) 격자, 래스터 순서로 BitLayout에 따라 비트 할당)
+public class JpegCoefficientWatermark {
+
+    private static final int BITS_PER_BYTE = 8;
+    static final double DEFAULT_STRENGTH = 20.0;
+
+    private final WatermarkStrategy strategy;
+    private final StripeScheduler scheduler;
+    private final BitLayout layout;
+
+    public JpegCoefficientWatermark() {
+        this(new AdditiveDCTStrategy(), StripeScheduler.commonPool());
+    }
+
+    public JpegCoefficientWatermark(WatermarkStrategy strategy, StripeScheduler scheduler) {
+        this(strategy, scheduler, BitLayout.singleBit());
+    }
+
+    public JpegCoefficientWatermark(WatermarkStrategy strategy, StripeScheduler scheduler, BitLayout layout) {
+        this.strategy = strategy;
+        this.scheduler = scheduler;
+        this.layout = layout;
+    }
+
+    public static boolean isJpeg(byte[] data) {
+        return JpegDecoder.isJpeg(data);
+    }
+
+    // 계수 영역에서 처리할 수 없는 JPEG이면 UnsupportedJpegException
+    public JpegImage read(byte[] data) throws IOException {
+        return verifyLumaGrid(new JpegDecoder(data).decode());
+    }
+
+    // textLength 글자 페이로드를 담은 위쪽 블록 행만 디코딩한다. 결과는 추출에만 쓸 수 있다
+    public JpegImage readPayloadRegion(byte[] data, int textLength) throws IOException {
+        int totalBits = textLength * BITS_PER_BYTE;
+        JpegDecoder decoder = new JpegDecoder(data, (width, height) -> layout.payloadRows(totalBits,
+            width / JpegConstants.BLOCK_SIZE, height / JpegConstants.BLOCK_SIZE));
+        return verifyLumaGrid(decoder.decode());
+    }
+
+    public byte[] embedWatermark(byte[] jpegData, String watermarkText) throws IOException {
+        return embedWatermark(read(jpegData), watermarkText, DEFAULT_STRENGTH);
+    }
+
+    public byte[] embedWatermark(JpegImage image, String watermarkText) throws IOException {
+        return embedWatermark(image, watermarkText, DEFAULT_STRENGTH);
+    }
+
+    // image의 계수를 제자리에서 수정한다
+    public byte[] embedWatermark(JpegImage image, String watermarkText, double strength) throws IOException {
+        embedCoefficients(image, watermarkText, strength);
+        return new JpegEncoder(image).encode();
+    }
+
+    // 결과 JPEG을 byte[]로 모으지 않고 output에 바로 부호화한다
+    public void embedWatermark(JpegImage image, String watermarkText, OutputStream output) throws IOException {
+        embedCoefficients(image, watermarkText, DEFAULT_STRENGTH);
+        new JpegEncoder(image).encode(output);
+    }
+
+    // 같은 JPEG에 여러 페이로드를 차례로 삽입할 때 엔트로피 디코딩을 다시 하지 않도록 원본 계수를 보관한다
+    public PreparedJpeg prepare(JpegImage image) {
+        if (!image.isComplete()) {
+            throw new IllegalArgumentException("Cannot embed into a region-limited JPEG decode");
+        }
+        return new PreparedJpeg(this, image);
+    }
+
+    // 계수를 고친 블록 행 수를 반환한다
+    int embedCoefficients(JpegImage image, String watermarkText, double strength) {
+        if (!image.isComplete()) {
+            throw new IllegalArgumentException("Cannot embed into a region-limited JPEG decode");
+        }
+        BitVector watermarkBits = WatermarkBits.fromText(watermarkText);
+
+        JpegComponent luma = image.getLuma();
+        int[] quantTable = image.quantTable(luma);
+        int blocksPerRow = image.getWidth() / JpegConstants.BLOCK_SIZE;
+        // 계수를 제자리에서 고치므로 삽입하지 않는 블록 행은 건드릴 필요가 없다
+        int blockRows = layout.embeddedRows(watermarkBits.length(), blocksPerRow,
+            image.getHeight() / JpegConstants.BLOCK_SIZE);
+
+        scheduler.run(blockRows, (fromRow, toRow) ->
+            new JpegLumaWorker(strategy, layout, quantTable)
+                .embedRows(luma, fromRow, toRow, blocksPerRow, watermarkBits, strength));
+        return blockRows;
+    }
+
+    public String extractWatermark(byte[] jpegData, int textLength) throws IOException {
+        return extractWatermark(readPayloadRegion(jpegData, textLength), textLength);
+    }
+
+    public String extractWatermark(JpegImage image, int textLength) {
+        int totalBits = textLength * BITS_PER_BYTE;
+        BitVector extractedBits = new BitVector(totalBits);
+
+        JpegComponent luma = image.getLuma();
+        int[] quantTable = image.quantTable(luma);
+        int blocksPerRow = image.getWidth() / JpegConstants.BLOCK_SIZE;
+        int blockRows = layout.payloadRows(totalBits, blocksPerRow, image.getHeight() / JpegConstants.BLOCK_SIZE);
+
+        // 경계 워드를 여러 stripe가 함께 쓰지 않도록 stripe별 비트열에 추출한 뒤 합친다
+        scheduler.run(blockRows, (fromRow, toRow) -> {
+            BitVector stripeBits = new BitVector(totalBits);
+            new JpegLumaWorker(strategy, layout, quantTable)
+                .extractRows(luma, fromRow, toRow, blocksPerRow, stripeBits);
+            synchronized (extractedBits) {
+                extractedBits.or(stripeBits);
+            }
+        });
+
+        return WatermarkBits.toText(extractedBits);
+    }
+
+    private JpegImage verifyLumaGrid(JpegImage image) throws UnsupportedJpegException {
+        // 휘도가 서브샘플링되어 있으면 휘도 블록이 픽셀 8x8 격자와 일치하지 않는다
+        JpegComponent luma = image.getLuma();
+        for (JpegComponent component : image.getComponents()) {
+            if (component.getHorizontalSampling() > luma.getHorizontalSampling()
+                || component.getVerticalSampling() > luma.getVerticalSampling()) {
+                throw new UnsupportedJpegException("Subsampled luma component is not supported");
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,97 @@
+package com.seungjjun.watermark.core.jpeg;
+
+// 프레임 구성 요소 하나의 양자화된 DCT 계수. 블록마다 64개 계수를 지그재그 순서로 저장한다
+final class JpegComponent {
+
+    private final int id;
+    private final int horizontalSampling;
+    private final int verticalSampling;
+    private final int quantTableIndex;
+
+    // MCU 격자를 채우는 블록 수 (패딩 블록 포함)
+    private final int blocksPerLine;
+    private final int blocksPerColumn;
+    // 실제 성분 크기를 덮는 블록 수 (비인터리브 스캔의 순회 범위)
+    private final int widthInBlocks;
+    private final int heightInBlocks;
+
+    private final short[] coefficients;
+
+    private int dcTableIndex;
+    private int acTableIndex;
+    private int dcPredictor;
+
+    JpegComponent(int id, int horizontalSampling, int verticalSampling, int quantTableIndex,
+                  int blocksPerLine, int blocksPerColumn, int widthInBlocks, int heightInBlocks) {
+        this.id = id;
+        this.horizontalSampling = horizontalSampling;
+        this.verticalSampling = verticalSampling;
+        this.quantTableIndex = quantTableIndex;
+        this.blocksPerLine = blocksPerLine;
+        this.blocksPerColumn = blocksPerColumn;
+        this.widthInBlocks = widthInBlocks;
+        this.heightInBlocks = heightInBlocks;
+        this.coefficients = new short[blocksPerLine * blocksPerColumn * JpegConstants.BLOCK_LENGTH];
+    }
+
+    int getId() {
+        return id;
+    }
+
+    int getHorizontalSampling() {
+        return horizontalSampling;
+    }
+
+    int getVerticalSampling() {
+        return verticalSampling;
+    }
+
+    int getQuantTableIndex() {
+        return quantTableIndex;
+    }
+
+    int getBlocksPerLine() {
+        return blocksPerLine;
+    }
+
+    int getBlocksPerColumn() {
+        return blocksPerColumn;
+    }
+
+    int getWidthInBlocks() {
+        return widthInBlocks;
+    }
+
+    int getHeightInBlocks() {
+        return heightInBlocks;
+    }
+
+    short[] getCoefficients() {
+        return coefficients;
+    }
+
+    int blockOffset(int blockRow, int blockCol) {
+        return (blockRow * blocksPerLine + blockCol) * JpegConstants.BLOCK_LENGTH;
+    }
+
+    int getDcTableIndex() {
+        return dcTableIndex;
+    }
+
+    int getAcTableIndex() {
+        return acTableIndex;
+    }
+
+    void setTableIndices(int dcTableIndex, int acTableIndex) {
+        this.dcTableIndex = dcTableIndex;
+        this.acTableIndex = acTableIndex;
+    }
+
+    int getDcPredictor() {
+        return dcPredictor;
+    }
+
+    void setDcPredictor(int dcPredictor) {
+        this.dcPredictor = dcPredictor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.seungjjun.watermark.core.jpeg;
+
+final class JpegConstants {
+
+    static final int BLOCK_SIZE = 8;
+    static final int BLOCK_LENGTH = BLOCK_SIZE * BLOCK_SIZE;
+    static final int MAX_TABLES = 4;
+    static final int MAX_BLOCKS_IN_MCU = 10;
+
+    static final int SOI = 0xD8;
+    static final int EOI = 0xD9;
+    static final int SOS = 0xDA;
+    static final int DQT = 0xDB;
+    static final int DNL = 0xDC;
+    static final int DRI = 0xDD;
+    static final int DHT = 0xC4;
+    static final int DAC = 0xCC;
+    static final int JPG = 0xC8;
+    static final int SOF0 = 0xC0;
+    static final int SOF1 = 0xC1;
+    static final int SOF2 = 0xC2;
+    static final int SOF15 = 0xCF;
+    static final int RST0 = 0xD0;
+    static final int RST7 = 0xD7;
+    static final int APP0 = 0xE0;
+    static final int APP14 = 0xEE;
+    static final int APP15 = 0xEF;
+    static final int COM = 0xFE;
+    static final int TEM = 0x01;
+
+    // 지그재그 순서 k번째 계수의 자연 순서(행 우선, 행 = 수직 주파수) 인덱스
+    static final int[] ZIGZAG_TO_NATURAL = {
+        0, 1, 8, 16, 9, 2, 3, 10,
+        17, 24, 32, 25, 18, 11, 4, 5,
+        12, 19, 26, 33, 40, 48, 41, 34,
+        27, 20, 13, 6, 7, 14, 21, 28,
+        35, 42, 49, 56, 57, 50, 43, 36,
+        29, 22, 15, 23, 30, 37, 44, 51,
+        58, 59, 52, 45, 38, 31, 39, 46,
+        53, 60, 61, 54, 47, 55, 62, 63
+    };
+
+    static final int[] NATURAL_TO_ZIGZAG = invert(ZIGZAG_TO_NATURAL);
+
+    private JpegConstants() {
+    }
+
+    static boolean isRestartMarker(int marker) {
+        return marker >= RST0 && marker <= RST7;
+    }
+
+    private static int[] invert(int[] order) {
+        int[] inverse = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            inverse[order[i]] = i;
+        }
+        return inverse;
+    }
+}
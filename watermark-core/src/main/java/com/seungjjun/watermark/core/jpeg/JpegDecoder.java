@@ -0,0 +1,670 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+// JPEG 스트림을 역양자화/IDCT 없이 양자화된 계수까지만 디코딩한다 (baseline, extended sequential, progressive 허프만).
+// 한 번만 사용하는 객체
+final class JpegDecoder {
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MARKER_PREFIX = 0xFF;
+    private static final int SUPPORTED_PRECISION = 8;
+    private static final int MAX_SAMPLING = 4;
+    private static final int GRAYSCALE_COMPONENTS = 1;
+    private static final int YCBCR_COMPONENTS = 3;
+    // 계수 배열은 디코딩하는 영역 전체를 메모리에 올리므로 이보다 크면 band 단위로 읽는 픽셀 경로에 맡긴다
+    static final long MAX_DECODED_PIXELS = 64L * 1024 * 1024;
+
+    private static final byte[] JFIF_IDENTIFIER = "JFIF\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ADOBE_IDENTIFIER = "Adobe".getBytes(StandardCharsets.US_ASCII);
+    private static final int ADOBE_TRANSFORM_OFFSET = 11;
+    private static final int ADOBE_TRANSFORM_NONE = 0;
+    private static final int NO_ADOBE_TRANSFORM = -1;
+
+    private final byte[] data;
+    // (width, height) -> 디코딩할 휘도 블록 행 수. null이면 전체
+    private final IntBinaryOperator lumaRowLimit;
+    private int position;
+
+    private final int[][] quantTables = new int[JpegConstants.MAX_TABLES][];
+    private final boolean[] extendedPrecisionTables = new boolean[JpegConstants.MAX_TABLES];
+    private final HuffmanTable[] dcTables = new HuffmanTable[JpegConstants.MAX_TABLES];
+    private final HuffmanTable[] acTables = new HuffmanTable[JpegConstants.MAX_TABLES];
+    private final List<byte[]> preservedSegments = new ArrayList<>();
+
+    private boolean progressive;
+    private int width;
+    private int height;
+    private JpegComponent[] components;
+    private int maxHorizontalSampling;
+    private int maxVerticalSampling;
+    private int mcusPerLine;
+    private int mcusPerColumn;
+    // 실제로 디코딩하는 MCU 행 수 (영역 제한 시 mcusPerColumn보다 작다)
+    private int decodedMcuRows;
+    private int restartInterval;
+
+    private boolean jfif;
+    private int adobeTransform = NO_ADOBE_TRANSFORM;
+    private int[][] frameQuantTables;
+    private int eobRun;
+
+    JpegDecoder(byte[] data) {
+        this(data, null);
+    }
+
+    // 위쪽 휘도 블록 행만 필요할 때 그 아래 블록은 계수 공간도 만들지 않고 엔트로피 디코딩도 건너뛴다.
+    // progressive도 스캔마다 같은 행까지만 디코딩하고 나머지 스캔 데이터는 다음 마커까지 건너뛴다
+    JpegDecoder(byte[] data, IntBinaryOperator lumaRowLimit) {
+        this.data = data;
+        this.lumaRowLimit = lumaRowLimit;
+    }
+
+    static boolean isJpeg(byte[] data) {
+        return data != null && data.length > 3
+            && (data[0] & BYTE_MASK) == MARKER_PREFIX
+            && (data[1] & BYTE_MASK) == JpegConstants.SOI
+            && (data[2] & BYTE_MASK) == MARKER_PREFIX;
+    }
+
+    JpegImage decode() throws IOException {
+        if (!isJpeg(data)) {
+            throw new IOException("Not a JPEG stream");
+        }
+        position = 2;
+
+        boolean scanned = false;
+        while (position < data.length) {
+            int marker = readMarker();
+            if (marker < 0 || marker == JpegConstants.EOI) {
+                break;
+            }
+
+            if (marker == JpegConstants.SOF0 || marker == JpegConstants.SOF1 || marker == JpegConstants.SOF2) {
+                readFrame(marker == JpegConstants.SOF2);
+            } else if (isUnsupportedFrame(marker)) {
+                throw new UnsupportedJpegException(String.format("Unsupported JPEG process (marker 0x%02X)", marker));
+            } else if (marker == JpegConstants.DHT) {
+                readHuffmanTables();
+            } else if (marker == JpegConstants.DQT) {
+                readQuantTables();
+            } else if (marker == JpegConstants.DRI) {
+                int length = readLength();
+                restartInterval = readUnsignedShort(position + 2);
+                position += length;
+            } else if (marker == JpegConstants.SOS) {
+                readScan();
+                scanned = true;
+            } else if (marker == JpegConstants.DNL) {
+                throw new UnsupportedJpegException("DNL marker is not supported");
+            } else if (marker == JpegConstants.TEM || JpegConstants.isRestartMarker(marker)) {
+                // 길이 필드가 없는 마커
+            } else if ((marker >= JpegConstants.APP0 && marker <= JpegConstants.APP15) || marker == JpegConstants.COM) {
+                readPreservedSegment(marker);
+            } else {
+                position += readLength();
+            }
+        }
+
+        if (components == null || !scanned) {
+            throw new IOException("Corrupt JPEG: no frame or scan data");
+        }
+        return new JpegImage(width, height, components, frameQuantTables, extendedPrecisionTables,
+            preservedSegments, decodedMcuRows == mcusPerColumn);
+    }
+
+    private static boolean isUnsupportedFrame(int marker) {
+        // SOF3(무손실), SOF5~7(계층형), SOF9~15(산술 부호화), DAC
+        return marker >= JpegConstants.SOF0 && marker <= JpegConstants.SOF15
+            && marker != JpegConstants.DHT && marker != JpegConstants.JPG
+            && marker != JpegConstants.SOF0 && marker != JpegConstants.SOF1 && marker != JpegConstants.SOF2;
+    }
+
+    // 다음 마커 코드. 마커 앞의 채움 바이트(0xFF)와 잘못 끼어든 바이트는 건너뛴다
+    private int readMarker() {
+        while (position < data.length && (data[position] & BYTE_MASK) != MARKER_PREFIX) {
+            position++;
+        }
+        while (position < data.length && (data[position] & BYTE_MASK) == MARKER_PREFIX) {
+            position++;
+        }
+        if (position >= data.length) {
+            return -1;
+        }
+        return data[position++] & BYTE_MASK;
+    }
+
+    private int readLength() throws IOException {
+        int length = readUnsignedShort(position);
+        if (length < 2 || position + length > data.length) {
+            throw new IOException("Corrupt JPEG: bad segment length");
+        }
+        return length;
+    }
+
+    private int readUnsignedShort(int offset) throws IOException {
+        if (offset + 1 >= data.length) {
+            throw new IOException("Corrupt JPEG: unexpected end of stream");
+        }
+        return ((data[offset] & BYTE_MASK) << 8) | (data[offset + 1] & BYTE_MASK);
+    }
+
+    private int readUnsignedByte(int offset) throws IOException {
+        if (offset >= data.length) {
+            throw new IOException("Corrupt JPEG: unexpected end of stream");
+        }
+        return data[offset] & BYTE_MASK;
+    }
+
+    private void readPreservedSegment(int marker) throws IOException {
+        int length = readLength();
+        int payload = position + 2;
+
+        if (marker == JpegConstants.APP0 && startsWith(payload, length - 2, JFIF_IDENTIFIER)) {
+            jfif = true;
+        } else if (marker == JpegConstants.APP14 && startsWith(payload, length - 2, ADOBE_IDENTIFIER)
+            && length - 2 > ADOBE_TRANSFORM_OFFSET) {
+            adobeTransform = readUnsignedByte(payload + ADOBE_TRANSFORM_OFFSET);
+        }
+
+        byte[] segment = new byte[length + 2];
+        segment[0] = (byte) MARKER_PREFIX;
+        segment[1] = (byte) marker;
+        System.arraycopy(data, position, segment, 2, length);
+        preservedSegments.add(segment);
+        position += length;
+    }
+
+    private boolean startsWith(int offset, int available, byte[] identifier) {
+        if (available < identifier.length) {
+            return false;
+        }
+        for (int i = 0; i < identifier.length; i++) {
+            if (data[offset + i] != identifier[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readFrame(boolean progressiveFrame) throws IOException {
+        if (components != null) {
+            throw new IOException("Corrupt JPEG: multiple frames");
+        }
+        int length = readLength();
+        int offset = position + 2;
+
+        int precision = readUnsignedByte(offset);
+        height = readUnsignedShort(offset + 1);
+        width = readUnsignedShort(offset + 3);
+        int componentCount = readUnsignedByte(offset + 5);
+        offset += 6;
+
+        if (precision != SUPPORTED_PRECISION) {
+            throw new UnsupportedJpegException("Unsupported JPEG sample precision: " + precision);
+        }
+        if (height == 0) {
+            throw new UnsupportedJpegException("JPEG height defined by DNL is not supported");
+        }
+        if (width == 0) {
+            throw new IOException("Corrupt JPEG: zero width");
+        }
+        if (componentCount != GRAYSCALE_COMPONENTS && componentCount != YCBCR_COMPONENTS) {
+            throw new UnsupportedJpegException("Unsupported JPEG component count: " + componentCount);
+        }
+        if (length != 8 + componentCount * 3) {
+            throw new IOException("Corrupt JPEG: bad SOF length");
+        }
+
+        int[] ids = new int[componentCount];
+        int[] horizontal = new int[componentCount];
+        int[] vertical = new int[componentCount];
+        int[] quantIndices = new int[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            ids[i] = readUnsignedByte(offset);
+            int sampling = readUnsignedByte(offset + 1);
+            horizontal[i] = sampling >> 4;
+            vertical[i] = sampling & 0x0F;
+            quantIndices[i] = readUnsignedByte(offset + 2);
+            offset += 3;
+
+            if (horizontal[i] < 1 || horizontal[i] > MAX_SAMPLING || vertical[i] < 1 || vertical[i] > MAX_SAMPLING
+                || quantIndices[i] >= JpegConstants.MAX_TABLES) {
+                throw new IOException("Corrupt JPEG: bad component parameters");
+            }
+            maxHorizontalSampling = Math.max(maxHorizontalSampling, horizontal[i]);
+            maxVerticalSampling = Math.max(maxVerticalSampling, vertical[i]);
+        }
+
+        mcusPerLine = ceilDiv(width, JpegConstants.BLOCK_SIZE * maxHorizontalSampling);
+        mcusPerColumn = ceilDiv(height, JpegConstants.BLOCK_SIZE * maxVerticalSampling);
+        decodedMcuRows = mcusPerColumn;
+        if (lumaRowLimit != null) {
+            int lumaRows = Math.max(0, lumaRowLimit.applyAsInt(width, height));
+            decodedMcuRows = Math.min(mcusPerColumn, ceilDiv(lumaRows, vertical[0]));
+        }
+        long decodedPixels = (long) mcusPerLine * maxHorizontalSampling * JpegConstants.BLOCK_SIZE
+            * decodedMcuRows * maxVerticalSampling * JpegConstants.BLOCK_SIZE;
+        if (decodedPixels > MAX_DECODED_PIXELS) {
+            throw new UnsupportedJpegException("JPEG too large for coefficient decoding: " + width + "x" + height);
+        }
+
+        components = new JpegComponent[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            int componentWidth = ceilDiv(width * horizontal[i], maxHorizontalSampling);
+            int componentHeight = ceilDiv(height * vertical[i], maxVerticalSampling);
+            int blocksPerColumn = decodedMcuRows * vertical[i];
+            components[i] = new JpegComponent(ids[i], horizontal[i], vertical[i], quantIndices[i],
+                mcusPerLine * horizontal[i], blocksPerColumn, ceilDiv(componentWidth, JpegConstants.BLOCK_SIZE),
+                Math.min(blocksPerColumn, ceilDiv(componentHeight, JpegConstants.BLOCK_SIZE)));
+        }
+
+        progressive = progressiveFrame;
+        position += length;
+    }
+
+    private void readQuantTables() throws IOException {
+        int length = readLength();
+        int offset = position + 2;
+        int end = position + length;
+
+        while (offset < end) {
+            int info = readUnsignedByte(offset++);
+            boolean extended = (info >> 4) != 0;
+            int index = info & 0x0F;
+            if (index >= JpegConstants.MAX_TABLES || offset + JpegConstants.BLOCK_LENGTH * (extended ? 2 : 1) > end) {
+                throw new IOException("Corrupt JPEG: bad DQT segment");
+            }
+
+            int[] table = new int[JpegConstants.BLOCK_LENGTH];
+            for (int k = 0; k < JpegConstants.BLOCK_LENGTH; k++) {
+                if (extended) {
+                    table[k] = readUnsignedShort(offset);
+                    offset += 2;
+                } else {
+                    table[k] = readUnsignedByte(offset++);
+                }
+                if (table[k] == 0) {
+                    throw new IOException("Corrupt JPEG: zero quantization step");
+                }
+            }
+            quantTables[index] = table;
+            extendedPrecisionTables[index] = extended;
+        }
+        position += length;
+    }
+
+    private void readHuffmanTables() throws IOException {
+        int length = readLength();
+        int offset = position + 2;
+        int end = position + length;
+
+        while (offset < end) {
+            int info = readUnsignedByte(offset++);
+            int tableClass = info >> 4;
+            int index = info & 0x0F;
+            if (tableClass > 1 || index >= JpegConstants.MAX_TABLES || offset + HuffmanTable.MAX_CODE_LENGTH > end) {
+                throw new IOException("Corrupt JPEG: bad DHT segment");
+            }
+
+            int[] bits = new int[HuffmanTable.MAX_CODE_LENGTH + 1];
+            int total = 0;
+            for (int i = 1; i <= HuffmanTable.MAX_CODE_LENGTH; i++) {
+                bits[i] = readUnsignedByte(offset++);
+                total += bits[i];
+            }
+            if (offset + total > end) {
+                throw new IOException("Corrupt JPEG: bad DHT segment");
+            }
+
+            int[] values = new int[total];
+            for (int i = 0; i < total; i++) {
+                values[i] = readUnsignedByte(offset++);
+            }
+
+            HuffmanTable table = new HuffmanTable(bits, values);
+            if (tableClass == 0) {
+                dcTables[index] = table;
+            } else {
+                acTables[index] = table;
+            }
+        }
+        position += length;
+    }
+
+    private void readScan() throws IOException {
+        if (components == null) {
+            throw new IOException("Corrupt JPEG: SOS before SOF");
+        }
+        if (frameQuantTables == null) {
+            verifyColorSpace();
+            frameQuantTables = latchQuantTables();
+        }
+
+        int length = readLength();
+        int offset = position + 2;
+        int count = readUnsignedByte(offset++);
+        if (count < 1 || count > components.length || length != 6 + count * 2) {
+            throw new IOException("Corrupt JPEG: bad SOS segment");
+        }
+
+        JpegComponent[] scanComponents = new JpegComponent[count];
+        for (int i = 0; i < count; i++) {
+            int id = readUnsignedByte(offset);
+            int tables = readUnsignedByte(offset + 1);
+            offset += 2;
+
+            JpegComponent component = findComponent(id);
+            component.setTableIndices(tables >> 4, tables & 0x0F);
+            scanComponents[i] = component;
+        }
+
+        int spectralStart = readUnsignedByte(offset);
+        int spectralEnd = readUnsignedByte(offset + 1);
+        int approximation = readUnsignedByte(offset + 2);
+        int successiveHigh = approximation >> 4;
+        int successiveLow = approximation & 0x0F;
+        position += length;
+
+        ScanMode mode = scanMode(scanComponents, spectralStart, spectralEnd, successiveHigh);
+        position = decodeScan(scanComponents, mode, spectralStart, spectralEnd, successiveLow);
+    }
+
+    // 색공간이 YCbCr/그레이스케일이 아니면 휘도 계수를 얻을 수 없다
+    private void verifyColorSpace() throws UnsupportedJpegException {
+        if (components.length != YCBCR_COMPONENTS) {
+            return;
+        }
+        if (adobeTransform == ADOBE_TRANSFORM_NONE) {
+            throw new UnsupportedJpegException("Adobe RGB-encoded JPEG is not supported");
+        }
+        if (!jfif && adobeTransform == NO_ADOBE_TRANSFORM
+            && components[0].getId() == 'R' && components[1].getId() == 'G' && components[2].getId() == 'B') {
+            throw new UnsupportedJpegException("RGB-encoded JPEG is not supported");
+        }
+    }
+
+    // 첫 스캔 시점의 양자화 테이블을 프레임 테이블로 고정한다
+    private int[][] latchQuantTables() throws IOException {
+        int[][] latched = new int[JpegConstants.MAX_TABLES][];
+        for (JpegComponent component : components) {
+            int index = component.getQuantTableIndex();
+            if (quantTables[index] == null) {
+                throw new IOException("Corrupt JPEG: missing quantization table " + index);
+            }
+            latched[index] = quantTables[index].clone();
+        }
+        return latched;
+    }
+
+    private JpegComponent findComponent(int id) throws IOException {
+        for (JpegComponent component : components) {
+            if (component.getId() == id) {
+                return component;
+            }
+        }
+        throw new IOException("Corrupt JPEG: unknown component id " + id);
+    }
+
+    private ScanMode scanMode(JpegComponent[] scanComponents, int spectralStart, int spectralEnd,
+                              int successiveHigh) throws IOException {
+        if (!progressive) {
+            requireTables(scanComponents, true, true);
+            return ScanMode.SEQUENTIAL;
+        }
+
+        if (spectralStart == 0) {
+            if (spectralEnd != 0) {
+                throw new IOException("Corrupt JPEG: bad progressive DC scan");
+            }
+            if (successiveHigh == 0) {
+                requireTables(scanComponents, true, false);
+                return ScanMode.DC_FIRST;
+            }
+            return ScanMode.DC_REFINE;
+        }
+
+        if (scanComponents.length != 1 || spectralEnd < spectralStart || spectralEnd >= JpegConstants.BLOCK_LENGTH) {
+            throw new IOException("Corrupt JPEG: bad progressive AC scan");
+        }
+        requireTables(scanComponents, false, true);
+        return successiveHigh == 0 ? ScanMode.AC_FIRST : ScanMode.AC_REFINE;
+    }
+
+    private void requireTables(JpegComponent[] scanComponents, boolean dc, boolean ac) throws IOException {
+        for (JpegComponent component : scanComponents) {
+            if ((dc && tableAt(dcTables, component.getDcTableIndex()) == null)
+                || (ac && tableAt(acTables, component.getAcTableIndex()) == null)) {
+                throw new IOException("Corrupt JPEG: missing Huffman table");
+            }
+        }
+    }
+
+    private static HuffmanTable tableAt(HuffmanTable[] tables, int index) {
+        return index < tables.length ? tables[index] : null;
+    }
+
+    private int decodeScan(JpegComponent[] scanComponents, ScanMode mode, int spectralStart, int spectralEnd,
+                           int successiveLow) throws IOException {
+        JpegBitReader reader = new JpegBitReader(data, position);
+        resetPredictors(scanComponents);
+
+        // 단일 성분 스캔은 MCU가 블록 하나이고, 성분의 실제 크기만큼만 순회한다
+        boolean interleaved = scanComponents.length > 1;
+        int mcuColumns = interleaved ? mcusPerLine : scanComponents[0].getWidthInBlocks();
+        int mcuRows = interleaved ? decodedMcuRows : scanComponents[0].getHeightInBlocks();
+
+        int mcuCount = 0;
+        for (int mcuRow = 0; mcuRow < mcuRows; mcuRow++) {
+            for (int mcuCol = 0; mcuCol < mcuColumns; mcuCol++) {
+                if (restartInterval > 0 && mcuCount > 0 && mcuCount % restartInterval == 0) {
+                    reader.restart();
+                    resetPredictors(scanComponents);
+                }
+
+                if (!interleaved) {
+                    JpegComponent component = scanComponents[0];
+                    decodeBlock(reader, component, component.blockOffset(mcuRow, mcuCol), mode,
+                        spectralStart, spectralEnd, successiveLow);
+                } else {
+                    for (JpegComponent component : scanComponents) {
+                        int h = component.getHorizontalSampling();
+                        int v = component.getVerticalSampling();
+                        for (int y = 0; y < v; y++) {
+                            for (int x = 0; x < h; x++) {
+                                int offset = component.blockOffset(mcuRow * v + y, mcuCol * h + x);
+                                decodeBlock(reader, component, offset, mode, spectralStart, spectralEnd, successiveLow);
+                            }
+                        }
+                    }
+                }
+                mcuCount++;
+            }
+        }
+
+        // 영역 제한으로 멈췄으면 남은 스캔 데이터는 다음 마커까지 건너뛴다
+        return nextMarkerPosition(reader.getPosition());
+    }
+
+    private void resetPredictors(JpegComponent[] scanComponents) {
+        for (JpegComponent component : scanComponents) {
+            component.setDcPredictor(0);
+        }
+        eobRun = 0;
+    }
+
+    private void decodeBlock(JpegBitReader reader, JpegComponent component, int offset, ScanMode mode,
+                             int spectralStart, int spectralEnd, int successiveLow) throws IOException {
+        short[] coefficients = component.getCoefficients();
+        switch (mode) {
+            case SEQUENTIAL -> decodeSequential(reader, component, coefficients, offset);
+            case DC_FIRST -> decodeDcFirst(reader, component, coefficients, offset, successiveLow);
+            case DC_REFINE -> {
+                if (reader.readBit() != 0) {
+                    coefficients[offset] |= (short) (1 << successiveLow);
+                }
+            }
+            case AC_FIRST -> decodeAcFirst(reader, component, coefficients, offset, spectralStart, spectralEnd,
+                successiveLow);
+            case AC_REFINE -> decodeAcRefine(reader, component, coefficients, offset, spectralStart, spectralEnd,
+                successiveLow);
+        }
+    }
+
+    private void decodeSequential(JpegBitReader reader, JpegComponent component, short[] coefficients, int offset)
+        throws IOException {
+        int dcSize = reader.decode(dcTables[component.getDcTableIndex()]);
+        int dc = component.getDcPredictor() + reader.receiveExtend(dcSize);
+        component.setDcPredictor(dc);
+        coefficients[offset] = (short) dc;
+
+        HuffmanTable acTable = acTables[component.getAcTableIndex()];
+        for (int k = 1; k < JpegConstants.BLOCK_LENGTH; k++) {
+            int symbol = reader.decode(acTable);
+            int run = symbol >> 4;
+            int size = symbol & 0x0F;
+            if (size != 0) {
+                k += run;
+                if (k >= JpegConstants.BLOCK_LENGTH) {
+                    throw new IOException("Corrupt JPEG: coefficient index out of range");
+                }
+                coefficients[offset + k] = (short) reader.receiveExtend(size);
+            } else if (run == 15) {
+                k += 15;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void decodeDcFirst(JpegBitReader reader, JpegComponent component, short[] coefficients, int offset,
+                               int successiveLow) throws IOException {
+        int dcSize = reader.decode(dcTables[component.getDcTableIndex()]);
+        int dc = component.getDcPredictor() + reader.receiveExtend(dcSize);
+        component.setDcPredictor(dc);
+        coefficients[offset] = (short) (dc << successiveLow);
+    }
+
+    private void decodeAcFirst(JpegBitReader reader, JpegComponent component, short[] coefficients, int offset,
+                               int spectralStart, int spectralEnd, int successiveLow) throws IOException {
+        if (eobRun > 0) {
+            eobRun--;
+            return;
+        }
+
+        HuffmanTable acTable = acTables[component.getAcTableIndex()];
+        for (int k = spectralStart; k <= spectralEnd; k++) {
+            int symbol = reader.decode(acTable);
+            int run = symbol >> 4;
+            int size = symbol & 0x0F;
+            if (size != 0) {
+                k += run;
+                if (k > spectralEnd) {
+                    throw new IOException("Corrupt JPEG: coefficient index out of range");
+                }
+                coefficients[offset + k] = (short) (reader.receiveExtend(size) << successiveLow);
+            } else if (run == 15) {
+                k += 15;
+            } else {
+                eobRun = (1 << run) + reader.readBits(run) - 1;
+                break;
+            }
+        }
+    }
+
+    // libjpeg decode_mcu_AC_refine과 같은 절차 (Annex G.1.2.3)
+    private void decodeAcRefine(JpegBitReader reader, JpegComponent component, short[] coefficients, int offset,
+                                int spectralStart, int spectralEnd, int successiveLow) throws IOException {
+        int positiveBit = 1 << successiveLow;
+        int negativeBit = -1 << successiveLow;
+        int k = spectralStart;
+
+        if (eobRun == 0) {
+            HuffmanTable acTable = acTables[component.getAcTableIndex()];
+            for (; k <= spectralEnd; k++) {
+                int symbol = reader.decode(acTable);
+                int run = symbol >> 4;
+                int size = symbol & 0x0F;
+                int value = 0;
+
+                if (size != 0) {
+                    if (size != 1) {
+                        throw new IOException("Corrupt JPEG: bad progressive refinement");
+                    }
+                    value = reader.readBit() != 0 ? positiveBit : negativeBit;
+                } else if (run != 15) {
+                    eobRun = (1 << run) + reader.readBits(run);
+                    break;
+                }
+
+                // 이미 0이 아닌 계수는 보정 비트만 읽고, run 개의 0 계수를 건너뛴 자리에 새 계수를 둔다
+                while (k <= spectralEnd) {
+                    int index = offset + k;
+                    if (coefficients[index] != 0) {
+                        refine(reader, coefficients, index, positiveBit, negativeBit);
+                    } else {
+                        if (run == 0) {
+                            break;
+                        }
+                        run--;
+                    }
+                    k++;
+                }
+
+                if (value != 0) {
+                    if (k > spectralEnd) {
+                        throw new IOException("Corrupt JPEG: coefficient index out of range");
+                    }
+                    coefficients[offset + k] = (short) value;
+                }
+            }
+        }
+
+        if (eobRun > 0) {
+            for (; k <= spectralEnd; k++) {
+                int index = offset + k;
+                if (coefficients[index] != 0) {
+                    refine(reader, coefficients, index, positiveBit, negativeBit);
+                }
+            }
+            eobRun--;
+        }
+    }
+
+    private void refine(JpegBitReader reader, short[] coefficients, int index, int positiveBit, int negativeBit) {
+        if (reader.readBit() != 0 && (coefficients[index] & positiveBit) == 0) {
+            coefficients[index] += (short) (coefficients[index] >= 0 ? positiveBit : negativeBit);
+        }
+    }
+
+    // 엔트로피 부호화 구간 뒤의 첫 번째 마커 (RSTn과 스터핑 바이트는 건너뛴다)
+    private int nextMarkerPosition(int from) {
+        int offset = from;
+        while (offset + 1 < data.length) {
+            if ((data[offset] & BYTE_MASK) == MARKER_PREFIX) {
+                int marker = data[offset + 1] & BYTE_MASK;
+                if (marker != 0 && marker != MARKER_PREFIX && !JpegConstants.isRestartMarker(marker)) {
+                    return offset;
+                }
+            }
+            offset++;
+        }
+        return data.length;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private enum ScanMode {
+        SEQUENTIAL,
+        DC_FIRST,
+        DC_REFINE,
+        AC_FIRST,
+        AC_REFINE
+    }
+}
@@ -0,0 +1,281 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// 양자화된 계수를 baseline 순차 JPEG로 다시 엔트로피 부호화한다. 원본 양자화 테이블과 APPn/COM 세그먼트는 그대로 쓰고,
+// 허프만 테이블은 계수 통계로 새로 만든다 (수정된 계수가 원본 테이블에 없는 심볼을 만들 수 있으므로)
+final class JpegEncoder {
+
+    private static final int PRECISION = 8;
+    private static final int LUMA_TABLE = 0;
+    private static final int CHROMA_TABLE = 1;
+    private static final int ZERO_RUN_LENGTH = 0xF0;
+    private static final int END_OF_BLOCK = 0x00;
+    private static final int MAX_ZERO_RUN = 15;
+    private static final int BYTES_PER_COMPRESSED_BLOCK = 16;
+
+    private final JpegImage image;
+    private final JpegComponent[] components;
+    private final boolean interleaved;
+
+    private final long[][] dcFrequencies;
+    private final long[][] acFrequencies;
+    private HuffmanTable[] dcTables;
+    private HuffmanTable[] acTables;
+    private JpegBitWriter writer;
+    private boolean counting;
+
+    JpegEncoder(JpegImage image) {
+        this.image = image;
+        this.components = image.getComponents();
+        this.interleaved = components.length > 1 && blocksInMcu() <= JpegConstants.MAX_BLOCKS_IN_MCU;
+
+        int tableCount = components.length > 1 ? 2 : 1;
+        this.dcFrequencies = new long[tableCount][HuffmanTable.SYMBOL_COUNT];
+        this.acFrequencies = new long[tableCount][HuffmanTable.SYMBOL_COUNT];
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(estimatedSize());
+        encode(output);
+        return output.toByteArray();
+    }
+
+    void encode(OutputStream output) throws IOException {
+        // 1패스: 심볼 빈도 수집 후 최적 허프만 테이블 생성
+        counting = true;
+        encodeScans();
+
+        dcTables = new HuffmanTable[dcFrequencies.length];
+        acTables = new HuffmanTable[acFrequencies.length];
+        for (int i = 0; i < dcTables.length; i++) {
+            dcTables[i] = HuffmanTable.optimal(dcFrequencies[i]);
+            acTables[i] = HuffmanTable.optimal(acFrequencies[i]);
+        }
+
+        // 2패스: 실제 출력
+        counting = false;
+        writer = new JpegBitWriter(output);
+        try {
+            writer.writeMarker(JpegConstants.SOI);
+            for (byte[] segment : image.getPreservedSegments()) {
+                writer.writeBytes(segment);
+            }
+            writeQuantTables();
+            writeFrameHeader();
+            writeHuffmanTables();
+            encodeScans();
+            writer.writeMarker(JpegConstants.EOI);
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int blocksInMcu() {
+        int blocks = 0;
+        for (JpegComponent component : components) {
+            blocks += component.getHorizontalSampling() * component.getVerticalSampling();
+        }
+        return blocks;
+    }
+
+    private int estimatedSize() {
+        int blocks = 0;
+        for (JpegComponent component : components) {
+            blocks += component.getWidthInBlocks() * component.getHeightInBlocks();
+        }
+        return blocks * BYTES_PER_COMPRESSED_BLOCK;
+    }
+
+    private static int tableFor(int componentIndex) {
+        return componentIndex == 0 ? LUMA_TABLE : CHROMA_TABLE;
+    }
+
+    private void writeQuantTables() {
+        int[][] tables = image.getQuantTables();
+        boolean[] extended = image.getExtendedPrecisionTables();
+        for (int index = 0; index < tables.length; index++) {
+            if (tables[index] == null) {
+                continue;
+            }
+            writer.writeMarker(JpegConstants.DQT);
+            writer.writeShort(2 + 1 + JpegConstants.BLOCK_LENGTH * (extended[index] ? 2 : 1));
+            writer.writeByte((extended[index] ? 1 << 4 : 0) | index);
+            for (int value : tables[index]) {
+                if (extended[index]) {
+                    writer.writeShort(value);
+                } else {
+                    writer.writeByte(value);
+                }
+            }
+        }
+    }
+
+    private void writeFrameHeader() {
+        // 16비트 양자화 테이블은 baseline에서 허용되지 않으므로 extended sequential(SOF1)로 표시
+        boolean extended = false;
+        for (JpegComponent component : components) {
+            extended |= image.getExtendedPrecisionTables()[component.getQuantTableIndex()];
+        }
+
+        writer.writeMarker(extended ? JpegConstants.SOF1 : JpegConstants.SOF0);
+        writer.writeShort(8 + components.length * 3);
+        writer.writeByte(PRECISION);
+        writer.writeShort(image.getHeight());
+        writer.writeShort(image.getWidth());
+        writer.writeByte(components.length);
+        for (JpegComponent component : components) {
+            writer.writeByte(component.getId());
+            writer.writeByte((component.getHorizontalSampling() << 4) | component.getVerticalSampling());
+            writer.writeByte(component.getQuantTableIndex());
+        }
+    }
+
+    private void writeHuffmanTables() {
+        int length = 2;
+        for (int i = 0; i < dcTables.length; i++) {
+            length += 1 + HuffmanTable.MAX_CODE_LENGTH + dcTables[i].getValues().length;
+            length += 1 + HuffmanTable.MAX_CODE_LENGTH + acTables[i].getValues().length;
+        }
+
+        writer.writeMarker(JpegConstants.DHT);
+        writer.writeShort(length);
+        for (int i = 0; i < dcTables.length; i++) {
+            writeHuffmanTable(0, i, dcTables[i]);
+            writeHuffmanTable(1, i, acTables[i]);
+        }
+    }
+
+    private void writeHuffmanTable(int tableClass, int index, HuffmanTable table) {
+        writer.writeByte((tableClass << 4) | index);
+        int[] bits = table.getBits();
+        for (int length = 1; length <= HuffmanTable.MAX_CODE_LENGTH; length++) {
+            writer.writeByte(bits[length]);
+        }
+        for (int value : table.getValues()) {
+            writer.writeByte(value);
+        }
+    }
+
+    private void encodeScans() {
+        if (interleaved) {
+            encodeInterleavedScan();
+            return;
+        }
+        for (int i = 0; i < components.length; i++) {
+            encodeComponentScan(i);
+        }
+    }
+
+    private void encodeInterleavedScan() {
+        writeScanHeader(0, components.length);
+
+        int[] predictors = new int[components.length];
+        JpegComponent first = components[0];
+        int mcusPerLine = first.getBlocksPerLine() / first.getHorizontalSampling();
+        int mcusPerColumn = first.getBlocksPerColumn() / first.getVerticalSampling();
+
+        for (int mcuRow = 0; mcuRow < mcusPerColumn; mcuRow++) {
+            for (int mcuCol = 0; mcuCol < mcusPerLine; mcuCol++) {
+                for (int i = 0; i < components.length; i++) {
+                    JpegComponent component = components[i];
+                    int h = component.getHorizontalSampling();
+                    int v = component.getVerticalSampling();
+                    for (int y = 0; y < v; y++) {
+                        for (int x = 0; x < h; x++) {
+                            int offset = component.blockOffset(mcuRow * v + y, mcuCol * h + x);
+                            predictors[i] = encodeBlock(component.getCoefficients(), offset, predictors[i], tableFor(i));
+                        }
+                    }
+                }
+            }
+        }
+        finishScan();
+    }
+
+    private void encodeComponentScan(int componentIndex) {
+        writeScanHeader(componentIndex, 1);
+
+        JpegComponent component = components[componentIndex];
+        int predictor = 0;
+        for (int row = 0; row < component.getHeightInBlocks(); row++) {
+            for (int col = 0; col < component.getWidthInBlocks(); col++) {
+                predictor = encodeBlock(component.getCoefficients(), component.blockOffset(row, col), predictor,
+                    tableFor(componentIndex));
+            }
+        }
+        finishScan();
+    }
+
+    private void writeScanHeader(int firstComponent, int count) {
+        if (counting) {
+            return;
+        }
+        writer.writeMarker(JpegConstants.SOS);
+        writer.writeShort(6 + count * 2);
+        writer.writeByte(count);
+        for (int i = firstComponent; i < firstComponent + count; i++) {
+            int table = tableFor(i);
+            writer.writeByte(components[i].getId());
+            writer.writeByte((table << 4) | table);
+        }
+        writer.writeByte(0);
+        writer.writeByte(JpegConstants.BLOCK_LENGTH - 1);
+        writer.writeByte(0);
+    }
+
+    private void finishScan() {
+        if (!counting) {
+            writer.flushBits();
+        }
+    }
+
+    // 블록 하나를 부호화하고 다음 DC 예측값을 반환 (F.1.2.1, F.1.2.2)
+    private int encodeBlock(short[] coefficients, int offset, int predictor, int table) {
+        int dc = coefficients[offset];
+        emitValue(dcFrequencies[table], dcTables == null ? null : dcTables[table], 0, dc - predictor);
+
+        long[] acFrequency = acFrequencies[table];
+        HuffmanTable acTable = acTables == null ? null : acTables[table];
+        int run = 0;
+        for (int k = 1; k < JpegConstants.BLOCK_LENGTH; k++) {
+            int value = coefficients[offset + k];
+            if (value == 0) {
+                run++;
+                continue;
+            }
+            while (run > MAX_ZERO_RUN) {
+                emitSymbol(acFrequency, acTable, ZERO_RUN_LENGTH);
+                run -= MAX_ZERO_RUN + 1;
+            }
+            emitValue(acFrequency, acTable, run, value);
+            run = 0;
+        }
+        if (run > 0) {
+            emitSymbol(acFrequency, acTable, END_OF_BLOCK);
+        }
+        return dc;
+    }
+
+    // (run, size) 심볼과 크기 비트로 값을 표현 (음수는 1의 보수)
+    private void emitValue(long[] frequency, HuffmanTable table, int run, int value) {
+        int magnitude = Math.abs(value);
+        int size = magnitude == 0 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(magnitude);
+        emitSymbol(frequency, table, (run << 4) | size);
+        if (size > 0 && !counting) {
+            writer.writeBits(value < 0 ? value - 1 : value, size);
+        }
+    }
+
+    private void emitSymbol(long[] frequency, HuffmanTable table, int symbol) {
+        if (counting) {
+            frequency[symbol]++;
+            return;
+        }
+        writer.writeBits(table.code(symbol), table.codeLength(symbol));
+    }
+}
@@ -0,0 +1,65 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.util.List;
+
+// 엔트로피 디코딩까지만 마친 JPEG. 양자화 테이블과 APPn/COM 세그먼트는 재인코딩 시 그대로 다시 쓴다
+public final class JpegImage {
+
+    private final int width;
+    private final int height;
+    private final JpegComponent[] components;
+    private final int[][] quantTables;
+    private final boolean[] extendedPrecisionTables;
+    private final List<byte[]> preservedSegments;
+    // 위쪽 일부 블록 행만 디코딩했으면 false. 추출에만 쓸 수 있고 재인코딩할 수 없다
+    private final boolean complete;
+
+    JpegImage(int width, int height, JpegComponent[] components, int[][] quantTables,
+              boolean[] extendedPrecisionTables, List<byte[]> preservedSegments, boolean complete) {
+        this.width = width;
+        this.height = height;
+        this.components = components;
+        this.quantTables = quantTables;
+        this.extendedPrecisionTables = extendedPrecisionTables;
+        this.preservedSegments = preservedSegments;
+        this.complete = complete;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    JpegComponent[] getComponents() {
+        return components;
+    }
+
+    // 첫 번째 성분이 Y (JFIF)
+    JpegComponent getLuma() {
+        return components[0];
+    }
+
+    // 지그재그 순서의 양자화 계수
+    int[] quantTable(JpegComponent component) {
+        return quantTables[component.getQuantTableIndex()];
+    }
+
+    int[][] getQuantTables() {
+        return quantTables;
+    }
+
+    boolean[] getExtendedPrecisionTables() {
+        return extendedPrecisionTables;
+    }
+
+    List<byte[]> getPreservedSegments() {
+        return preservedSegments;
+    }
+}
@@ -0,0 +1,225 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+import com.seungjjun.watermark.core.dct.BitLayout;
+import com.seungjjun.watermark.core.dct.strategy.CoefficientPlane;
+import com.seungjjun.watermark.core.dct.strategy.PlaneWatermarkStrategy;
+import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
+
+import java.util.Arrays;
+
+// stripe 하나의 휘도 블록을 계수 영역에서 처리하는 스레드 한정 워커.
+// JPEG의 DCT 계수는 (Y - 128)의 정규 직교 8x8 DCT와 같은 정규화이므로 역양자화한 값에 전략을 그대로 적용할 수 있다.
+// 전략 호출은 블록 행 단위로, 행의 역양자화 계수를 모은 CoefficientPlane 하나로 한 번에 수행한다
+final class JpegLumaWorker {
+
+    private static final int BLOCK_SIZE = JpegConstants.BLOCK_SIZE;
+    private static final int BLOCK_LENGTH = JpegConstants.BLOCK_LENGTH;
+    private static final int[] NATURAL_TO_ZIGZAG = JpegConstants.NATURAL_TO_ZIGZAG;
+
+    // 8비트 baseline에서 표현 가능한 양자화 계수 범위
+    private static final int MAX_DC_COEFFICIENT = 2047;
+    private static final int MAX_AC_COEFFICIENT = 1023;
+    // 재양자화 후 비트가 뒤집히면 계수를 양자화 단계 단위로 최대 이만큼 밀어 본다
+    private static final int MAX_NUDGE_STEPS = 4;
+
+    private final WatermarkStrategy strategy;
+    private final PlaneWatermarkStrategy planeStrategy;
+    private final BitLayout layout;
+    private final int[] quantTable;
+    private final int[] planeIndices;
+
+    // 블록 행 길이에 맞춰 처음 쓰일 때 만든다
+    private CoefficientPlane plane;
+    private CoefficientPlane originalPlane;
+    private CoefficientPlane probePlane;
+    // 재양자화 후 읽히는 비트. 행 안의 위치별로 [slot * blockCount, (slot + 1) * blockCount) 구간을 쓴다
+    private BitVector verifiedBits;
+    private int[][] nudgeIndices;
+
+    JpegLumaWorker(WatermarkStrategy strategy, BitLayout layout, int[] quantTable) {
+        this.strategy = strategy;
+        this.planeStrategy = PlaneWatermarkStrategy.of(strategy);
+        this.layout = layout;
+        this.quantTable = quantTable;
+        this.planeIndices = layout.planeIndices(planeStrategy, BLOCK_SIZE);
+    }
+
+    void embedRows(JpegComponent luma, int fromRow, int toRow, int blocksPerRow, BitVector watermarkBits,
+                   double strength) {
+        preparePlanes(blocksPerRow);
+        prepareNudgeIndices(strength);
+
+        short[] coefficients = luma.getCoefficients();
+        int payloadBits = watermarkBits.length();
+        for (int row = fromRow; row < toRow; row++) {
+            int firstBlock = row * blocksPerRow;
+            int blockCount = layout.embeddedBlocks(payloadBits, firstBlock, blocksPerRow);
+            if (blockCount <= 0) {
+                return;
+            }
+
+            plane.reset(firstBlock, blockCount);
+            gather(coefficients, luma, row, plane);
+
+            originalPlane.copyFrom(plane);
+            for (int slot = 0; slot < layout.getBitsPerBlock(); slot++) {
+                plane.rebase(layout.bitOffset(slot, payloadBits) + firstBlock);
+                planeStrategy.embedBits(plane, watermarkBits, strength, layout.position(slot), BLOCK_SIZE);
+            }
+            requantize(coefficients, luma, row);
+
+            // 페이로드 밖 블록도 0 비트로 읽히는지 확인한다
+            for (int slot = 0; slot < layout.getBitsPerBlock(); slot++) {
+                int position = layout.position(slot);
+                int verifiedOffset = slot * blockCount;
+                plane.rebase(verifiedOffset);
+                planeStrategy.extractBits(plane, verifiedBits, position, BLOCK_SIZE);
+
+                plane.rebase(layout.bitOffset(slot, payloadBits) + firstBlock);
+                for (int col = 0; col < blockCount; col++) {
+                    boolean bit = plane.bitAt(watermarkBits, col);
+                    if (verifiedBits.get(verifiedOffset + col) != bit) {
+                        nudge(coefficients, luma.blockOffset(row, col), slot, verifiedOffset + col, bit);
+                    }
+                }
+            }
+        }
+    }
+
+    void extractRows(JpegComponent luma, int fromRow, int toRow, int blocksPerRow, BitVector extractedBits) {
+        preparePlanes(blocksPerRow);
+
+        short[] coefficients = luma.getCoefficients();
+        int payloadBits = extractedBits.length();
+        int payloadBlocks = layout.payloadBlocks(payloadBits);
+        for (int row = fromRow; row < toRow; row++) {
+            int firstBlock = row * blocksPerRow;
+            int blockCount = Math.min(blocksPerRow, payloadBlocks - firstBlock);
+            if (blockCount <= 0) {
+                return;
+            }
+
+            plane.reset(firstBlock, blockCount);
+            gather(coefficients, luma, row, plane);
+            for (int slot = 0; slot < layout.getBitsPerBlock(); slot++) {
+                plane.rebase(layout.bitOffset(slot, payloadBits) + firstBlock);
+                planeStrategy.extractBits(plane, extractedBits, layout.position(slot), BLOCK_SIZE);
+            }
+        }
+    }
+
+    // 전략이 바꾼 계수만 재양자화하고, 평면에는 재양자화 후 실제로 남는 값을 되돌려 적는다
+    private void requantize(short[] coefficients, JpegComponent luma, int row) {
+        for (int slot = 0; slot < planeIndices.length; slot++) {
+            int index = planeIndices[slot];
+            int zigzag = NATURAL_TO_ZIGZAG[index];
+            int step = quantTable[zigzag];
+            double[] values = plane.valuesAt(slot);
+            double[] originalValues = originalPlane.valuesAt(slot);
+
+            for (int col = 0; col < plane.getBlockCount(); col++) {
+                double change = values[col] - originalValues[col];
+                if (change == 0.0) {
+                    continue;
+                }
+
+                int position = luma.blockOffset(row, col) + zigzag;
+                int original = coefficients[position];
+                int quantized = (int) Math.round(values[col] / step);
+                // 변화량이 양자화 단계보다 작아 반올림으로 사라지면 최소 한 단계는 그 방향으로 옮긴다.
+                // 그렇지 않으면 계수가 판정 경계(0)에 그대로 남아 픽셀 디코딩 후 추출이 흔들린다
+                if (quantized == original && planeStrategy.isLinear()) {
+                    quantized += change > 0 ? 1 : -1;
+                }
+                coefficients[position] = clamp(quantized, index);
+                values[col] = coefficients[position] * step;
+            }
+        }
+    }
+
+    // 양자화 단계가 삽입 강도보다 크면 반올림으로 변화가 사라질 수 있으므로, 비트가 읽힐 때까지 가장 작은 폭으로 계수를 민다
+    private void nudge(short[] coefficients, int offset, int slot, int verifiedIndex, boolean bit) {
+        for (int steps = 1; steps <= MAX_NUDGE_STEPS; steps++) {
+            for (int index : nudgeIndices[slot]) {
+                int position = offset + NATURAL_TO_ZIGZAG[index];
+                short original = coefficients[position];
+                for (int direction = 1; direction >= -1; direction -= 2) {
+                    coefficients[position] = clamp(original + direction * steps, index);
+                    if (readBit(coefficients, offset, slot, verifiedIndex) == bit) {
+                        return;
+                    }
+                }
+                coefficients[position] = original;
+            }
+        }
+    }
+
+    private boolean readBit(short[] coefficients, int offset, int slot, int verifiedIndex) {
+        probePlane.reset(verifiedIndex, 1);
+        for (int planeSlot = 0; planeSlot < planeIndices.length; planeSlot++) {
+            int zigzag = NATURAL_TO_ZIGZAG[planeIndices[planeSlot]];
+            probePlane.valuesAt(planeSlot)[0] = coefficients[offset + zigzag] * quantTable[zigzag];
+        }
+        planeStrategy.extractBits(probePlane, verifiedBits, layout.position(slot), BLOCK_SIZE);
+        return verifiedBits.get(verifiedIndex);
+    }
+
+    private void gather(short[] coefficients, JpegComponent luma, int row, CoefficientPlane target) {
+        for (int slot = 0; slot < planeIndices.length; slot++) {
+            int zigzag = NATURAL_TO_ZIGZAG[planeIndices[slot]];
+            int step = quantTable[zigzag];
+            double[] values = target.valuesAt(slot);
+            for (int col = 0; col < target.getBlockCount(); col++) {
+                values[col] = coefficients[luma.blockOffset(row, col) + zigzag] * step;
+            }
+        }
+    }
+
+    private void preparePlanes(int blocksPerRow) {
+        if (plane == null || plane.getCapacity() < blocksPerRow) {
+            plane = new CoefficientPlane(planeIndices, BLOCK_LENGTH, blocksPerRow);
+            originalPlane = new CoefficientPlane(planeIndices, BLOCK_LENGTH, blocksPerRow);
+            probePlane = new CoefficientPlane(planeIndices, BLOCK_LENGTH, 1);
+            verifiedBits = new BitVector(layout.getBitsPerBlock() * blocksPerRow);
+        }
+    }
+
+    private void prepareNudgeIndices(double strength) {
+        nudgeIndices = new int[layout.getBitsPerBlock()][];
+        for (int slot = 0; slot < nudgeIndices.length; slot++) {
+            int position = layout.position(slot);
+            int[] readIndices = strategy.coefficientIndices(position, BLOCK_SIZE);
+            if (readIndices != null) {
+                nudgeIndices[slot] = readIndices;
+            } else if (strategy.isLinear()) {
+                nudgeIndices[slot] = nonZeroIndices(coefficientDelta(true, strength, position),
+                    coefficientDelta(false, strength, position));
+            } else {
+                nudgeIndices[slot] = new int[]{position * BLOCK_SIZE + position};
+            }
+        }
+    }
+
+    private static short clamp(int value, int index) {
+        int limit = index == 0 ? MAX_DC_COEFFICIENT : MAX_AC_COEFFICIENT;
+        return (short) Math.max(-limit, Math.min(limit, value));
+    }
+
+    private double[] coefficientDelta(boolean bit, double strength, int position) {
+        double[] delta = new double[BLOCK_LENGTH];
+        strategy.embedBit(delta, bit, strength, position, BLOCK_SIZE);
+        return delta;
+    }
+
+    private static int[] nonZeroIndices(double[] first, double[] second) {
+        int[] indices = new int[BLOCK_LENGTH];
+        int count = 0;
+        for (int index = 0; index < BLOCK_LENGTH; index++) {
+            if (first[index] != 0.0 || second[index] != 0.0) {
+                indices[count++] = index;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+}
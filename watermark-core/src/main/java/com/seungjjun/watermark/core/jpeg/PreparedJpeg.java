@@ -0,0 +1,48 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 같은 JPEG에 페이로드만 바꿔 여러 번 삽입하기 위해 엔트로피 디코딩을 한 번만 해 둔 이미지.
+// 삽입은 휘도 계수를 제자리에서 고치므로 매번 직전 삽입이 고친 블록 행만 원본 계수로 되돌린다.
+// 계수 배열을 공유하므로 한 번에 하나의 삽입만 호출해야 한다
+public final class PreparedJpeg {
+
+    private final JpegCoefficientWatermark watermark;
+    private final JpegImage image;
+    private final short[] originalLuma;
+    // 직전 삽입이 고친 블록 행 수
+    private int dirtyRows;
+
+    PreparedJpeg(JpegCoefficientWatermark watermark, JpegImage image) {
+        this.watermark = watermark;
+        this.image = image;
+        this.originalLuma = image.getLuma().getCoefficients().clone();
+    }
+
+    public int getWidth() {
+        return image.getWidth();
+    }
+
+    public int getHeight() {
+        return image.getHeight();
+    }
+
+    // 결과는 원본을 새로 읽어 JpegCoefficientWatermark.embedWatermark(image, watermarkText, output)한 것과 같다
+    public void embedWatermark(String watermarkText, OutputStream output) throws IOException {
+        embedWatermark(watermarkText, output, JpegCoefficientWatermark.DEFAULT_STRENGTH);
+    }
+
+    public void embedWatermark(String watermarkText, OutputStream output, double strength) throws IOException {
+        restoreRows(dirtyRows);
+        dirtyRows = watermark.embedCoefficients(image, watermarkText, strength);
+        new JpegEncoder(image).encode(output);
+    }
+
+    // 위쪽 블록 행 rows개의 휘도 계수를 원본으로 되돌린다
+    private void restoreRows(int rows) {
+        JpegComponent luma = image.getLuma();
+        int length = Math.min(originalLuma.length, luma.blockOffset(rows, 0));
+        System.arraycopy(originalLuma, 0, luma.getCoefficients(), 0, length);
+    }
+}
@@ -0,0 +1,12 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import java.io.IOException;
+
+// 계수 영역 처리 대상이 아닌 JPEG (산술 부호화, 무손실/계층형, 12비트 정밀도, CMYK/RGB 색공간 등).
+// 호출자는 픽셀 디코딩 경로로 대체하면 된다
+public class UnsupportedJpegException extends IOException {
+
+    public UnsupportedJpegException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.seungjjun.watermark.core.lsb.embedder;
 
+import com.seungjjun.watermark.core.bits.BitStreamReader;
+import com.seungjjun.watermark.core.bits.BitVector;
 import com.seungjjun.watermark.core.lsb.model.WatermarkData;
-import com.seungjjun.watermark.core.lsb.util.BitManipulator;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
 
 import java.awt.image.BufferedImage;
 import lombok.extern.slf4j.Slf4j;
@@ -9,20 +12,33 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class LSBEmbedder {
 
-    private static final int BYTE_MASK = 0xFF;
-    private static final int ALPHA_SHIFT = 24;
+    private static final int BITS_PER_BYTE = 8;
     private static final int RED_SHIFT = 16;
     private static final int GREEN_SHIFT = 8;
-    private static final int BLUE_SHIFT = 0;
+    // 3채널 사용 (RGB)
+    private static final int CHANNELS = 3;
 
     private final int bitDepth;
+    private final int bitsPerPixel;
+    private final int channelMask;
+    // 픽셀의 RGB 세 채널에서 하위 bitDepth 비트를 지우는 마스크 (알파는 유지)
+    private final int pixelClearMask;
+    private final StripeScheduler scheduler;
 
     public LSBEmbedder(int bitDepth) {
+        this(bitDepth, StripeScheduler.sequential());
+    }
+
+    public LSBEmbedder(int bitDepth, StripeScheduler scheduler) {
         // 4비트 이상은 원본 손상 심함
         if (bitDepth < 1 || bitDepth > 8) {
             throw new IllegalArgumentException("Bit depth must be between 1 and 8");
         }
         this.bitDepth = bitDepth;
+        this.scheduler = scheduler;
+        this.bitsPerPixel = CHANNELS * bitDepth;
+        this.channelMask = (1 << bitDepth) - 1;
+        this.pixelClearMask = ~((channelMask << RED_SHIFT) | (channelMask << GREEN_SHIFT) | channelMask);
     }
 
     public LSBEmbedder() {
@@ -34,59 +50,65 @@ public class LSBEmbedder {
         int width = image.getWidth();
         int height = image.getHeight();
 
-        int totalBits = allBytes.length * 8;
-        // 3채널 사용 (RGB)
-        int availableBits = width * height * 3 * bitDepth;
+        long totalBits = (long) allBytes.length * BITS_PER_BYTE;
+        long availableBits = (long) width * height * bitsPerPixel;
 
         if (totalBits > availableBits) {
             log.error("Image is too small to embed data. Required: {} bits, Available: {} bits", totalBits, availableBits);
             throw new IllegalArgumentException("Image is too small to embed data");
         }
 
-        int bitIndex = 0;
-        int mask = BitManipulator.createMask(bitDepth);
-
-        for (int y = 0; y < height && bitIndex < totalBits; y++) {
-            for (int x = 0; x < width && bitIndex < totalBits; x++) {
-                int rgb = image.getRGB(x, y);
-
-                int alpha = (rgb >> ALPHA_SHIFT) & BYTE_MASK;
-                int red = (rgb >> RED_SHIFT) & BYTE_MASK;
-                int green = (rgb >> GREEN_SHIFT) & BYTE_MASK;
-                int blue = (rgb >> BLUE_SHIFT) & BYTE_MASK;
-
-                red = embedBitsIntoChannel(red, allBytes, bitIndex, mask, totalBits);
-                bitIndex += Math.min(bitDepth, totalBits - bitIndex);
-
-                if (bitIndex < totalBits) {
-                    green = embedBitsIntoChannel(green, allBytes, bitIndex, mask, totalBits);
-                    bitIndex += Math.min(bitDepth, totalBits - bitIndex);
-                }
-
-                if (bitIndex < totalBits) {
-                    blue = embedBitsIntoChannel(blue, allBytes, bitIndex, mask, totalBits);
-                    bitIndex += Math.min(bitDepth, totalBits - bitIndex);
+        // 페이로드가 닿는 행만 backing 배열에서 행 단위로 읽고 써서 getRGB/setRGB 호출을 없앤다
+        BitVector payload = BitVector.fromBytes(allBytes);
+        PixelAccessor pixels = PixelAccessor.of(image);
+        long fullPixels = totalBits / bitsPerPixel;
+        int trailingBits = (int) (totalBits % bitsPerPixel);
+        long payloadPixels = fullPixels + (trailingBits > 0 ? 1 : 0);
+        int payloadRows = (int) ((payloadPixels + width - 1) / width);
+
+        // 행 y의 시작 비트는 y * width * 3 * bitDepth로 정해지므로 stripe마다 독립적으로 삽입한다
+        scheduler.run(payloadRows, (fromRow, toRow) -> {
+            // 페이로드 끝을 넘는 비트는 0으로 읽힌다
+            BitStreamReader bits = new BitStreamReader(payload, (long) fromRow * width * bitsPerPixel);
+            int[] row = new int[width];
+            for (int y = fromRow; y < toRow; y++) {
+                long rowStart = (long) y * width;
+                int rowPixels = (int) Math.min(width, payloadPixels - rowStart);
+                int rowFullPixels = (int) Math.min(rowPixels, fullPixels - rowStart);
+
+                pixels.read(0, y, rowPixels, 1, row, 0);
+                embedFullPixels(row, rowFullPixels, bits);
+                if (rowFullPixels < rowPixels) {
+                    row[rowFullPixels] = embedTrailingPixel(row[rowFullPixels], bits, trailingBits);
                 }
-
-                int newRgb = (alpha << ALPHA_SHIFT) | (red << RED_SHIFT) |
-                    (green << GREEN_SHIFT) | (blue << BLUE_SHIFT);
-                image.setRGB(x, y, newRgb);
+                pixels.write(0, y, rowPixels, 1, row, 0);
             }
-        }
+        });
     }
 
-    private int embedBitsIntoChannel(int channel, byte[] bytes, int bitIndex, int mask, int totalBits) {
-        int bits = 0;
-
-        for (int i = 0; i < bitDepth; i++) {
-            int currentBitIndex = bitIndex + i;
-            int bit = 0;
-            if (currentBitIndex < totalBits) {
-                bit = BitManipulator.getBit(bytes, currentBitIndex);
-            }
-            bits = (bits << 1) | bit;
+    // 픽셀마다 3 * bitDepth 비트를 한 번에 꺼내 R, G, B 순으로 상위 비트부터 나눠 넣는다
+    private void embedFullPixels(int[] row, int count, BitStreamReader bits) {
+        int greenShift = GREEN_SHIFT - bitDepth;
+        int redShift = RED_SHIFT - 2 * bitDepth;
+        int greenMask = channelMask << GREEN_SHIFT;
+        int redMask = channelMask << RED_SHIFT;
+
+        for (int x = 0; x < count; x++) {
+            int value = (int) bits.next(bitsPerPixel);
+            int spliced = ((value << redShift) & redMask)
+                | ((value << greenShift) & greenMask)
+                | (value & channelMask);
+            row[x] = (row[x] & pixelClearMask) | spliced;
         }
+    }
 
-        return (channel & mask) | bits;
+    // 마지막 픽셀: 페이로드가 닿는 채널만 바꾸고, 마지막 채널의 남는 비트는 0으로 채운다
+    private int embedTrailingPixel(int pixel, BitStreamReader bits, int remainingBits) {
+        int channels = (remainingBits + bitDepth - 1) / bitDepth;
+        for (int channel = 0; channel < channels; channel++) {
+            int shift = RED_SHIFT - channel * GREEN_SHIFT;
+            pixel = (pixel & ~(channelMask << shift)) | ((int) bits.next(bitDepth) << shift);
+        }
+        return pixel;
     }
 }
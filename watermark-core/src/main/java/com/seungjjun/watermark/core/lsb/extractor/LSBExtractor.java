@@ -1,104 +1,137 @@
 package com.seungjjun.watermark.core.lsb.extractor;
 
+import com.seungjjun.watermark.core.bits.BitStreamWriter;
+import com.seungjjun.watermark.core.bits.BitVector;
 import com.seungjjun.watermark.core.lsb.model.WatermarkData;
-import com.seungjjun.watermark.core.lsb.util.BitManipulator;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
 
 import java.awt.image.BufferedImage;
 
 public class LSBExtractor {
 
-    private static final int BYTE_MASK = 0xFF;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int HEADER_BITS = Integer.SIZE;
     private static final int RED_SHIFT = 16;
     private static final int GREEN_SHIFT = 8;
-    private static final int BLUE_SHIFT = 0;
+    // 3채널 사용 (RGB)
+    private static final int CHANNELS = 3;
 
     private final int bitDepth;
+    private final int bitsPerPixel;
+    private final StripeScheduler scheduler;
 
     public LSBExtractor(int bitDepth) {
+        this(bitDepth, StripeScheduler.sequential());
+    }
+
+    public LSBExtractor(int bitDepth, StripeScheduler scheduler) {
         if (bitDepth < 1 || bitDepth > 8) {
             throw new IllegalArgumentException("Bit depth must be between 1 and 8");
         }
         this.bitDepth = bitDepth;
+        this.bitsPerPixel = CHANNELS * bitDepth;
+        this.scheduler = scheduler;
     }
 
     public LSBExtractor() {
         this(1);
     }
 
+    // 길이 헤더(32비트)를 먼저 읽고, 워터마크가 없는 이미지의 헤더는 임의 값이므로
+    // 이미지 용량으로 검증한 뒤에만 데이터 배열을 할당한다
     public WatermarkData extract(BufferedImage image) {
-        // 먼저 길이 추출 (32비트)
-        byte[] lengthBytes = extractBytes(image, 4, 0);
-        int dataLength = BitManipulator.bytesToInt(lengthBytes);
-
-        // 데이터 추출
-        int startBitIndex = 32;
-        byte[] dataBytes = extractBytes(image, dataLength, startBitIndex);
-
-        return WatermarkData.fromBytes(dataBytes);
-    }
-
-    private byte[] extractBytes(BufferedImage image, int byteCount, int startBitIndex) {
-        byte[] bytes = new byte[byteCount];
-        int bitIndex = startBitIndex;
-        int totalBits = startBitIndex + (byteCount * 8);
-
-        int width = image.getWidth();
-        int height = image.getHeight();
-
-        // 시작 픽셀 및 채널 계산
-        int bitsPerPixel = 3 * bitDepth;
-        int pixelIndex = startBitIndex / bitsPerPixel;
-        int channelOffset = (startBitIndex % bitsPerPixel) / bitDepth;
-        int bitOffset = (startBitIndex % bitsPerPixel) % bitDepth;
+        long capacityBits = (long) image.getWidth() * image.getHeight() * bitsPerPixel;
+        if (capacityBits < HEADER_BITS) {
+            throw new IllegalArgumentException("Image is too small to contain a watermark header");
+        }
 
-        int x = pixelIndex % width;
-        int y = pixelIndex / width;
+        PixelAccessor pixels = PixelAccessor.of(image);
+        int dataLength = (int) new PixelBitCursor(pixels, 0).next(HEADER_BITS);
 
-        for (; y < height && bitIndex < totalBits; y++) {
-            for (; x < width && bitIndex < totalBits; x++) {
-                int rgb = image.getRGB(x, y);
+        long requiredBits = HEADER_BITS + (long) dataLength * BITS_PER_BYTE;
+        // 비트 인덱스는 int이므로 데이터는 Integer.MAX_VALUE 비트까지
+        if (dataLength < 0 || requiredBits > capacityBits || requiredBits - HEADER_BITS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid watermark length header: " + dataLength
+                + " bytes (capacity: " + (capacityBits - HEADER_BITS) / BITS_PER_BYTE + " bytes)");
+        }
 
-                int red = (rgb >> RED_SHIFT) & BYTE_MASK;
-                int green = (rgb >> GREEN_SHIFT) & BYTE_MASK;
-                int blue = (rgb >> BLUE_SHIFT) & BYTE_MASK;
+        // stripe는 첫 비트가 자기 행 범위에 있는 64비트 워드만 맡는다. 워드가 다음 행으로 넘어가도
+        // 픽셀은 읽기만 하므로 안전하고, 쓰는 워드 구간은 stripe끼리 겹치지 않는다
+        long rowBits = (long) image.getWidth() * bitsPerPixel;
+        int payloadRows = (int) ((requiredBits + rowBits - 1) / rowBits);
+        BitVector dataBits = new BitVector(dataLength * BITS_PER_BYTE);
+        scheduler.run(payloadRows, (fromRow, toRow) -> {
+            int fromBit = firstWordBitAtOrAfter(fromRow * rowBits, dataBits.length());
+            int toBit = firstWordBitAtOrAfter(toRow * rowBits, dataBits.length());
+            if (fromBit < toBit) {
+                readBits(new PixelBitCursor(pixels, HEADER_BITS + (long) fromBit), dataBits, fromBit, toBit);
+            }
+        });
 
-                if (channelOffset == 0) {
-                    bitIndex = extractBitsFromChannel(red, bytes, bitIndex, startBitIndex,
-                        totalBits, bitOffset);
-                    bitOffset = 0;
-                    channelOffset++;
-                }
+        return WatermarkData.fromBytes(dataBits.toBytes());
+    }
 
-                if (channelOffset == 1 && bitIndex < totalBits) {
-                    bitIndex = extractBitsFromChannel(green, bytes, bitIndex, startBitIndex,
-                        totalBits, bitOffset);
-                    bitOffset = 0;
-                    channelOffset++;
-                }
+    // 첫 비트가 bitOffset 이상인 첫 데이터 워드의 시작 비트 (최대 dataBits)
+    private static int firstWordBitAtOrAfter(long bitOffset, int dataBits) {
+        long fromData = Math.max(0, bitOffset - HEADER_BITS);
+        long wordStart = (fromData + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+        return (int) Math.min(dataBits, wordStart);
+    }
 
-                if (channelOffset == 2 && bitIndex < totalBits) {
-                    bitIndex = extractBitsFromChannel(blue, bytes, bitIndex, startBitIndex,
-                        totalBits, bitOffset);
-                    bitOffset = 0;
-                    channelOffset = 0;
-                }
-            }
-            x = 0;
+    private static void readBits(PixelBitCursor cursor, BitVector dataBits, int fromBit, int toBit) {
+        BitStreamWriter writer = new BitStreamWriter(dataBits, fromBit);
+        while (toBit - writer.position() >= Long.SIZE) {
+            writer.put(Long.SIZE, cursor.next(Integer.SIZE) << Integer.SIZE | cursor.next(Integer.SIZE));
+        }
+        while (writer.position() < toBit) {
+            int count = Math.min(Integer.SIZE, toBit - writer.position());
+            writer.put(count, cursor.next(count));
         }
-
-        return bytes;
     }
 
-    private int extractBitsFromChannel(int channel, byte[] bytes, int bitIndex,
-                                       int startBitIndex, int totalBits, int bitOffset) {
-        int extractedBits = BitManipulator.extractBits(channel, bitDepth);
-
-        for (int i = bitDepth - 1 - bitOffset; i >= 0 && bitIndex < totalBits; i--) {
-            int bit = (extractedBits >> i) & 1;
-            BitManipulator.setBit(bytes, bitIndex - startBitIndex, bit);
-            bitIndex++;
+    // 래스터를 행 단위로 읽으며 픽셀마다 R, G, B 하위 bitDepth 비트를 64비트 누산기에 이어 붙인다.
+    // 픽셀 인덱스만으로 비트 위치가 정해지므로 startBit가 속한 픽셀에서 바로 시작할 수 있다
+    private final class PixelBitCursor {
+
+        private final PixelAccessor pixels;
+        private final int[] row;
+        private final int channelMask = (1 << bitDepth) - 1;
+        private int y;
+        private int x;
+        private long accumulator;
+        private int available;
+
+        PixelBitCursor(PixelAccessor pixels, long startBit) {
+            this.pixels = pixels;
+            this.row = new int[pixels.getWidth()];
+            long startPixel = startBit / bitsPerPixel;
+            this.y = (int) (startPixel / row.length);
+            this.x = (int) (startPixel % row.length);
+            pixels.read(0, y, row.length, 1, row, 0);
+
+            int skippedBits = (int) (startBit % bitsPerPixel);
+            if (skippedBits > 0) {
+                next(skippedBits);
+            }
         }
 
-        return bitIndex;
+        // 다음 count(<= 32)비트를 상위 비트부터 읽는다
+        long next(int count) {
+            while (available < count) {
+                if (x == row.length) {
+                    pixels.read(0, ++y, row.length, 1, row, 0);
+                    x = 0;
+                }
+                int pixel = row[x++];
+                int bits = ((pixel >> RED_SHIFT) & channelMask) << (2 * bitDepth)
+                    | ((pixel >> GREEN_SHIFT) & channelMask) << bitDepth
+                    | (pixel & channelMask);
+                accumulator = (accumulator << bitsPerPixel) | bits;
+                available += bitsPerPixel;
+            }
+            available -= count;
+            return (accumulator >>> available) & ((1L << count) - 1);
+        }
     }
 }
@@ -1,7 +1,6 @@
 package com.seungjjun.watermark.core.lsb.model;
 
-import com.seungjjun.watermark.core.lsb.util.BitManipulator;
-
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 public class WatermarkData {
@@ -21,13 +20,10 @@ public class WatermarkData {
 
     // 길이 정보와 데이터를 하나의 바이트 배열로 결합
     public byte[] toBytes() {
-        byte[] lengthBytes = BitManipulator.intToBytes(length);
-        byte[] combined = new byte[4 + length];
-
-        System.arraycopy(lengthBytes, 0, combined, 0, 4);
-        System.arraycopy(data, 0, combined, 4, length);
-
-        return combined;
+        return ByteBuffer.allocate(Integer.BYTES + length)
+            .putInt(length)
+            .put(data)
+            .array();
     }
 
     public static WatermarkData fromBytes(byte[] bytes) {
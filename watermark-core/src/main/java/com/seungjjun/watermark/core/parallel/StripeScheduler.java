@@ -0,0 +1,85 @@
+package com.seungjjun.watermark.core.parallel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public class StripeScheduler {
+
+    // 워커 간 부하 편차를 줄이기 위해 워커 수보다 잘게 나눈다
+    private static final int STRIPES_PER_WORKER = 4;
+    private static final int MIN_ROWS_PER_STRIPE = 4;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    public StripeScheduler(Executor executor, int parallelism) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public static StripeScheduler commonPool() {
+        return new StripeScheduler(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public static StripeScheduler sequential() {
+        return new StripeScheduler(Runnable::run, 1);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // [0, rows) 구간을 연속된 stripe로 나누어 실행하고 모두 끝날 때까지 대기
+    public void run(int rows, StripeTask task) {
+        int stripeCount = stripeCount(rows);
+        if (stripeCount <= 1) {
+            if (rows > 0) {
+                task.process(0, rows);
+            }
+            return;
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            int fromRow = (int) ((long) rows * i / stripeCount);
+            int toRow = (int) ((long) rows * (i + 1) / stripeCount);
+            futures[i] = CompletableFuture.runAsync(() -> task.process(fromRow, toRow), executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private int stripeCount(int rows) {
+        if (parallelism == 1) {
+            return 1;
+        }
+        int byWorkers = parallelism * STRIPES_PER_WORKER;
+        int byRows = rows / MIN_ROWS_PER_STRIPE;
+        return Math.max(1, Math.min(byWorkers, byRows));
+    }
+
+    @FunctionalInterface
+    public interface StripeTask {
+
+        void process(int fromRow, int toRow);
+    }
+}
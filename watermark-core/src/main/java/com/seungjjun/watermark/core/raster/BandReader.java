@@ -0,0 +1,141 @@
+package com.seungjjun.watermark.core.raster;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadUpdateListener;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+// 이미지 전체를 디코딩하지 않고 행 구간(band)만 읽는다.
+// JDK reader는 source region마다 이미지 앞에서부터 다시 디코딩하므로 band 수가 많을수록 디코딩 시간이 늘어난다.
+// 또 PNG reader는 region 아래 행도 끝까지 inflate하므로, region의 마지막 행이 채워지면 읽기를 중단시킨다
+public final class BandReader implements AutoCloseable {
+
+    private static final String PNG_FORMAT = "png";
+
+    private final ImageInputStream input;
+    private final ImageReader reader;
+    private final int width;
+    private final int height;
+    private final Consumer<BandReader> onClose;
+    private final RegionEndListener regionEndListener = new RegionEndListener();
+    private long decodeNanos;
+
+    // 입력이 설정된 reader로 만든다. close 시 입력 스트림을 닫은 뒤 onClose로 reader 정리를 넘긴다
+    public BandReader(ImageInputStream input, ImageReader reader, Consumer<BandReader> onClose) throws IOException {
+        this.input = input;
+        this.reader = reader;
+        this.onClose = onClose;
+        this.width = reader.getWidth(0);
+        this.height = reader.getHeight(0);
+        if (PNG_FORMAT.equalsIgnoreCase(reader.getFormatName())) {
+            reader.addIIOReadUpdateListener(regionEndListener);
+        }
+    }
+
+    // ImageIO.read와 같이 읽을 수 있는 reader가 없으면 null
+    public static BandReader open(byte[] data) throws IOException {
+        ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data));
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            input.close();
+            return null;
+        }
+
+        ImageReader reader = readers.next();
+        reader.setInput(input, false, true);
+        try {
+            return new BandReader(input, reader, band -> reader.dispose());
+        } catch (IOException | RuntimeException e) {
+            reader.dispose();
+            input.close();
+            throw e;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // 지금까지 read에 걸린 누적 디코딩 시간
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    // [y, y + bandHeight) 행을 읽는다
+    public BufferedImage read(int y, int bandHeight) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(0, y, width, bandHeight));
+        regionEndListener.start(bandHeight);
+        long start = System.nanoTime();
+        try {
+            return reader.read(0, param);
+        } finally {
+            decodeNanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.removeIIOReadUpdateListener(regionEndListener);
+        try {
+            input.close();
+        } finally {
+            onClose.accept(this);
+        }
+    }
+
+    private final class RegionEndListener implements IIOReadUpdateListener {
+
+        private int rows;
+        private boolean fullResolutionPass;
+
+        void start(int rows) {
+            this.rows = rows;
+            this.fullResolutionPass = false;
+        }
+
+        // 인터레이스(Adam7) 패스는 행/열 간격이 1보다 크므로 간격이 1x1인 비인터레이스 패스에서만 중단한다
+        @Override
+        public void passStarted(ImageReader source, BufferedImage theImage, int pass, int minPass, int maxPass,
+                                int minX, int minY, int periodX, int periodY, int[] bands) {
+            fullResolutionPass = periodX == 1 && periodY == 1;
+        }
+
+        @Override
+        public void imageUpdate(ImageReader source, BufferedImage theImage, int minX, int minY, int width,
+                                int height, int periodX, int periodY, int[] bands) {
+            if (fullResolutionPass && minY + height >= rows) {
+                source.abort();
+            }
+        }
+
+        @Override
+        public void passComplete(ImageReader source, BufferedImage theImage) {
+        }
+
+        @Override
+        public void thumbnailPassStarted(ImageReader source, BufferedImage theThumbnail, int pass, int minPass,
+                                         int maxPass, int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void thumbnailUpdate(ImageReader source, BufferedImage theThumbnail, int minX, int minY, int width,
+                                    int height, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void thumbnailPassComplete(ImageReader source, BufferedImage theThumbnail) {
+        }
+    }
+}
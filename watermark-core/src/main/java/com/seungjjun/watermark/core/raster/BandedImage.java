@@ -0,0 +1,197 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Vector;
+
+// 전체 폭 x bandHeight 타일(band)을 요청받을 때 만들고 마지막 band 하나만 보관하는 TYPE_INT_RGB 이미지.
+// 행 단위로 getData(Rectangle)를 호출하는 writer(PNG 등)에 넘기면 메모리가 이미지가 아닌 band 크기에 비례한다.
+// 스레드 간 공유 금지
+public final class BandedImage implements RenderedImage {
+
+    private final int width;
+    private final int height;
+    private final int bandHeight;
+    private final BandRenderer renderer;
+    private final ColorModel colorModel;
+    private final SampleModel sampleModel;
+
+    private int cachedBand = -1;
+    private Raster cachedTile;
+
+    public BandedImage(int width, int height, int bandHeight, BandRenderer renderer) {
+        if (bandHeight < 1) {
+            throw new IllegalArgumentException("Band height must be positive");
+        }
+        this.width = width;
+        this.height = height;
+        this.bandHeight = bandHeight;
+        this.renderer = renderer;
+
+        BufferedImage prototype = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        this.colorModel = prototype.getColorModel();
+        this.sampleModel = prototype.getSampleModel().createCompatibleSampleModel(width, bandHeight);
+    }
+
+    @Override
+    public Raster getTile(int tileX, int tileY) {
+        if (tileX != 0 || tileY < 0 || tileY >= getNumYTiles()) {
+            throw new IllegalArgumentException("Tile (" + tileX + ", " + tileY + ") is out of bounds");
+        }
+        if (tileY == cachedBand) {
+            return cachedTile;
+        }
+
+        // 이전 band를 먼저 놓아야 최대 메모리가 band 하나 분량(원본 band + 결과 band)을 넘지 않는다
+        cachedBand = -1;
+        cachedTile = null;
+
+        int y = tileY * bandHeight;
+        int rows = Math.min(bandHeight, height - y);
+        BufferedImage band;
+        try {
+            band = renderer.render(y, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (band.getType() != BufferedImage.TYPE_INT_RGB || band.getWidth() != width || band.getHeight() != rows) {
+            throw new IllegalStateException("Rendered band must be a " + width + "x" + rows + " TYPE_INT_RGB image");
+        }
+
+        cachedBand = tileY;
+        cachedTile = band.getRaster().createChild(0, 0, width, rows, 0, y, null);
+        return cachedTile;
+    }
+
+    @Override
+    public Raster getData(Rectangle rect) {
+        int firstBand = rect.y / bandHeight;
+        int lastBand = (rect.y + rect.height - 1) / bandHeight;
+        if (firstBand == lastBand) {
+            return getTile(0, firstBand).createChild(rect.x, rect.y, rect.width, rect.height, rect.x, rect.y, null);
+        }
+
+        WritableRaster raster = Raster.createWritableRaster(
+            sampleModel.createCompatibleSampleModel(rect.width, rect.height), new Point(rect.x, rect.y));
+        return copyData(raster);
+    }
+
+    @Override
+    public Raster getData() {
+        return getData(new Rectangle(0, 0, width, height));
+    }
+
+    @Override
+    public WritableRaster copyData(WritableRaster raster) {
+        if (raster == null) {
+            raster = Raster.createWritableRaster(sampleModel.createCompatibleSampleModel(width, height), null);
+        }
+        int firstBand = Math.max(0, raster.getMinY() / bandHeight);
+        int lastBand = Math.min(getNumYTiles() - 1, (raster.getMinY() + raster.getHeight() - 1) / bandHeight);
+        for (int band = firstBand; band <= lastBand; band++) {
+            raster.setRect(getTile(0, band));
+        }
+        return raster;
+    }
+
+    @Override
+    public Vector<RenderedImage> getSources() {
+        return null;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return Image.UndefinedProperty;
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return null;
+    }
+
+    @Override
+    public ColorModel getColorModel() {
+        return colorModel;
+    }
+
+    @Override
+    public SampleModel getSampleModel() {
+        return sampleModel;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getMinX() {
+        return 0;
+    }
+
+    @Override
+    public int getMinY() {
+        return 0;
+    }
+
+    @Override
+    public int getNumXTiles() {
+        return 1;
+    }
+
+    @Override
+    public int getNumYTiles() {
+        return (height + bandHeight - 1) / bandHeight;
+    }
+
+    @Override
+    public int getMinTileX() {
+        return 0;
+    }
+
+    @Override
+    public int getMinTileY() {
+        return 0;
+    }
+
+    @Override
+    public int getTileWidth() {
+        return width;
+    }
+
+    @Override
+    public int getTileHeight() {
+        return bandHeight;
+    }
+
+    @Override
+    public int getTileGridXOffset() {
+        return 0;
+    }
+
+    @Override
+    public int getTileGridYOffset() {
+        return 0;
+    }
+
+    @FunctionalInterface
+    public interface BandRenderer {
+
+        // [y, y + rows) 행의 width x rows TYPE_INT_RGB 이미지를 만든다
+        BufferedImage render(int y, int rows) throws IOException;
+    }
+}
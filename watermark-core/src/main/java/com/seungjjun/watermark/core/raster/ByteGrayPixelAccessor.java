@@ -0,0 +1,82 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+
+// TYPE_BYTE_GRAY: 회색조 -> sRGB 변환은 선형 감마 보정이 들어가므로 ColorModel 결과를 LUT로 캐싱한다
+final class ByteGrayPixelAccessor implements PixelAccessor {
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int LEVELS = 256;
+
+    private final int width;
+    private final int height;
+    private final byte[] data;
+    private final int baseOffset;
+    private final int scanlineStride;
+    private final int pixelStride;
+    private final ColorModel colorModel;
+    private final int[] grayToArgb;
+
+    ByteGrayPixelAccessor(BufferedImage image, DataBufferByte dataBuffer, ComponentSampleModel sampleModel) {
+        WritableRaster raster = image.getRaster();
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.data = dataBuffer.getData();
+        this.scanlineStride = sampleModel.getScanlineStride();
+        this.pixelStride = sampleModel.getPixelStride();
+        this.baseOffset = dataBuffer.getOffset() + sampleModel.getBandOffsets()[0]
+            - raster.getSampleModelTranslateY() * scanlineStride
+            - raster.getSampleModelTranslateX() * pixelStride;
+        this.colorModel = image.getColorModel();
+        this.grayToArgb = buildLookupTable(colorModel);
+    }
+
+    private static int[] buildLookupTable(ColorModel colorModel) {
+        int[] table = new int[LEVELS];
+        byte[] gray = new byte[1];
+        for (int level = 0; level < LEVELS; level++) {
+            gray[0] = (byte) level;
+            table[level] = colorModel.getRGB(gray);
+        }
+        return table;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void read(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int src = baseOffset + (y + row) * scanlineStride + x * pixelStride;
+            int dst = offset + row * width;
+            for (int col = 0; col < width; col++, src += pixelStride) {
+                argb[dst + col] = grayToArgb[data[src] & BYTE_MASK];
+            }
+        }
+    }
+
+    @Override
+    public void write(int x, int y, int width, int height, int[] argb, int offset) {
+        // 역변환은 24비트 입력이라 LUT가 불가능하므로 ColorModel에 위임하되 버퍼는 호출 단위로 재사용
+        byte[] gray = new byte[1];
+        for (int row = 0; row < height; row++) {
+            int dst = baseOffset + (y + row) * scanlineStride + x * pixelStride;
+            int src = offset + row * width;
+            for (int col = 0; col < width; col++, dst += pixelStride) {
+                colorModel.getDataElements(argb[src + col], gray);
+                data[dst] = gray[0];
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.awt.image.BufferedImage;
+
+// 전용 경로가 없는 타입(인덱스 컬러, premultiplied 등)은 BufferedImage의 일괄 getRGB/setRGB로 처리
+final class GenericPixelAccessor implements PixelAccessor {
+
+    private final BufferedImage image;
+
+    GenericPixelAccessor(BufferedImage image) {
+        this.image = image;
+    }
+
+    @Override
+    public int getWidth() {
+        return image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return image.getHeight();
+    }
+
+    @Override
+    public void read(int x, int y, int width, int height, int[] argb, int offset) {
+        image.getRGB(x, y, width, height, argb, offset, width);
+    }
+
+    @Override
+    public void write(int x, int y, int width, int height, int[] argb, int offset) {
+        image.setRGB(x, y, width, height, argb, offset, width);
+    }
+}
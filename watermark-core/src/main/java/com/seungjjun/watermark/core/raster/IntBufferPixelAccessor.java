@@ -0,0 +1,58 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.nio.IntBuffer;
+
+// 행 우선으로 빈틈없이 채운 불투명 RGB 버퍼 (TYPE_INT_RGB의 backing 배열과 같은 배치).
+// 힙 밖 direct buffer에 둔 픽셀도 BufferedImage 없이 읽고 쓸 수 있다
+final class IntBufferPixelAccessor implements PixelAccessor {
+
+    private static final int OPAQUE_ALPHA = 0xFF000000;
+    private static final int RGB_MASK = 0x00FFFFFF;
+
+    private final int width;
+    private final int height;
+    private final IntBuffer pixels;
+
+    IntBufferPixelAccessor(IntBuffer pixels, int width, int height) {
+        if (pixels.capacity() < (long) width * height) {
+            throw new IllegalArgumentException(
+                "Buffer of " + pixels.capacity() + " pixels is smaller than " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    // 절대 위치 bulk get/put만 쓰므로 여러 스레드가 같은 버퍼를 공유해도 된다
+    @Override
+    public void read(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int dst = offset + row * width;
+            pixels.get((y + row) * this.width + x, argb, dst, width);
+            for (int col = 0; col < width; col++) {
+                argb[dst + col] |= OPAQUE_ALPHA;
+            }
+        }
+    }
+
+    @Override
+    public void write(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int src = offset + row * width;
+            int index = (y + row) * this.width + x;
+            for (int col = 0; col < width; col++) {
+                pixels.put(index + col, argb[src + col] & RGB_MASK);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+// TYPE_INT_RGB, TYPE_INT_ARGB
+final class IntPixelAccessor implements PixelAccessor {
+
+    private static final int OPAQUE_ALPHA = 0xFF000000;
+    private static final int RGB_MASK = 0x00FFFFFF;
+
+    private final int width;
+    private final int height;
+    private final int[] data;
+    private final int baseOffset;
+    private final int scanlineStride;
+    private final boolean hasAlpha;
+
+    IntPixelAccessor(BufferedImage image, DataBufferInt dataBuffer, SinglePixelPackedSampleModel sampleModel,
+                     boolean hasAlpha) {
+        WritableRaster raster = image.getRaster();
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.data = dataBuffer.getData();
+        this.scanlineStride = sampleModel.getScanlineStride();
+        this.baseOffset = dataBuffer.getOffset()
+            - raster.getSampleModelTranslateY() * scanlineStride
+            - raster.getSampleModelTranslateX();
+        this.hasAlpha = hasAlpha;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void read(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int src = baseOffset + (y + row) * scanlineStride + x;
+            int dst = offset + row * width;
+            if (hasAlpha) {
+                System.arraycopy(data, src, argb, dst, width);
+            } else {
+                for (int col = 0; col < width; col++) {
+                    argb[dst + col] = OPAQUE_ALPHA | data[src + col];
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int dst = baseOffset + (y + row) * scanlineStride + x;
+            int src = offset + row * width;
+            if (hasAlpha) {
+                System.arraycopy(argb, src, data, dst, width);
+            } else {
+                for (int col = 0; col < width; col++) {
+                    data[dst + col] = argb[src + col] & RGB_MASK;
+                }
+            }
+        }
+    }
+}
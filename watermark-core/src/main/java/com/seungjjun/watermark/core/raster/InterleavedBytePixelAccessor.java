@@ -0,0 +1,87 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+
+// TYPE_3BYTE_BGR, TYPE_4BYTE_ABGR
+final class InterleavedBytePixelAccessor implements PixelAccessor {
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int OPAQUE_ALPHA = 0xFF000000;
+
+    private final int width;
+    private final int height;
+    private final byte[] data;
+    private final int baseOffset;
+    private final int scanlineStride;
+    private final int pixelStride;
+    private final int redOffset;
+    private final int greenOffset;
+    private final int blueOffset;
+    private final int alphaOffset;
+    private final boolean hasAlpha;
+
+    InterleavedBytePixelAccessor(BufferedImage image, DataBufferByte dataBuffer, ComponentSampleModel sampleModel,
+                                 boolean hasAlpha) {
+        WritableRaster raster = image.getRaster();
+        int[] bandOffsets = sampleModel.getBandOffsets();
+
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.data = dataBuffer.getData();
+        this.scanlineStride = sampleModel.getScanlineStride();
+        this.pixelStride = sampleModel.getPixelStride();
+        this.baseOffset = dataBuffer.getOffset()
+            - raster.getSampleModelTranslateY() * scanlineStride
+            - raster.getSampleModelTranslateX() * pixelStride;
+        this.redOffset = bandOffsets[0];
+        this.greenOffset = bandOffsets[1];
+        this.blueOffset = bandOffsets[2];
+        this.alphaOffset = hasAlpha ? bandOffsets[3] : 0;
+        this.hasAlpha = hasAlpha;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void read(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int src = baseOffset + (y + row) * scanlineStride + x * pixelStride;
+            int dst = offset + row * width;
+            for (int col = 0; col < width; col++, src += pixelStride) {
+                int alpha = hasAlpha ? (data[src + alphaOffset] & BYTE_MASK) << 24 : OPAQUE_ALPHA;
+                argb[dst + col] = alpha
+                    | (data[src + redOffset] & BYTE_MASK) << 16
+                    | (data[src + greenOffset] & BYTE_MASK) << 8
+                    | (data[src + blueOffset] & BYTE_MASK);
+            }
+        }
+    }
+
+    @Override
+    public void write(int x, int y, int width, int height, int[] argb, int offset) {
+        for (int row = 0; row < height; row++) {
+            int dst = baseOffset + (y + row) * scanlineStride + x * pixelStride;
+            int src = offset + row * width;
+            for (int col = 0; col < width; col++, dst += pixelStride) {
+                int pixel = argb[src + col];
+                if (hasAlpha) {
+                    data[dst + alphaOffset] = (byte) (pixel >>> 24);
+                }
+                data[dst + redOffset] = (byte) (pixel >> 16);
+                data[dst + greenOffset] = (byte) (pixel >> 8);
+                data[dst + blueOffset] = (byte) pixel;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.seungjjun.watermark.core.raster;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.IntBuffer;
+
+// BufferedImage.getRGB/setRGB와 같은 sRGB ARGB 의미를 유지하면서 backing 배열에 직접 접근한다
+public interface PixelAccessor {
+
+    int getWidth();
+
+    int getHeight();
+
+    // (x, y)부터 width x height 영역을 행 우선으로 argb[offset..]에 읽는다
+    void read(int x, int y, int width, int height, int[] argb, int offset);
+
+    void write(int x, int y, int width, int height, int[] argb, int offset);
+
+    static PixelAccessor of(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        SampleModel sampleModel = raster.getSampleModel();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+
+        if (dataBuffer.getNumBanks() != 1) {
+            return new GenericPixelAccessor(image);
+        }
+
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> {
+                if (dataBuffer instanceof DataBufferInt intBuffer
+                    && sampleModel instanceof SinglePixelPackedSampleModel packed) {
+                    return new IntPixelAccessor(image, intBuffer, packed,
+                        image.getType() == BufferedImage.TYPE_INT_ARGB);
+                }
+            }
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> {
+                if (dataBuffer instanceof DataBufferByte byteBuffer
+                    && sampleModel instanceof ComponentSampleModel component) {
+                    return new InterleavedBytePixelAccessor(image, byteBuffer, component,
+                        image.getType() == BufferedImage.TYPE_4BYTE_ABGR);
+                }
+            }
+            case BufferedImage.TYPE_BYTE_GRAY -> {
+                if (dataBuffer instanceof DataBufferByte byteBuffer
+                    && sampleModel instanceof ComponentSampleModel component) {
+                    return new ByteGrayPixelAccessor(image, byteBuffer, component);
+                }
+            }
+            default -> {
+            }
+        }
+
+        return new GenericPixelAccessor(image);
+    }
+
+    // 행 우선 불투명 RGB 버퍼 (힙 밖 direct buffer도 가능)
+    static PixelAccessor of(IntBuffer rgb, int width, int height) {
+        return new IntBufferPixelAccessor(rgb, width, height);
+    }
+
+    // image가 원본의 (originX, originY)부터 시작하는 일부일 때 원본 좌표로 접근한다
+    static PixelAccessor translated(BufferedImage image, int originX, int originY) {
+        return new TranslatedPixelAccessor(of(image), originX, originY);
+    }
+}
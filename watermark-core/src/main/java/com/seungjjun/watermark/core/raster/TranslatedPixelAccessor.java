@@ -0,0 +1,35 @@
+package com.seungjjun.watermark.core.raster;
+
+// 이미지 일부(band)를 원본 전체 좌표계로 접근한다. (originX, originY)가 대상의 (0, 0)이다
+final class TranslatedPixelAccessor implements PixelAccessor {
+
+    private final PixelAccessor target;
+    private final int originX;
+    private final int originY;
+
+    TranslatedPixelAccessor(PixelAccessor target, int originX, int originY) {
+        this.target = target;
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+    @Override
+    public int getWidth() {
+        return originX + target.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return originY + target.getHeight();
+    }
+
+    @Override
+    public void read(int x, int y, int width, int height, int[] argb, int offset) {
+        target.read(x - originX, y - originY, width, height, argb, offset);
+    }
+
+    @Override
+    public void write(int x, int y, int width, int height, int[] argb, int offset) {
+        target.write(x - originX, y - originY, width, height, argb, offset);
+    }
+}
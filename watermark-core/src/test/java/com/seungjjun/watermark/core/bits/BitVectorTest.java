@@ -0,0 +1,91 @@
+package com.seungjjun.watermark.core.bits;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BitVectorTest {
+
+    @Test
+    @DisplayName("fromBytes는 바이트마다 MSB부터 비트를 채우고 toBytes로 되돌린다")
+    void fromBytes_MatchesPerBitOrderAndRoundTrips() {
+        // given: 8의 배수가 아닌 바이트 수로 마지막 워드가 일부만 찬다
+        byte[] bytes = new byte[21];
+        new Random(1).nextBytes(bytes);
+
+        // when
+        BitVector bits = BitVector.fromBytes(bytes);
+
+        // then
+        assertEquals(bytes.length * 8, bits.length());
+        for (int i = 0; i < bits.length(); i++) {
+            assertEquals(((bytes[i / 8] >> (7 - i % 8)) & 1) == 1, bits.get(i), "bit " + i);
+        }
+        assertArrayEquals(bytes, bits.toBytes());
+    }
+
+    @Test
+    @DisplayName("getBits/setBits는 워드 경계에 걸쳐도 비트 하나씩 읽고 쓴 결과와 같다")
+    void getBitsAndSetBits_MatchPerBitAccess() {
+        Random random = new Random(7);
+        BitVector bulk = new BitVector(517);
+        BitVector perBit = new BitVector(517);
+
+        for (int round = 0; round < 2000; round++) {
+            // given
+            int count = 1 + random.nextInt(64);
+            int index = random.nextInt(bulk.length() - count + 1);
+            long value = random.nextLong();
+
+            // when
+            bulk.setBits(index, count, value);
+            for (int i = 0; i < count; i++) {
+                perBit.set(index + i, ((value >>> (count - 1 - i)) & 1) == 1);
+            }
+
+            // then
+            assertArrayEquals(perBit.toArray(), bulk.toArray());
+            long expected = count == 64 ? value : value & ((1L << count) - 1);
+            assertEquals(expected, bulk.getBits(index, count));
+        }
+    }
+
+    @Test
+    @DisplayName("범위를 벗어난 getBits/setBits는 예외")
+    void getBitsAndSetBits_OutOfRange_ThrowsException() {
+        BitVector bits = new BitVector(100);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> bits.getBits(40, 61));
+        assertThrows(IndexOutOfBoundsException.class, () -> bits.setBits(-1, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> bits.getBits(0, 65));
+        assertThrows(IllegalArgumentException.class, () -> bits.setBits(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("스트림 reader/writer는 임의 위치에서 이어서 읽고 쓰며 길이를 넘는 비트는 0으로 읽는다")
+    void streamReaderAndWriter_RoundTripFromOffset() {
+        // given
+        BitVector bits = new BitVector(150);
+        BitStreamWriter writer = new BitStreamWriter(bits, 3);
+
+        // when
+        writer.put(64, 0x0123456789ABCDEFL);
+        writer.put(9, 0x1A5);
+        writer.put(64, -1L);
+        writer.put(10, 0x3FF);
+        BitStreamReader reader = new BitStreamReader(bits, 3);
+
+        // then: 마지막 24비트 중 길이 안의 10비트만 1이고 나머지는 0으로 채워진다
+        assertEquals(150, writer.position());
+        assertEquals(0x0123456789ABCDEFL, reader.next(64));
+        assertEquals(0x1A5, reader.next(9));
+        assertEquals(-1L, reader.next(64));
+        assertEquals(0x3FFL << 14, reader.next(24));
+        assertEquals(0, reader.next(8));
+    }
+}
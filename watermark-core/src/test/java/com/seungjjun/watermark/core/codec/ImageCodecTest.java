@@ -0,0 +1,136 @@
+package com.seungjjun.watermark.core.codec;
+
+import com.seungjjun.watermark.core.raster.BandReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageCodecTest {
+
+    @Test
+    @DisplayName("기본 인코딩 옵션은 ImageIO.write와 같은 바이트를 만든다")
+    void encode_DefaultOptions_MatchesImageIO() throws IOException {
+        // given
+        BufferedImage image = createSampleImage(120, 80);
+        ImageCodec codec = new ImageCodec();
+
+        for (String format : new String[]{"jpg", "png"}) {
+            // when
+            byte[] actual = codec.encode(image, format);
+
+            // then
+            assertArrayEquals(encodeWithImageIO(image, format), actual);
+        }
+    }
+
+    @Test
+    @DisplayName("풀에서 재사용한 reader로 여러 번 디코딩해도 ImageIO.read와 같은 픽셀")
+    void decode_ReusedReader_MatchesImageIO() throws IOException {
+        // given
+        ImageCodec codec = new ImageCodec(EncodeOptions.defaults(), 1);
+        byte[] png = encodeWithImageIO(createSampleImage(120, 80), "png");
+        byte[] jpeg = encodeWithImageIO(createSampleImage(96, 64), "jpg");
+
+        for (int i = 0; i < 3; i++) {
+            // when
+            BufferedImage decodedPng = codec.decode(png);
+            BufferedImage decodedJpeg = codec.decode(jpeg);
+
+            // then
+            assertArrayEquals(pixels(ImageIO.read(new ByteArrayInputStream(png))), pixels(decodedPng));
+            assertArrayEquals(pixels(ImageIO.read(new ByteArrayInputStream(jpeg))), pixels(decodedJpeg));
+        }
+        assertNull(codec.decode(new byte[]{1, 2, 3, 4}));
+    }
+
+    @Test
+    @DisplayName("JPEG 품질과 PNG 압축 레벨을 명시적으로 적용")
+    void encode_ExplicitOptions_AppliesPerFormat() throws IOException {
+        // given
+        BufferedImage image = createSampleImage(120, 80);
+        ImageCodec lowQuality = new ImageCodec(new EncodeOptions(0.3f, true, 0));
+        ImageCodec highQuality = new ImageCodec(new EncodeOptions(0.95f, false, 9));
+
+        // when
+        byte[] smallJpeg = lowQuality.encode(image, "jpeg");
+        byte[] largeJpeg = highQuality.encode(image, "jpeg");
+        byte[] storedPng = lowQuality.encode(image, "png");
+        byte[] deflatedPng = highQuality.encode(image, "png");
+
+        // then
+        assertTrue(smallJpeg.length < largeJpeg.length);
+        assertTrue(deflatedPng.length < storedPng.length);
+        assertArrayEquals(pixels(image), pixels(lowQuality.decode(storedPng)));
+        assertArrayEquals(pixels(image), pixels(highQuality.decode(deflatedPng)));
+    }
+
+    @Test
+    @DisplayName("band 읽기와 인코딩 시간을 정규화한 포맷 이름별로 집계")
+    void stats_RecordsPerNormalizedFormat() throws IOException {
+        // given
+        ImageCodec codec = new ImageCodec();
+        BufferedImage image = createSampleImage(64, 48);
+        byte[] jpeg = codec.encode(image, "JPG");
+
+        // when
+        try (BandReader bands = codec.openBands(jpeg)) {
+            bands.read(0, 16);
+            bands.read(16, 16);
+        }
+        codec.decode(codec.encode(image, "png"));
+
+        // then
+        Map<String, CodecTimings> snapshot = codec.getStats().snapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals(1, snapshot.get("jpeg").getDecodeCount());
+        assertEquals(1, snapshot.get("jpeg").getEncodeCount());
+        assertEquals(1, snapshot.get("png").getDecodeCount());
+        assertEquals(1, snapshot.get("png").getEncodeCount());
+        assertTrue(snapshot.get("jpeg").getDecodeNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("범위를 벗어난 인코딩 옵션은 IllegalArgumentException")
+    void encodeOptions_OutOfRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new EncodeOptions(1.5f, false, 4));
+        assertThrows(IllegalArgumentException.class, () -> new EncodeOptions(Float.NaN, false, 4));
+        assertThrows(IllegalArgumentException.class, () -> new EncodeOptions(0.75f, false, 10));
+    }
+
+    private BufferedImage createSampleImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (int) (128 + 60 * Math.sin(x / 7.0) * Math.cos(y / 11.0));
+                int g = (x * 255 / width + random.nextInt(20)) % 256;
+                int b = y * 255 / height;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private byte[] encodeWithImageIO(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, format, baos);
+        return baos.toByteArray();
+    }
+
+    private int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
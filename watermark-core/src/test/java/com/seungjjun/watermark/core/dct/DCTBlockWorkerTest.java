@@ -0,0 +1,96 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+import com.seungjjun.watermark.core.dct.color.ColorConversionKernels;
+import com.seungjjun.watermark.core.dct.color.YCbCrConverter;
+import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.raster.PixelAccessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DCTBlockWorkerTest {
+
+    private static final int BLOCK_SIZE = 8;
+    private static final int WIDTH = 512;
+    private static final int HEIGHT = 512;
+    private static final int WARMUP_ROUNDS = 20;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private DCTBlockWorker worker;
+    private PixelAccessor source;
+    private PixelAccessor dest;
+    private BitVector bits;
+
+    @BeforeEach
+    void setUp() {
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        worker = new DCTBlockWorker(BLOCK_SIZE, BitLayout.singleBit(), new AdditiveDCTStrategy(),
+            ColorConversionKernels.create(new YCbCrConverter()));
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.setRGB(x, y, (x * 31 + y * 17) & 0xFFFFFF);
+            }
+        }
+        source = PixelAccessor.of(image);
+        dest = PixelAccessor.of(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB));
+        bits = new BitVector(blockCount());
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, (i % 3) == 0);
+        }
+    }
+
+    @Test
+    @DisplayName("워밍업 이후 블록 삽입 경로는 블록당 힙 할당이 없음")
+    void embedRows_SteadyState_AllocatesNothingPerBlock() {
+        // given
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            embedAll();
+        }
+
+        // when
+        long allocated = measureAllocatedBytes(this::embedAll);
+
+        // then
+        assertTrue(allocated < blockCount(), "allocated " + allocated + " bytes for " + blockCount() + " blocks");
+    }
+
+    @Test
+    @DisplayName("워밍업 이후 블록 추출 경로는 블록당 힙 할당이 없음")
+    void extractRows_SteadyState_AllocatesNothingPerBlock() {
+        // given
+        BitVector extracted = new BitVector(blockCount());
+        Runnable extractAll = () -> worker.extractRows(source, 0, HEIGHT / BLOCK_SIZE, WIDTH / BLOCK_SIZE, extracted);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            extractAll.run();
+        }
+
+        // when
+        long allocated = measureAllocatedBytes(extractAll);
+
+        // then
+        assertTrue(allocated < blockCount(), "allocated " + allocated + " bytes for " + blockCount() + " blocks");
+    }
+
+    private void embedAll() {
+        worker.embedRows(source, dest, 0, HEIGHT / BLOCK_SIZE, WIDTH / BLOCK_SIZE, bits, 20.0);
+    }
+
+    private long measureAllocatedBytes(Runnable action) {
+        long threadId = Thread.currentThread().threadId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        action.run();
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private int blockCount() {
+        return (WIDTH / BLOCK_SIZE) * (HEIGHT / BLOCK_SIZE);
+    }
+}
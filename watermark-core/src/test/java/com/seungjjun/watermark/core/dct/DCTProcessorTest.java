@@ -0,0 +1,81 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DCTProcessorTest {
+
+    private static final int BLOCK_SIZE = 8;
+    private static final int TARGET_POSITION = 4;
+
+    @Test
+    @DisplayName("계수 인덱스를 선언한 전략의 부분 추출 결과는 전체 DCT 추출 결과와 동일")
+    void extractWatermarkBit_SparsePathMatchesFullTransform() {
+        // given
+        DCTProcessor sparse = new DCTProcessor(BLOCK_SIZE, new AdditiveDCTStrategy());
+        DCTProcessor full = new DCTProcessor(BLOCK_SIZE, fullTransformOnly(new AdditiveDCTStrategy()));
+        Random random = new Random(3);
+
+        for (int round = 0; round < 1000; round++) {
+            double[] block = randomLumaBlock(random);
+
+            // when
+            boolean expected = full.extractWatermarkBit(block.clone(), TARGET_POSITION);
+            boolean actual = sparse.extractWatermarkBit(block.clone(), TARGET_POSITION);
+
+            // then
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("선형 전략의 공간 패턴 삽입 결과는 순방향/역방향 DCT 경로와 허용 오차 내에서 일치")
+    void embedWatermarkBit_SpatialPatternMatchesTransformPath() {
+        // given
+        DCTProcessor spatial = new DCTProcessor(BLOCK_SIZE, new AdditiveDCTStrategy());
+        DCTProcessor transform = new DCTProcessor(BLOCK_SIZE, fullTransformOnly(new AdditiveDCTStrategy()));
+        Random random = new Random(5);
+
+        for (int round = 0; round < 1000; round++) {
+            double[] expected = randomLumaBlock(random);
+            double[] actual = expected.clone();
+            boolean bit = random.nextBoolean();
+
+            // when
+            transform.embedWatermarkBit(expected, bit, 20.0, TARGET_POSITION);
+            spatial.embedWatermarkBit(actual, bit, 20.0, TARGET_POSITION);
+
+            // then
+            assertArrayEquals(expected, actual, 1e-9);
+        }
+    }
+
+    private WatermarkStrategy fullTransformOnly(WatermarkStrategy delegate) {
+        return new WatermarkStrategy() {
+            @Override
+            public void embedBit(double[] dctCoefficients, boolean bit, double strength, int targetPosition, int blockSize) {
+                delegate.embedBit(dctCoefficients, bit, strength, targetPosition, blockSize);
+            }
+
+            @Override
+            public boolean extractBit(double[] dctCoefficients, int targetPosition, int blockSize) {
+                return delegate.extractBit(dctCoefficients, targetPosition, blockSize);
+            }
+        };
+    }
+
+    private double[] randomLumaBlock(Random random) {
+        double[] block = new double[BLOCK_SIZE * BLOCK_SIZE];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = random.nextInt(256) - 128.0;
+        }
+        return block;
+    }
+}
@@ -0,0 +1,321 @@
+package com.seungjjun.watermark.core.dct;
+
+import com.seungjjun.watermark.core.dct.color.ColorMode;
+import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.dct.strategy.WatermarkStrategy;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import com.seungjjun.watermark.core.raster.BandReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DCTWatermarkTest {
+
+    private static final String WATERMARK_TEXT = "user@example.com 10.0.0.1";
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("병렬 삽입 결과는 순차 삽입 결과와 픽셀 단위로 동일")
+    void embedWatermark_ParallelMatchesSequential() throws IOException {
+        // given
+        BufferedImage image = createSampleImage(517, 389);
+        DCTWatermark sequential = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential());
+        DCTWatermark parallel = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4));
+
+        // when
+        BufferedImage expected = decode(sequential.embedWatermark(image, WATERMARK_TEXT, "png"));
+        BufferedImage actual = decode(parallel.embedWatermark(image, WATERMARK_TEXT, "png"));
+
+        // then
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertArrayEquals(pixels(expected), pixels(actual));
+    }
+
+    @Test
+    @DisplayName("병렬 추출 결과는 순차 추출 결과와 동일")
+    void extractWatermark_ParallelMatchesSequential() throws IOException {
+        // given
+        DCTWatermark sequential = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential());
+        DCTWatermark parallel = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4));
+        BufferedImage watermarked = decode(sequential.embedWatermark(createSampleImage(517, 389), WATERMARK_TEXT, "png"));
+
+        // when
+        String expected = sequential.extractWatermark(watermarked, WATERMARK_TEXT.length());
+        String actual = parallel.extractWatermark(watermarked, WATERMARK_TEXT.length());
+
+        // then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("삽입 강도가 0이면 색차 변환 오차 없이 원본 픽셀을 그대로 유지")
+    void embedWatermark_ZeroStrength_PreservesPixels() throws IOException {
+        // given
+        BufferedImage image = createSampleImage(64, 48);
+        DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential());
+
+        // when
+        BufferedImage result = decode(watermark.embedWatermark(image, WATERMARK_TEXT, "png", 0.0));
+
+        // then
+        assertArrayEquals(pixels(image), pixels(result));
+    }
+
+    @Test
+    @DisplayName("고정소수점 색 변환 모드로도 삽입한 워터마크를 그대로 추출")
+    void extractWatermark_FixedPointColorMode_RoundTrips() throws IOException {
+        // given
+        DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential(),
+            ColorMode.FIXED_POINT);
+        BufferedImage watermarked = decode(watermark.embedWatermark(createSmoothImage(517, 389), WATERMARK_TEXT, "png"));
+
+        // when
+        String extracted = watermark.extractWatermark(watermarked, WATERMARK_TEXT.length());
+
+        // then
+        assertEquals(WATERMARK_TEXT, extracted);
+    }
+
+    @Test
+    @DisplayName("band 단위 스트리밍 삽입 결과는 전체 이미지 삽입 결과와 픽셀 단위로 동일")
+    void embedWatermark_Streaming_MatchesInMemory() throws IOException {
+        // given: 384행을 40행 band로 나누면 마지막 band는 24행
+        BufferedImage image = createSampleImage(517, 389);
+        DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4));
+        BufferedImage expected = decode(watermark.embedWatermark(image, WATERMARK_TEXT, "png"));
+
+        // when
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BandReader source = BandReader.open(encode(image, "png"))) {
+            watermark.embedWatermark(source, output, WATERMARK_TEXT, "png", 20.0, 40);
+        }
+        BufferedImage actual = decode(output.toByteArray());
+
+        // then
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertArrayEquals(pixels(expected), pixels(actual));
+    }
+
+    @Test
+    @DisplayName("한 번 준비한 원본에 여러 페이로드를 차례로 삽입한 결과는 개별 삽입 결과와 픽셀 단위로 동일")
+    void prepare_EmbedsSameAsIndividualEmbeds() throws IOException {
+        // given: 알파 채널이 있는 원본, 블록당 4비트 모드는 페이로드 길이에 따라 바꾸는 블록 행 수가 달라진다
+        BufferedImage image = withAlpha(createSampleImage(517, 389));
+        String[] texts = {WATERMARK_TEXT.repeat(20), "hi", WATERMARK_TEXT};
+
+        for (int bitsPerBlock : new int[]{1, 4}) {
+            DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4),
+                ColorMode.AUTO, new BitLayout(bitsPerBlock));
+            PreparedImage prepared = watermark.prepare(image);
+
+            for (String text : texts) {
+                // when
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                prepared.embedWatermark(text, "png", output);
+                BufferedImage actual = decode(output.toByteArray());
+
+                // then
+                BufferedImage expected = decode(watermark.embedWatermark(image, text, "png"));
+                assertEquals(expected.getWidth(), actual.getWidth());
+                assertEquals(expected.getHeight(), actual.getHeight());
+                assertArrayEquals(pixels(expected), pixels(actual), bitsPerBlock + " bits, " + text.length());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("힙 밖에 변환해 둔 원본을 여러 band로 나눠 삽입해도 원본 이미지에 삽입한 결과와 픽셀 단위로 동일")
+    void transform_OffHeapBandedEmbedMatchesImageEmbed() throws IOException {
+        // given: band 높이 24는 블록 행 3개, 준비하지 않은 아래쪽 행의 계수는 계산하지 않는다
+        BufferedImage image = withAlpha(createSampleImage(517, 389));
+        String[] texts = {"hi", WATERMARK_TEXT.repeat(20)};
+
+        for (int bitsPerBlock : new int[]{1, 4}) {
+            DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4),
+                ColorMode.AUTO, new BitLayout(bitsPerBlock));
+            TransformedImage transformed = watermark.transform(image, true);
+
+            for (String text : texts) {
+                // when
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                watermark.embedWatermark(transformed, output, text, "png", 20.0, 24);
+                BufferedImage actual = decode(output.toByteArray());
+
+                // then
+                BufferedImage expected = decode(watermark.embedWatermark(image, text, "png"));
+                assertEquals(expected.getWidth(), actual.getWidth());
+                assertEquals(expected.getHeight(), actual.getHeight());
+                assertArrayEquals(pixels(expected), pixels(actual), bitsPerBlock + " bits, " + text.length());
+            }
+            assertEquals(watermark.transformedSize(517, 389), transformed.sizeInBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("다른 DCTWatermark가 변환한 원본으로는 삽입할 수 없음")
+    void embedWatermark_TransformedByOtherWatermark_ThrowsException() {
+        // given
+        TransformedImage transformed = new DCTWatermark().transform(createSampleImage(64, 64), false);
+        DCTWatermark watermark = new DCTWatermark();
+
+        // when & then
+        assertThrows(IllegalArgumentException.class,
+            () -> watermark.embedWatermark(transformed, new ByteArrayOutputStream(), WATERMARK_TEXT, "png"));
+        assertThrows(IllegalArgumentException.class, () -> watermark.prepare(transformed));
+    }
+
+    @Test
+    @DisplayName("페이로드가 담긴 위쪽 블록 행만 디코딩해도 전체 이미지와 같은 워터마크를 추출")
+    void extractWatermark_PayloadRegionOnly_MatchesFullImage() throws IOException {
+        // given
+        DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4));
+        byte[] watermarked = watermark.embedWatermark(createSmoothImage(517, 389), WATERMARK_TEXT, "png");
+
+        // when
+        String extracted;
+        try (BandReader source = BandReader.open(watermarked)) {
+            extracted = watermark.extractWatermark(source, WATERMARK_TEXT.length());
+        }
+
+        // then
+        assertEquals(WATERMARK_TEXT, extracted);
+        assertEquals(watermark.extractWatermark(decode(watermarked), WATERMARK_TEXT.length()), extracted);
+    }
+
+    @Test
+    @DisplayName("블록당 4비트 모드는 블록 수보다 긴 페이로드도 병렬로 삽입/추출")
+    void extractWatermark_FourBitsPerBlock_RoundTrips() throws IOException {
+        // given: 12 x 10 = 120블록, 페이로드 200비트
+        DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), new StripeScheduler(executor, 4),
+            ColorMode.AUTO, new BitLayout(4));
+        BufferedImage watermarked = decode(watermark.embedWatermark(createSmoothImage(96, 80), WATERMARK_TEXT, "png"));
+
+        // when
+        String extracted = watermark.extractWatermark(watermarked, WATERMARK_TEXT.length());
+
+        // then
+        assertEquals(WATERMARK_TEXT, extracted);
+    }
+
+    @Test
+    @DisplayName("다중 비트 모드는 페이로드를 담지 않는 블록의 픽셀을 바꾸지 않음")
+    void embedWatermark_MultiBit_LeavesTrailingBlocksUntouched() throws IOException {
+        // given: 200비트 / 블록당 4비트 = 50블록, 64 x 64 이미지의 블록 행 7번째부터는 페이로드가 없다
+        BufferedImage image = createSampleImage(64, 64);
+        DCTWatermark watermark = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential(),
+            ColorMode.AUTO, new BitLayout(4));
+
+        // when
+        BufferedImage result = decode(watermark.embedWatermark(image, WATERMARK_TEXT, "png"));
+
+        // then
+        int[] expected = image.getRGB(0, 56, 64, 8, null, 0, 64);
+        assertArrayEquals(expected, result.getRGB(0, 56, 64, 8, null, 0, 64));
+    }
+
+    @Test
+    @DisplayName("평면 SPI를 구현하지 않은 비선형 블록 전략도 어댑터를 거쳐 병렬로 삽입/추출")
+    void extractWatermark_BlockOnlyNonLinearStrategy_RoundTrips() throws IOException {
+        // given
+        DCTWatermark watermark = new DCTWatermark(new BlockOnlyStrategy(), new StripeScheduler(executor, 4));
+        BufferedImage watermarked = decode(watermark.embedWatermark(createSmoothImage(517, 389), WATERMARK_TEXT, "png"));
+
+        // when
+        String extracted = watermark.extractWatermark(watermarked, WATERMARK_TEXT.length());
+
+        // then
+        assertEquals(WATERMARK_TEXT, extracted);
+    }
+
+    private BufferedImage createSampleImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int base = (int) (128 + 60 * Math.sin(x / 7.0) * Math.cos(y / 11.0));
+                int r = Math.max(0, Math.min(255, base + random.nextInt(30) - 15));
+                int g = (x * 255 / width + random.nextInt(20)) % 256;
+                int b = y * 255 / height;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    // 고주파 잡음이 없어 (4,4) 계수 부호가 워터마크만으로 결정되는 이미지
+    private BufferedImage createSmoothImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (int) (128 + 60 * Math.sin(x / 7.0) * Math.cos(y / 11.0));
+                int g = x * 255 / width;
+                int b = y * 255 / height;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private BufferedImage withAlpha(BufferedImage image) {
+        BufferedImage argb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        argb.createGraphics().drawImage(image, 0, 0, null);
+        return argb;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, format, baos);
+        return baos.toByteArray();
+    }
+
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    private int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    // 계수 인덱스도 선형성도 선언하지 않아 전체 DCT 평면으로 처리되는 전략
+    private static class BlockOnlyStrategy implements WatermarkStrategy {
+
+        private final AdditiveDCTStrategy delegate = new AdditiveDCTStrategy();
+
+        @Override
+        public void embedBit(double[] dctCoefficients, boolean bit, double strength, int targetPosition, int blockSize) {
+            delegate.embedBit(dctCoefficients, bit, strength, targetPosition, blockSize);
+        }
+
+        @Override
+        public boolean extractBit(double[] dctCoefficients, int targetPosition, int blockSize) {
+            return delegate.extractBit(dctCoefficients, targetPosition, blockSize);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.seungjjun.watermark.core.dct.color;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ColorConversionKernelTest {
+
+    // 벡터 루프와 스칼라 나머지 처리를 모두 거치도록 레인 수의 배수가 아닌 길이를 사용
+    private static final int LENGTH = 1021;
+
+    private final YCbCrConverter converter = new YCbCrConverter();
+    private final ScalarColorKernel scalarKernel = new ScalarColorKernel(converter);
+
+    @Test
+    @DisplayName("벡터 커널의 휘도 계산 결과는 스칼라 커널과 비트 단위로 동일")
+    void toLuma_VectorMatchesScalar() {
+        assumeTrue(ColorConversionKernels.isVectorApiAvailable());
+
+        // given
+        int[] argb = randomArgb(new Random(1));
+        double[] expected = new double[LENGTH];
+        double[] actual = new double[LENGTH];
+
+        // when
+        scalarKernel.toLuma(argb, expected, LENGTH);
+        new VectorColorKernel(converter).toLuma(argb, actual, LENGTH);
+
+        // then
+        assertArrayEquals(expected, actual, 0.0);
+    }
+
+    @Test
+    @DisplayName("벡터 커널의 휘도 변화량 적용 결과는 클램프 구간을 포함해 스칼라 커널과 동일")
+    void applyLumaDelta_VectorMatchesScalar() {
+        assumeTrue(ColorConversionKernels.isVectorApiAvailable());
+
+        // given
+        Random random = new Random(2);
+        int[] expected = randomArgb(random);
+        int[] actual = expected.clone();
+        double[] delta = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            delta[i] = (random.nextDouble() - 0.5) * 600.0;
+        }
+
+        // when
+        scalarKernel.applyLumaDelta(expected, delta, LENGTH);
+        new VectorColorKernel(converter).applyLumaDelta(actual, delta, LENGTH);
+
+        // then
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("고정소수점 커널의 휘도는 스칼라 커널과 0.5 이내로 일치")
+    void toLuma_FixedPointWithinHalfOfScalar() {
+        // given
+        int[] argb = randomArgb(new Random(3));
+        double[] expected = new double[LENGTH];
+        double[] actual = new double[LENGTH];
+
+        // when
+        scalarKernel.toLuma(argb, expected, LENGTH);
+        new FixedPointColorKernel(converter).toLuma(argb, actual, LENGTH);
+
+        // then
+        assertArrayEquals(expected, actual, 0.5);
+    }
+
+    @Test
+    @DisplayName("고정소수점 커널의 휘도 변화량 적용 결과는 클램프 구간을 포함해 스칼라 커널과 동일")
+    void applyLumaDelta_FixedPointMatchesScalar() {
+        // given
+        Random random = new Random(4);
+        int[] expected = randomArgb(random);
+        int[] actual = expected.clone();
+        double[] delta = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            delta[i] = (random.nextDouble() - 0.5) * 600.0;
+        }
+
+        // when
+        scalarKernel.applyLumaDelta(expected, delta, LENGTH);
+        new FixedPointColorKernel(converter).applyLumaDelta(actual, delta, LENGTH);
+
+        // then
+        assertArrayEquals(expected, actual);
+    }
+
+    private int[] randomArgb(Random random) {
+        int[] argb = new int[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            argb[i] = random.nextInt();
+        }
+        return argb;
+    }
+}
@@ -0,0 +1,109 @@
+package com.seungjjun.watermark.core.dct.strategy;
+
+import com.seungjjun.watermark.core.bits.BitVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BlockStrategyAdapterTest {
+
+    private static final int BLOCK_SIZE = 8;
+    private static final int BLOCK_LENGTH = BLOCK_SIZE * BLOCK_SIZE;
+    private static final int TARGET_POSITION = 4;
+    private static final int BLOCK_COUNT = 37;
+
+    @Test
+    @DisplayName("블록 단위 전략을 감싼 어댑터는 평면 전략과 같은 계수를 만든다")
+    void embedBits_AdapterMatchesPlaneStrategy() {
+        // given
+        AdditiveDCTStrategy planeStrategy = new AdditiveDCTStrategy();
+        BlockStrategyAdapter adapter = new BlockStrategyAdapter(blockOnly(planeStrategy));
+        int[] indices = adapter.planeIndices(TARGET_POSITION, BLOCK_SIZE);
+        CoefficientPlane expected = randomPlane(indices);
+        CoefficientPlane actual = new CoefficientPlane(indices, BLOCK_LENGTH, BLOCK_COUNT);
+        actual.reset(expected.getFirstBlock(), expected.getBlockCount());
+        actual.copyFrom(expected);
+        BitVector bits = alternatingBits(BLOCK_COUNT + 20);
+
+        // when
+        planeStrategy.embedBits(expected, bits, 20.0, TARGET_POSITION, BLOCK_SIZE);
+        adapter.embedBits(actual, bits, 20.0, TARGET_POSITION, BLOCK_SIZE);
+
+        // then
+        assertArrayEquals(planeStrategy.planeIndices(TARGET_POSITION, BLOCK_SIZE), indices);
+        for (int slot = 0; slot < indices.length; slot++) {
+            assertArrayEquals(expected.valuesAt(slot), actual.valuesAt(slot));
+        }
+    }
+
+    @Test
+    @DisplayName("페이로드 길이를 넘는 블록은 추출 결과에 쓰지 않는다")
+    void extractBits_StopsAtPayloadLength() {
+        // given
+        BlockStrategyAdapter adapter = new BlockStrategyAdapter(blockOnly(new AdditiveDCTStrategy()));
+        CoefficientPlane plane = randomPlane(adapter.planeIndices(TARGET_POSITION, BLOCK_SIZE));
+        BitVector written = alternatingBits(BLOCK_COUNT + 20);
+        adapter.embedBits(plane, written, 20.0, TARGET_POSITION, BLOCK_SIZE);
+        BitVector extracted = new BitVector(20);
+
+        // when
+        adapter.extractBits(plane, extracted, TARGET_POSITION, BLOCK_SIZE);
+
+        // then
+        for (int i = 0; i < extracted.length(); i++) {
+            assertEquals(i >= plane.getFirstBlock() && written.get(i), extracted.get(i));
+        }
+        assertFalse(extracted.get(plane.getFirstBlock() - 1));
+    }
+
+    // 계수 크기가 강도보다 작아 삽입 후 부호가 비트로 결정되는 평면
+    private CoefficientPlane randomPlane(int[] indices) {
+        CoefficientPlane plane = new CoefficientPlane(indices, BLOCK_LENGTH, BLOCK_COUNT);
+        plane.reset(10, BLOCK_COUNT);
+        Random random = new Random(42);
+        for (int slot = 0; slot < indices.length; slot++) {
+            for (int b = 0; b < BLOCK_COUNT; b++) {
+                plane.valuesAt(slot)[b] = random.nextDouble() * 30 - 15;
+            }
+        }
+        return plane;
+    }
+
+    private BitVector alternatingBits(int length) {
+        BitVector bits = new BitVector(length);
+        for (int i = 0; i < length; i++) {
+            bits.set(i, (i % 3) != 1);
+        }
+        return bits;
+    }
+
+    // 평면 SPI를 구현하지 않는 블록 단위 전략
+    private WatermarkStrategy blockOnly(WatermarkStrategy delegate) {
+        return new WatermarkStrategy() {
+            @Override
+            public void embedBit(double[] dctCoefficients, boolean bit, double strength, int targetPosition, int blockSize) {
+                delegate.embedBit(dctCoefficients, bit, strength, targetPosition, blockSize);
+            }
+
+            @Override
+            public boolean extractBit(double[] dctCoefficients, int targetPosition, int blockSize) {
+                return delegate.extractBit(dctCoefficients, targetPosition, blockSize);
+            }
+
+            @Override
+            public int[] coefficientIndices(int targetPosition, int blockSize) {
+                return delegate.coefficientIndices(targetPosition, blockSize);
+            }
+
+            @Override
+            public boolean isLinear() {
+                return delegate.isLinear();
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.seungjjun.watermark.core.dct.transform;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Fast8x8DCTTest {
+
+    private static final int BLOCK_SIZE = 8;
+    private static final double DOUBLE_TOLERANCE = 1e-9;
+    private static final float FLOAT_TOLERANCE = 1e-3f;
+
+    private final Fast8x8DCT fastDct = new Fast8x8DCT();
+    private final JTransformsDCT referenceDct = new JTransformsDCT(BLOCK_SIZE);
+
+    @Test
+    @DisplayName("순방향 변환 결과가 JTransforms 기준 구현과 일치")
+    void forward_MatchesReference() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            // given
+            double[] expected = randomLumaBlock(random);
+            double[] actual = expected.clone();
+
+            // when
+            referenceDct.forward(expected);
+            fastDct.forward(actual);
+
+            // then
+            assertArrayEquals(expected, actual, DOUBLE_TOLERANCE);
+        }
+    }
+
+    @Test
+    @DisplayName("역방향 변환 결과가 JTransforms 기준 구현과 일치")
+    void inverse_MatchesReference() {
+        Random random = new Random(11);
+        for (int round = 0; round < 100; round++) {
+            // given
+            double[] expected = randomLumaBlock(random);
+            referenceDct.forward(expected);
+            double[] actual = expected.clone();
+
+            // when
+            referenceDct.inverse(expected);
+            fastDct.inverse(actual);
+
+            // then
+            assertArrayEquals(expected, actual, DOUBLE_TOLERANCE);
+        }
+    }
+
+    @Test
+    @DisplayName("float 변형은 double 결과와 허용 오차 내에서 일치")
+    void floatVariant_MatchesDoubleVariant() {
+        Random random = new Random(13);
+        for (int round = 0; round < 100; round++) {
+            // given
+            double[] expected = randomLumaBlock(random);
+            float[] actual = new float[expected.length];
+            for (int i = 0; i < expected.length; i++) {
+                actual[i] = (float) expected[i];
+            }
+
+            // when
+            fastDct.forward(expected);
+            fastDct.forward(actual);
+
+            // then
+            float[] expectedFloat = new float[expected.length];
+            for (int i = 0; i < expected.length; i++) {
+                expectedFloat[i] = (float) expected[i];
+            }
+            assertArrayEquals(expectedFloat, actual, FLOAT_TOLERANCE);
+        }
+    }
+
+    @Test
+    @DisplayName("블록 크기 8이면 전용 커널, 그 외에는 JTransforms를 사용")
+    void forBlockSize_SelectsKernel() {
+        assertTrue(DCTTransform.forBlockSize(8) instanceof Fast8x8DCT);
+        assertTrue(DCTTransform.forBlockSize(16) instanceof JTransformsDCT);
+    }
+
+    private double[] randomLumaBlock(Random random) {
+        double[] block = new double[BLOCK_SIZE * BLOCK_SIZE];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = random.nextInt(256) - 128.0;
+        }
+        return block;
+    }
+}
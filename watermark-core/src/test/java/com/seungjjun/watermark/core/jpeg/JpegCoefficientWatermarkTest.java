@@ -0,0 +1,270 @@
+package com.seungjjun.watermark.core.jpeg;
+
+import com.seungjjun.watermark.core.dct.BitLayout;
+import com.seungjjun.watermark.core.dct.DCTWatermark;
+import com.seungjjun.watermark.core.dct.color.ColorMode;
+import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JpegCoefficientWatermarkTest {
+
+    private static final String WATERMARK_TEXT = "user@example.com 10.0.0.1";
+
+    private final JpegCoefficientWatermark watermark =
+        new JpegCoefficientWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential());
+
+    @Test
+    @DisplayName("계수를 수정하지 않고 재부호화하면 디코딩 결과가 원본과 픽셀 단위로 동일")
+    void encode_WithoutChanges_DecodesToSamePixels() throws IOException {
+        // given
+        byte[] original = writeJpeg(createSmoothImage(517, 389), 0.75f, false);
+
+        // when
+        byte[] reencoded = new JpegEncoder(new JpegDecoder(original).decode()).encode();
+
+        // then
+        assertArrayEquals(pixels(decode(original)), pixels(decode(reencoded)));
+    }
+
+    @Test
+    @DisplayName("progressive JPEG도 baseline으로 재부호화한 결과가 원본과 픽셀 단위로 동일")
+    void encode_ProgressiveWithoutChanges_DecodesToSamePixels() throws IOException {
+        // given
+        byte[] original = writeJpeg(createSmoothImage(517, 389), 0.75f, true);
+
+        // when
+        byte[] reencoded = new JpegEncoder(new JpegDecoder(original).decode()).encode();
+
+        // then
+        assertArrayEquals(pixels(decode(original)), pixels(decode(reencoded)));
+    }
+
+    @Test
+    @DisplayName("양자화 단계가 삽입 강도보다 큰 저품질 JPEG에서도 계수 영역과 픽셀 영역 모두에서 추출")
+    void embedWatermark_LowQuality_ExtractsFromCoefficientsAndPixels() throws IOException {
+        // given
+        byte[] original = writeJpeg(createSmoothImage(517, 389), 0.5f, false);
+        DCTWatermark pixelWatermark = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential());
+
+        // when
+        byte[] watermarked = watermark.embedWatermark(original, WATERMARK_TEXT);
+
+        // then
+        assertEquals(WATERMARK_TEXT, watermark.extractWatermark(watermarked, WATERMARK_TEXT.length()));
+        assertEquals(WATERMARK_TEXT, pixelWatermark.extractWatermark(decode(watermarked), WATERMARK_TEXT.length()));
+    }
+
+    @Test
+    @DisplayName("고품질 JPEG에서도 계수 영역과 픽셀 영역 모두에서 추출")
+    void embedWatermark_HighQuality_ExtractsFromCoefficientsAndPixels() throws IOException {
+        // given
+        byte[] original = writeJpeg(createSmoothImage(517, 389), 0.95f, false);
+        DCTWatermark pixelWatermark = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential());
+
+        // when
+        byte[] watermarked = watermark.embedWatermark(original, WATERMARK_TEXT);
+
+        // then
+        assertEquals(WATERMARK_TEXT, watermark.extractWatermark(watermarked, WATERMARK_TEXT.length()));
+        assertEquals(WATERMARK_TEXT, pixelWatermark.extractWatermark(decode(watermarked), WATERMARK_TEXT.length()));
+    }
+
+    @Test
+    @DisplayName("블록당 4비트 모드는 블록 수보다 긴 페이로드도 계수 영역과 픽셀 영역 모두에서 추출")
+    void embedWatermark_FourBitsPerBlock_ExtractsFromCoefficientsAndPixels() throws IOException {
+        // given: 10 x 8 = 80블록, 페이로드 200비트
+        byte[] original = writeJpeg(createSmoothImage(80, 64), 0.75f, false);
+        BitLayout layout = new BitLayout(4);
+        JpegCoefficientWatermark multiBit =
+            new JpegCoefficientWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential(), layout);
+        DCTWatermark pixelWatermark =
+            new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.sequential(), ColorMode.SCALAR, layout);
+
+        // when
+        byte[] watermarked = multiBit.embedWatermark(original, WATERMARK_TEXT);
+
+        // then
+        assertEquals(WATERMARK_TEXT, multiBit.extractWatermark(watermarked, WATERMARK_TEXT.length()));
+        assertEquals(WATERMARK_TEXT, pixelWatermark.extractWatermark(decode(watermarked), WATERMARK_TEXT.length()));
+    }
+
+    @Test
+    @DisplayName("페이로드 블록 행만 디코딩한 추출 결과는 전체 디코딩 결과와 동일 (baseline, progressive)")
+    void readPayloadRegion_ExtractsSameAsFullDecode() throws IOException {
+        // given: 픽셀로 디코딩 후 다시 저장해 baseline/progressive 두 가지 워터마크 JPEG을 만든다
+        BufferedImage watermarked = decode(watermark.embedWatermark(
+            writeJpeg(createSmoothImage(517, 389), 0.9f, false), WATERMARK_TEXT));
+        byte[] baseline = writeJpeg(watermarked, 0.9f, false);
+        byte[] progressive = writeJpeg(watermarked, 0.9f, true);
+
+        for (byte[] jpeg : new byte[][]{baseline, progressive}) {
+            // when
+            JpegImage region = watermark.readPayloadRegion(jpeg, WATERMARK_TEXT.length());
+
+            // then
+            assertFalse(region.isComplete());
+            assertEquals(watermark.extractWatermark(watermark.read(jpeg), WATERMARK_TEXT.length()),
+                watermark.extractWatermark(region, WATERMARK_TEXT.length()));
+        }
+    }
+
+    @Test
+    @DisplayName("페이로드 블록 행만 디코딩한 JPEG에는 삽입할 수 없음")
+    void embedWatermark_RegionLimitedImage_ThrowsException() throws IOException {
+        // given
+        byte[] original = writeJpeg(createSmoothImage(517, 389), 0.75f, false);
+        JpegImage region = watermark.readPayloadRegion(original, 2);
+
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> watermark.embedWatermark(region, "hi"));
+    }
+
+    @Test
+    @DisplayName("출력 스트림으로 바로 부호화한 결과는 byte[] 결과와 같음")
+    void embedWatermark_ToOutputStream_MatchesByteArray() throws IOException {
+        // given: 결과가 출력 버퍼(64KB)보다 커지도록 큰 고품질 이미지
+        byte[] original = writeJpeg(createSmoothImage(1024, 768), 0.95f, false);
+        byte[] expected = watermark.embedWatermark(original, WATERMARK_TEXT);
+
+        // when
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        watermark.embedWatermark(watermark.read(original), WATERMARK_TEXT, output);
+
+        // then
+        assertTrue(expected.length > 64 * 1024);
+        assertArrayEquals(expected, output.toByteArray());
+    }
+
+    @Test
+    @DisplayName("한 번 읽어 둔 JPEG에 여러 페이로드를 차례로 삽입한 결과는 매번 새로 읽어 삽입한 결과와 같음")
+    void prepare_EmbedsSameAsFreshDecode() throws IOException {
+        // given: 블록당 4비트 모드는 페이로드 길이에 따라 고치는 블록 행 수가 달라진다
+        byte[] original = writeJpeg(createSmoothImage(517, 389), 0.75f, false);
+        JpegCoefficientWatermark multiBit = new JpegCoefficientWatermark(new AdditiveDCTStrategy(),
+            StripeScheduler.sequential(), new BitLayout(4));
+        String[] texts = {WATERMARK_TEXT.repeat(20), "hi", WATERMARK_TEXT};
+
+        for (JpegCoefficientWatermark target : new JpegCoefficientWatermark[]{watermark, multiBit}) {
+            PreparedJpeg prepared = target.prepare(target.read(original));
+            for (String text : texts) {
+                // when
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                prepared.embedWatermark(text, output);
+
+                // then
+                assertArrayEquals(target.embedWatermark(original, text), output.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("크기는 자르지 않고 원본 JPEG 크기를 유지")
+    void embedWatermark_KeepsOriginalDimensions() throws IOException {
+        // given
+        byte[] original = writeJpeg(createSmoothImage(203, 117), 0.75f, false);
+
+        // when
+        BufferedImage result = decode(watermark.embedWatermark(original, "hi"));
+
+        // then
+        assertEquals(203, result.getWidth());
+        assertEquals(117, result.getHeight());
+    }
+
+    @Test
+    @DisplayName("산술 부호화 JPEG은 UnsupportedJpegException")
+    void read_ArithmeticCoding_ThrowsUnsupported() {
+        // given: SOI + SOF9 (확장 순차, 산술 부호화)
+        byte[] arithmetic = {
+            (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xC9, 0x00, 0x0B, 0x08, 0x00, 0x10, 0x00, 0x10, 0x01,
+            0x01, 0x11, 0x00
+        };
+
+        // when & then
+        assertThrows(UnsupportedJpegException.class, () -> watermark.read(arithmetic));
+    }
+
+    @Test
+    @DisplayName("코드 공간을 넘는 허프만 테이블은 IOException (배열 범위 예외가 아님)")
+    void read_OverfullHuffmanTable_ThrowsIOException() {
+        // given: 길이 1인 코드 3개 (길이 1로는 2개까지만 만들 수 있다)
+        int[] bits = new int[HuffmanTable.MAX_CODE_LENGTH + 1];
+        bits[1] = 3;
+
+        // when & then
+        IOException exception = assertThrows(IOException.class, () -> new HuffmanTable(bits, new int[]{0, 1, 2}));
+        assertEquals("Corrupt JPEG: bad Huffman table", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("계수 배열이 너무 커지는 JPEG은 할당 전에 UnsupportedJpegException (픽셀 경로로 대체)")
+    void read_TooLargeFrame_ThrowsUnsupportedBeforeAllocating() {
+        // given: SOI + SOF0 65535x65535 그레이스케일
+        byte[] huge = {
+            (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xC0, 0x00, 0x0B, 0x08, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, 0x01, 0x01, 0x11, 0x00
+        };
+
+        // when & then
+        UnsupportedJpegException exception = assertThrows(UnsupportedJpegException.class, () -> watermark.read(huge));
+        assertTrue(exception.getMessage().contains("65535x65535"));
+    }
+
+    private BufferedImage createSmoothImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (int) (128 + 60 * Math.sin(x / 7.0) * Math.cos(y / 11.0));
+                int g = x * 255 / width;
+                int b = y * 255 / height;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private byte[] writeJpeg(BufferedImage image, float quality, boolean progressive) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        if (progressive) {
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    private int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
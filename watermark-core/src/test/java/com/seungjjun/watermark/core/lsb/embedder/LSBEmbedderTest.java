@@ -0,0 +1,195 @@
+package com.seungjjun.watermark.core.lsb.embedder;
+
+import com.seungjjun.watermark.core.lsb.extractor.LSBExtractor;
+import com.seungjjun.watermark.core.lsb.model.WatermarkData;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LSBEmbedderTest {
+
+    private static final String WATERMARK_TEXT = "user@example.com 10.0.0.1";
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("int/byte 래스터 모두 bitDepth별로 삽입한 텍스트를 그대로 추출")
+    void embed_RoundTripsForRasterTypesAndBitDepths() {
+        for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR}) {
+            for (int bitDepth = 1; bitDepth <= 4; bitDepth++) {
+                // given
+                BufferedImage image = createRandomImage(type, 37, 23);
+
+                // when
+                new LSBEmbedder(bitDepth).embed(image, new WatermarkData(WATERMARK_TEXT));
+
+                // then
+                assertEquals(WATERMARK_TEXT, new LSBExtractor(bitDepth).extract(image).toText());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("결과는 픽셀마다 getRGB/setRGB로 비트를 넣은 결과와 동일하고 알파는 유지")
+    void embed_MatchesPerPixelReference() {
+        // given: 3비트 x 3채널이 바이트 경계와 맞지 않아 마지막 픽셀의 일부 채널만 쓰인다
+        int bitDepth = 3;
+        BufferedImage actual = createRandomImage(BufferedImage.TYPE_INT_ARGB, 31, 17);
+        BufferedImage expected = createRandomImage(BufferedImage.TYPE_INT_ARGB, 31, 17);
+        WatermarkData data = new WatermarkData(WATERMARK_TEXT);
+
+        // when
+        new LSBEmbedder(bitDepth).embed(actual, data);
+        embedPerPixel(expected, data.toBytes(), bitDepth);
+
+        // then
+        assertArrayEquals(pixels(expected), pixels(actual));
+    }
+
+    @Test
+    @DisplayName("모든 BufferedImage 타입과 bitDepth 1~8에서 픽셀마다 getRGB/setRGB로 넣은 결과와 동일")
+    void embed_MatchesPerPixelReferenceForAllTypesAndBitDepths() {
+        // 25바이트 텍스트(헤더 포함 232비트)는 대부분의 bitDepth에서 마지막 픽셀이 일부 채널만 쓰이고,
+        // 2바이트 텍스트(48비트)는 bitDepth 8에서 픽셀 경계에 딱 맞는다
+        for (String text : new String[]{WATERMARK_TEXT, "ab"}) {
+            WatermarkData data = new WatermarkData(text);
+            for (int type : IMAGE_TYPES) {
+                for (int bitDepth = 1; bitDepth <= 8; bitDepth++) {
+                    // given
+                    BufferedImage actual = createImage(type, 31, 17);
+                    BufferedImage expected = createImage(type, 31, 17);
+
+                    // when
+                    new LSBEmbedder(bitDepth).embed(actual, data);
+                    embedPerPixel(expected, data.toBytes(), bitDepth);
+
+                    // then
+                    assertArrayEquals(pixels(expected), pixels(actual),
+                        "type " + type + ", bit depth " + bitDepth + ", text \"" + text + "\"");
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("병렬 삽입 결과는 순차 삽입 결과와 픽셀 단위로 동일")
+    void embed_ParallelMatchesSequential() {
+        for (int bitDepth : new int[]{1, 3, 7}) {
+            // given: 행 경계가 바이트/픽셀 경계와 어긋나도록 홀수 폭과 큰 페이로드를 쓴다
+            BufferedImage expected = createRandomImage(BufferedImage.TYPE_INT_RGB, 203, 151);
+            BufferedImage actual = createRandomImage(BufferedImage.TYPE_INT_RGB, 203, 151);
+            byte[] payload = new byte[203 * 120 * 3 * bitDepth / 8 - 4];
+            new Random(bitDepth).nextBytes(payload);
+            WatermarkData data = new WatermarkData(payload);
+
+            // when
+            new LSBEmbedder(bitDepth, StripeScheduler.sequential()).embed(expected, data);
+            new LSBEmbedder(bitDepth, new StripeScheduler(executor, 4)).embed(actual, data);
+
+            // then
+            assertArrayEquals(pixels(expected), pixels(actual));
+        }
+    }
+
+    @Test
+    @DisplayName("용량보다 긴 데이터는 IllegalArgumentException")
+    void embed_ExceedsCapacity_ThrowsException() {
+        // given: 4 x 4 x 3채널 = 48비트 < (4 + 25) x 8비트
+        BufferedImage image = createRandomImage(BufferedImage.TYPE_INT_RGB, 4, 4);
+
+        // when & then
+        assertThrows(IllegalArgumentException.class,
+            () -> new LSBEmbedder().embed(image, new WatermarkData(WATERMARK_TEXT)));
+    }
+
+    // TYPE_CUSTOM(0)은 createImage가 RGB 순서의 3바이트 인터리브 이미지로 만든다
+    private static final int[] IMAGE_TYPES = {
+        BufferedImage.TYPE_CUSTOM,
+        BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+        BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+        BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_USHORT_565_RGB, BufferedImage.TYPE_USHORT_555_RGB,
+        BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_BINARY,
+        BufferedImage.TYPE_BYTE_INDEXED
+    };
+
+    private BufferedImage createImage(int type, int width, int height) {
+        if (type != BufferedImage.TYPE_CUSTOM) {
+            return createRandomImage(type, width, height);
+        }
+        ColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), false, false,
+            Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+        WritableRaster raster = Raster.createInterleavedRaster(DataBuffer.TYPE_BYTE, width, height, width * 3, 3,
+            new int[]{0, 1, 2}, null);
+        BufferedImage image = new BufferedImage(colorModel, raster, false, null);
+        fillRandom(image);
+        return image;
+    }
+
+    private BufferedImage createRandomImage(int type, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        fillRandom(image);
+        return image;
+    }
+
+    private void fillRandom(BufferedImage image) {
+        Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+    }
+
+    // 비트를 하나씩 꺼내 R, G, B 채널 하위 bitDepth 비트에 넣는 기준 구현
+    private void embedPerPixel(BufferedImage image, byte[] bytes, int bitDepth) {
+        int totalBits = bytes.length * 8;
+        int bitIndex = 0;
+        for (int y = 0; y < image.getHeight() && bitIndex < totalBits; y++) {
+            for (int x = 0; x < image.getWidth() && bitIndex < totalBits; x++) {
+                int argb = image.getRGB(x, y);
+                for (int shift = 16; shift >= 0 && bitIndex < totalBits; shift -= 8) {
+                    int bits = 0;
+                    for (int i = 0; i < bitDepth; i++, bitIndex++) {
+                        int bit = bitIndex < totalBits ? (bytes[bitIndex / 8] >> (7 - bitIndex % 8)) & 1 : 0;
+                        bits = (bits << 1) | bit;
+                    }
+                    int channelMask = ((1 << bitDepth) - 1) << shift;
+                    argb = (argb & ~channelMask) | (bits << shift);
+                }
+                image.setRGB(x, y, argb);
+            }
+        }
+    }
+
+    private int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
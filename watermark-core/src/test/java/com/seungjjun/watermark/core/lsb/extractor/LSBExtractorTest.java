@@ -0,0 +1,106 @@
+package com.seungjjun.watermark.core.lsb.extractor;
+
+import com.seungjjun.watermark.core.lsb.embedder.LSBEmbedder;
+import com.seungjjun.watermark.core.lsb.model.WatermarkData;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LSBExtractorTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("헤더와 데이터가 픽셀 경계에 걸치는 bitDepth에서도 한 번에 추출")
+    void extract_HeaderStraddlesPixels_RoundTrips() {
+        for (int bitDepth : new int[]{5, 7, 8}) {
+            // given: 3 * bitDepth가 32의 약수가 아니어서 헤더 마지막 픽셀에 데이터 비트가 섞인다
+            BufferedImage image = createRandomImage(41, 29, 7);
+            byte[] payload = new byte[301];
+            new Random(bitDepth).nextBytes(payload);
+            new LSBEmbedder(bitDepth).embed(image, new WatermarkData(payload));
+
+            // when
+            byte[] extracted = new LSBExtractor(bitDepth).extract(image).toBytes();
+
+            // then: toBytes는 길이 헤더 4바이트를 앞에 붙인다
+            byte[] data = new byte[extracted.length - 4];
+            System.arraycopy(extracted, 4, data, 0, data.length);
+            assertArrayEquals(payload, data);
+        }
+    }
+
+    @Test
+    @DisplayName("병렬 추출 결과는 순차 추출 결과와 동일")
+    void extract_ParallelMatchesSequential() {
+        for (int bitDepth : new int[]{1, 3, 7}) {
+            // given: stripe 경계의 바이트가 다음 행 픽셀까지 걸치도록 홀수 폭을 쓴다
+            BufferedImage image = createRandomImage(203, 151, bitDepth);
+            byte[] payload = new byte[203 * 120 * 3 * bitDepth / 8 - 4];
+            new Random(bitDepth).nextBytes(payload);
+            new LSBEmbedder(bitDepth).embed(image, new WatermarkData(payload));
+
+            // when
+            byte[] expected = new LSBExtractor(bitDepth, StripeScheduler.sequential()).extract(image).toBytes();
+            byte[] actual = new LSBExtractor(bitDepth, new StripeScheduler(executor, 4)).extract(image).toBytes();
+
+            // then
+            assertArrayEquals(expected, actual);
+            assertArrayEquals(payload, Arrays.copyOfRange(actual, 4, actual.length));
+        }
+    }
+
+    @Test
+    @DisplayName("워터마크가 없는 이미지는 길이 헤더를 믿고 할당하지 않고 IllegalArgumentException")
+    void extract_UnmarkedImage_ThrowsException() {
+        // given: 하위 비트가 임의인 이미지의 길이 헤더는 음수이거나 용량을 넘는다
+        BufferedImage image = createRandomImage(64, 64, 1);
+
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> new LSBExtractor().extract(image));
+    }
+
+    @Test
+    @DisplayName("헤더 길이가 잘린 이미지 용량을 넘으면 IllegalArgumentException")
+    void extract_HeaderExceedsCroppedCapacity_ThrowsException() {
+        // given: 64 x 64에 400바이트를 넣은 뒤 위쪽 8행만 남긴다 (용량 8 x 64 x 3비트 = 192바이트)
+        BufferedImage image = createRandomImage(64, 64, 3);
+        new LSBEmbedder().embed(image, new WatermarkData(new byte[400]));
+        BufferedImage cropped = image.getSubimage(0, 0, 64, 8);
+
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> new LSBExtractor().extract(cropped));
+    }
+
+    private BufferedImage createRandomImage(int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+}
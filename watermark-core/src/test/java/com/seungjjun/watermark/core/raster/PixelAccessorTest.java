@@ -0,0 +1,125 @@
+package com.seungjjun.watermark.core.raster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PixelAccessorTest {
+
+    private static final int[] SUPPORTED_TYPES = {
+        BufferedImage.TYPE_INT_RGB,
+        BufferedImage.TYPE_INT_ARGB,
+        BufferedImage.TYPE_3BYTE_BGR,
+        BufferedImage.TYPE_4BYTE_ABGR,
+        BufferedImage.TYPE_BYTE_GRAY
+    };
+
+    @Test
+    @DisplayName("전용 경로가 선택되는 타입은 GenericPixelAccessor를 사용하지 않음")
+    void of_SupportedTypes_UseFastPath() {
+        for (int type : SUPPORTED_TYPES) {
+            PixelAccessor accessor = PixelAccessor.of(new BufferedImage(4, 4, type));
+            assertTrue(!(accessor instanceof GenericPixelAccessor), "type " + type);
+        }
+    }
+
+    @Test
+    @DisplayName("읽기 결과는 BufferedImage.getRGB와 동일")
+    void read_MatchesGetRGB() {
+        for (int type : SUPPORTED_TYPES) {
+            // given
+            BufferedImage image = createRandomImage(37, 23, type);
+
+            // when
+            int[] actual = new int[13 * 9];
+            PixelAccessor.of(image).read(5, 7, 13, 9, actual, 0);
+
+            // then
+            assertArrayEquals(image.getRGB(5, 7, 13, 9, null, 0, 13), actual, "type " + type);
+        }
+    }
+
+    @Test
+    @DisplayName("쓰기 결과는 BufferedImage.setRGB와 동일")
+    void write_MatchesSetRGB() {
+        for (int type : SUPPORTED_TYPES) {
+            // given
+            BufferedImage expected = createRandomImage(37, 23, type);
+            BufferedImage actual = createRandomImage(37, 23, type);
+            int[] argb = randomArgb(13 * 9, new Random(type));
+
+            // when
+            expected.setRGB(5, 7, 13, 9, argb, 0, 13);
+            PixelAccessor.of(actual).write(5, 7, 13, 9, argb, 0);
+
+            // then
+            assertArrayEquals(expected.getRGB(0, 0, 37, 23, null, 0, 37),
+                actual.getRGB(0, 0, 37, 23, null, 0, 37), "type " + type);
+        }
+    }
+
+    @Test
+    @DisplayName("getSubimage로 만든 이미지도 원본 좌표계와 어긋나지 않음")
+    void readWrite_Subimage_RespectsTranslation() {
+        for (int type : SUPPORTED_TYPES) {
+            // given
+            BufferedImage parent = createRandomImage(40, 30, type);
+            BufferedImage child = parent.getSubimage(11, 6, 16, 16);
+            PixelAccessor accessor = PixelAccessor.of(child);
+
+            // when
+            int[] read = new int[8 * 8];
+            accessor.read(3, 4, 8, 8, read, 0);
+
+            // then
+            assertEquals(16, accessor.getWidth());
+            assertArrayEquals(child.getRGB(3, 4, 8, 8, null, 0, 8), read, "type " + type);
+        }
+    }
+
+    @Test
+    @DisplayName("IntBuffer 위의 픽셀은 TYPE_INT_RGB 이미지와 같게 읽고 쓴다")
+    void of_IntBuffer_MatchesIntRgbImage() {
+        for (boolean direct : new boolean[]{false, true}) {
+            // given
+            BufferedImage expected = new BufferedImage(37, 23, BufferedImage.TYPE_INT_RGB);
+            IntBuffer pixels = direct
+                ? ByteBuffer.allocateDirect(37 * 23 * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer()
+                : IntBuffer.allocate(37 * 23);
+            PixelAccessor accessor = PixelAccessor.of(pixels, 37, 23);
+            int[] argb = randomArgb(13 * 9, new Random(5));
+
+            // when
+            expected.setRGB(5, 7, 13, 9, argb, 0, 13);
+            accessor.write(5, 7, 13, 9, argb, 0);
+            int[] actual = new int[37 * 23];
+            accessor.read(0, 0, 37, 23, actual, 0);
+
+            // then
+            assertArrayEquals(expected.getRGB(0, 0, 37, 23, null, 0, 37), actual, "direct " + direct);
+        }
+    }
+
+    private BufferedImage createRandomImage(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        image.setRGB(0, 0, width, height, randomArgb(width * height, new Random(width * 31L + type)), 0, width);
+        return image;
+    }
+
+    private int[] randomArgb(int count, Random random) {
+        int[] argb = new int[count];
+        for (int i = 0; i < count; i++) {
+            argb[i] = random.nextInt();
+        }
+        return argb;
+    }
+}
@@ -2,15 +2,36 @@ package com.seungjjun.watermark.service;
 
 import com.seungjjun.watermark.common.exception.CoreException;
 import com.seungjjun.watermark.common.exception.ErrorCode;
-import com.seungjjun.watermark.core.dct.DCTWatermark;
+import com.seungjjun.watermark.core.codec.CodecTimings;
+import com.seungjjun.watermark.core.codec.ImageCodec;
+import com.seungjjun.watermark.core.dct.BitLayout;
+import com.seungjjun.watermark.core.jpeg.JpegCoefficientWatermark;
+import com.seungjjun.watermark.service.algorithm.DctWatermarkEngine;
+import com.seungjjun.watermark.service.algorithm.LsbWatermarkEngine;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+import com.seungjjun.watermark.service.algorithm.WatermarkEngine;
+import com.seungjjun.watermark.service.algorithm.WatermarkEngineRegistry;
+import com.seungjjun.watermark.service.bulkhead.BulkheadStats;
+import com.seungjjun.watermark.service.bulkhead.CpuBulkhead;
+import com.seungjjun.watermark.service.cache.CacheStats;
+import com.seungjjun.watermark.service.cache.TransformedImageCache;
+import com.seungjjun.watermark.service.config.WatermarkProperties;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedBatch;
 import com.seungjjun.watermark.service.dto.WatermarkEmbedResult;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,38 +42,141 @@ public class WatermarkService {
     private static final String FORMAT_JPG = "jpg";
     private static final String FORMAT_PNG = "png";
     private static final String FORMAT_JPEG = "jpeg";
+    private static final String FORMAT_ZIP = "zip";
     private static final String EXT_JPG = ".jpg";
     private static final String EXT_JPEG = ".jpeg";
     private static final String EXT_PNG = ".png";
 
-    private static final int MIN_IMAGE_SIZE = 8;
-    private static final int BLOCK_SIZE = 8;
-    private static final int BITS_PER_BYTE = 8;
+    private final ImageCodec codec;
+    private final WatermarkEngineRegistry engines;
+    private final WatermarkAlgorithm defaultAlgorithm;
+    private final TransformedImageCache transformCache;
+    private final CpuBulkhead bulkhead;
 
-    private final DCTWatermark dctWatermark = new DCTWatermark();
+    public WatermarkService() {
+        this(WatermarkProperties.defaults());
+    }
+
+    @Autowired
+    public WatermarkService(WatermarkProperties properties) {
+        this.codec = new ImageCodec(properties.codec().toEncodeOptions());
+        this.transformCache = new TransformedImageCache(properties.cache().maxSize().toBytes(),
+            properties.cache().offHeap());
+        this.bulkhead = new CpuBulkhead(properties.bulkhead().maxConcurrent(), properties.bulkhead().maxWait());
+        this.engines = new WatermarkEngineRegistry(List.of(
+            new DctWatermarkEngine(properties.colorMode(), new BitLayout(properties.bitsPerBlock()), codec,
+                transformCache),
+            new LsbWatermarkEngine(properties.lsb().bitDepth(), codec)));
+        this.defaultAlgorithm = properties.algorithm();
+        log.info("WatermarkService initialized - algorithm: {}, color mode: {}, bits per block: {}, lsb: {}, "
+                + "codec: {}, cache: {}, bulkhead: {}", properties.algorithm(), properties.colorMode(),
+            properties.bitsPerBlock(), properties.lsb(), properties.codec(), properties.cache(), properties.bulkhead());
+    }
+
+    // 포맷별 ImageIO 디코딩/인코딩 통계
+    public Map<String, CodecTimings> getCodecTimings() {
+        return codec.getStats().snapshot();
+    }
+
+    // 업로드한 이미지별 DCT 변환 결과 캐시의 적중/실패/내보낸 횟수와 크기
+    public CacheStats getCacheStats() {
+        return transformCache.snapshot();
+    }
+
+    // 디코딩/변환/인코딩 실행 슬롯의 사용 현황과 슬롯을 기다린 시간
+    public BulkheadStats getBulkheadStats() {
+        return bulkhead.snapshot();
+    }
 
     public WatermarkEmbedResult embedWatermark(MultipartFile imageFile, String watermarkText) {
-        log.info("embedWatermark called - file: {}, watermark: {}",
-            imageFile.getOriginalFilename(), watermarkText);
+        return embedWatermark(imageFile, watermarkText, null, true);
+    }
+
+    public WatermarkEmbedResult embedWatermark(MultipartFile imageFile, String watermarkText,
+                                               WatermarkAlgorithm algorithm, boolean robust) {
+        WatermarkEmbedStream stream = embedWatermarkStreaming(imageFile, watermarkText, algorithm, robust);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            stream.writeTo(output);
+        } catch (IOException e) {
+            throw new CoreException(ErrorCode.WATERMARK_EMBEDDING_FAILED, e);
+        }
+        byte[] bytes = output.toByteArray();
+
+        log.info("Watermark embedded successfully - result size: {} bytes, format: {}, algorithm: {}",
+            bytes.length, stream.format(), stream.algorithm());
+        return WatermarkEmbedResult.of(bytes, stream.format());
+    }
+
+    public WatermarkEmbedStream embedWatermarkStreaming(MultipartFile imageFile, String watermarkText) {
+        return embedWatermarkStreaming(imageFile, watermarkText, null, true);
+    }
+
+    // 입력 검증까지만 수행한다. 삽입과 인코딩은 반환된 body가 출력 스트림에 쓰는 동안 일어나므로
+    // 인코딩 결과 전체를 byte[]로 들고 있지 않는다.
+    // algorithm이 null이면 설정의 기본 알고리즘, robust는 AUTO일 때 재압축에 견뎌야 하는지 여부
+    public WatermarkEmbedStream embedWatermarkStreaming(MultipartFile imageFile, String watermarkText,
+                                                        WatermarkAlgorithm algorithm, boolean robust) {
+        return embedWatermarkStreaming(imageFile, watermarkText, algorithm, robust, true);
+    }
+
+    // 비동기 작업용. 검증은 같고, body는 CPU 슬롯을 maxWait 없이 기다린다
+    public WatermarkEmbedStream embedWatermarkInBackground(MultipartFile imageFile, String watermarkText,
+                                                           WatermarkAlgorithm algorithm, boolean robust) {
+        return embedWatermarkStreaming(imageFile, watermarkText, algorithm, robust, false);
+    }
+
+    private WatermarkEmbedStream embedWatermarkStreaming(MultipartFile imageFile, String watermarkText,
+                                                         WatermarkAlgorithm algorithm, boolean robust,
+                                                         boolean boundedWait) {
+        log.info("embedWatermark called - file: {}, watermark: {}, algorithm: {}, robust: {}",
+            imageFile.getOriginalFilename(), watermarkText, algorithm, robust);
 
         if (watermarkText == null || watermarkText.trim().isEmpty()) {
             throw new CoreException(ErrorCode.WATERMARK_TEXT_EMPTY);
         }
 
         try {
-            BufferedImage originalImage = ImageIO.read(imageFile.getInputStream());
-            if (originalImage == null) {
-                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
-            }
+            byte[] imageBytes = imageFile.getBytes();
+            String format = detectImageFormat(imageFile);
 
-            validateImageSize(originalImage);
-            validateImageCapacity(originalImage, watermarkText);
+            WatermarkEngine engine = engines.resolveForEmbed(
+                algorithm != null ? algorithm : defaultAlgorithm, FORMAT_PNG.equals(format), robust);
+            WatermarkEmbedStream stream = engine.prepareEmbed(imageBytes, format, watermarkText);
+            return new WatermarkEmbedStream(stream.format(), stream.algorithm(),
+                embedBody(stream.body(), boundedWait));
 
+        } catch (CoreException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new CoreException(ErrorCode.WATERMARK_EMBEDDING_FAILED, e);
+        } catch (Exception e) {
+            throw new CoreException(ErrorCode.IMAGE_PROCESSING_FAILED, e);
+        }
+    }
+
+    // 같은 이미지에 텍스트마다 삽입한 결과를 zip 하나로 묶는다. 원본 디코딩과 변환은 한 번만 하고,
+    // 항목은 요청한 텍스트 순서대로 watermarked-0001.png처럼 번호를 붙여 응답 스트림에 차례로 쓴다
+    public WatermarkEmbedStream embedWatermarkBatch(MultipartFile imageFile, List<String> watermarkTexts,
+                                                    WatermarkAlgorithm algorithm, boolean robust) {
+        log.info("embedWatermarkBatch called - file: {}, count: {}, algorithm: {}, robust: {}",
+            imageFile.getOriginalFilename(), watermarkTexts == null ? 0 : watermarkTexts.size(), algorithm, robust);
+
+        if (watermarkTexts == null || watermarkTexts.isEmpty()
+            || watermarkTexts.stream().anyMatch(text -> text == null || text.trim().isEmpty())) {
+            throw new CoreException(ErrorCode.WATERMARK_TEXT_EMPTY);
+        }
+
+        try {
+            byte[] imageBytes = imageFile.getBytes();
             String format = detectImageFormat(imageFile);
-            byte[] bytes = dctWatermark.embedWatermark(originalImage, watermarkText, format);
 
-            log.info("Watermark embedded successfully - result size: {} bytes, format: {}", bytes.length, format);
-            return WatermarkEmbedResult.of(bytes, format);
+            WatermarkEngine engine = engines.resolveForEmbed(
+                algorithm != null ? algorithm : defaultAlgorithm, FORMAT_PNG.equals(format), robust);
+            WatermarkEmbedBatch batch = engine.prepareBatch(imageBytes, format, List.copyOf(watermarkTexts));
+            return new WatermarkEmbedStream(FORMAT_ZIP, batch.algorithm(),
+                embedBody(output -> writeZip(batch, output), true));
 
         } catch (CoreException e) {
             throw e;
@@ -63,6 +187,32 @@ public class WatermarkService {
         }
     }
 
+    // 이미 압축된 이미지라 다시 deflate하지 않는다. finish는 zip만 마무리하고 output은 닫지 않는다
+    private void writeZip(WatermarkEmbedBatch batch, OutputStream output) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(output);
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        batch.writeTo(index -> {
+            zip.putNextEntry(new ZipEntry(String.format("watermarked-%04d.%s", index + 1, batch.format())));
+            return zip;
+        });
+        zip.finish();
+    }
+
+    // 업로드는 body를 만들기 전에 다 읽었으므로 body가 결과를 만드는 동안만 CPU 슬롯을 잡는다.
+    // 결과를 응답 스트림에 내보내는 동안에는 슬롯을 놓으므로 느린 클라이언트가 슬롯을 붙잡지 않는다.
+    // 출력 스트림 쓰기 오류(IOException)는 그대로 두고 처리 중 오류만 CoreException으로 바꾼다
+    private WatermarkEmbedStream.Body embedBody(WatermarkEmbedStream.Body body, boolean boundedWait) {
+        return output -> bulkhead.stream(output, chunked -> {
+            try {
+                body.writeTo(chunked);
+            } catch (IOException | CoreException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CoreException(ErrorCode.IMAGE_PROCESSING_FAILED, e);
+            }
+        }, boundedWait);
+    }
+
     private String detectImageFormat(MultipartFile imageFile) {
         String contentType = imageFile.getContentType();
         if (contentType != null) {
@@ -87,26 +237,22 @@ public class WatermarkService {
     }
 
     public String extractWatermark(MultipartFile imageFile, int watermarkLength) {
-        log.info("extractWatermark called - file: {}, length: {}",
-            imageFile.getOriginalFilename(), watermarkLength);
+        return extractWatermark(imageFile, watermarkLength, null);
+    }
+
+    public String extractWatermark(MultipartFile imageFile, int watermarkLength, WatermarkAlgorithm algorithm) {
+        log.info("extractWatermark called - file: {}, length: {}, algorithm: {}",
+            imageFile.getOriginalFilename(), watermarkLength, algorithm);
 
         if (watermarkLength <= 0) {
             throw new CoreException(ErrorCode.WATERMARK_LENGTH_INVALID);
         }
 
         try {
-            BufferedImage watermarkedImage = ImageIO.read(imageFile.getInputStream());
-            if (watermarkedImage == null) {
-                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
-            }
-
-            validateImageSize(watermarkedImage);
-            validateExtractionCapacity(watermarkedImage, watermarkLength);
-
-            String extractedText = dctWatermark.extractWatermark(watermarkedImage, watermarkLength);
-
-            log.info("Watermark extracted successfully: {}", extractedText);
-            return extractedText;
+            byte[] imageBytes = imageFile.getBytes();
+            List<WatermarkEngine> candidates = engines.resolveForExtract(
+                algorithm != null ? algorithm : defaultAlgorithm, !JpegCoefficientWatermark.isJpeg(imageBytes));
+            return bulkhead.call(() -> extract(candidates, imageBytes, watermarkLength));
 
         } catch (CoreException e) {
             throw e;
@@ -117,33 +263,18 @@ public class WatermarkService {
         }
     }
 
-    private void validateImageSize(BufferedImage image) {
-        if (image.getWidth() < MIN_IMAGE_SIZE || image.getHeight() < MIN_IMAGE_SIZE) {
-            throw new CoreException(ErrorCode.IMAGE_TOO_SMALL);
-        }
-    }
-
-    private void validateImageCapacity(BufferedImage image, String watermarkText) {
-        int width = (image.getWidth() / BLOCK_SIZE) * BLOCK_SIZE;
-        int height = (image.getHeight() / BLOCK_SIZE) * BLOCK_SIZE;
-        int totalBlocks = (width / BLOCK_SIZE) * (height / BLOCK_SIZE);
-
-        int requiredBits = watermarkText.getBytes().length * BITS_PER_BYTE;
-
-        if (requiredBits > totalBlocks) {
-            throw new CoreException(ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
-        }
-    }
-
-    private void validateExtractionCapacity(BufferedImage image, int watermarkLength) {
-        int width = (image.getWidth() / BLOCK_SIZE) * BLOCK_SIZE;
-        int height = (image.getHeight() / BLOCK_SIZE) * BLOCK_SIZE;
-        int totalBlocks = (width / BLOCK_SIZE) * (height / BLOCK_SIZE);
-
-        int requiredBits = watermarkLength * BITS_PER_BYTE;
-
-        if (requiredBits > totalBlocks) {
-            throw new CoreException(ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
+    // AUTO는 후보 엔진을 차례로 시도하고, 워터마크를 찾지 못한 경우에만 다음 엔진으로 넘어간다
+    private String extract(List<WatermarkEngine> candidates, byte[] imageBytes, int watermarkLength)
+        throws IOException {
+        for (int i = 0; ; i++) {
+            try {
+                return candidates.get(i).extract(imageBytes, watermarkLength);
+            } catch (CoreException e) {
+                if (e.getErrorCode() != ErrorCode.WATERMARK_NOT_FOUND || i == candidates.size() - 1) {
+                    throw e;
+                }
+                log.debug("No {} watermark found, trying next algorithm", candidates.get(i).algorithm());
+            }
         }
     }
 }
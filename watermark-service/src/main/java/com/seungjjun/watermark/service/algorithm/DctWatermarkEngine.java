@@ -0,0 +1,204 @@
+package com.seungjjun.watermark.service.algorithm;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.core.codec.ImageCodec;
+import com.seungjjun.watermark.core.dct.BitLayout;
+import com.seungjjun.watermark.core.dct.DCTWatermark;
+import com.seungjjun.watermark.core.dct.PreparedImage;
+import com.seungjjun.watermark.core.dct.TransformedImage;
+import com.seungjjun.watermark.core.dct.color.ColorMode;
+import com.seungjjun.watermark.core.dct.strategy.AdditiveDCTStrategy;
+import com.seungjjun.watermark.core.jpeg.JpegCoefficientWatermark;
+import com.seungjjun.watermark.core.jpeg.JpegImage;
+import com.seungjjun.watermark.core.jpeg.PreparedJpeg;
+import com.seungjjun.watermark.core.jpeg.UnsupportedJpegException;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import com.seungjjun.watermark.core.raster.BandReader;
+import com.seungjjun.watermark.service.cache.TransformedImageCache;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedBatch;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class DctWatermarkEngine implements WatermarkEngine {
+
+    private static final String FORMAT_JPG = "jpg";
+    private static final int BLOCK_SIZE = 8;
+    private static final int BITS_PER_BYTE = 8;
+
+    private final BitLayout layout;
+    private final ImageCodec codec;
+    private final DCTWatermark dctWatermark;
+    private final JpegCoefficientWatermark jpegWatermark;
+    private final TransformedImageCache cache;
+
+    public DctWatermarkEngine(ColorMode colorMode, BitLayout layout, ImageCodec codec) {
+        this(colorMode, layout, codec, TransformedImageCache.disabled());
+    }
+
+    public DctWatermarkEngine(ColorMode colorMode, BitLayout layout, ImageCodec codec, TransformedImageCache cache) {
+        this.layout = layout;
+        this.codec = codec;
+        this.cache = cache;
+        this.dctWatermark = new DCTWatermark(new AdditiveDCTStrategy(), StripeScheduler.commonPool(),
+            colorMode, layout, codec);
+        this.jpegWatermark = new JpegCoefficientWatermark(new AdditiveDCTStrategy(), StripeScheduler.commonPool(),
+            layout);
+    }
+
+    @Override
+    public WatermarkAlgorithm algorithm() {
+        return WatermarkAlgorithm.DCT;
+    }
+
+    // 헤더만 읽어 검증한다. JPEG 계수나 픽셀 디코딩은 반환한 body 안에서 한다
+    @Override
+    public WatermarkEmbedStream prepareEmbed(byte[] imageBytes, String format, String watermarkText)
+        throws IOException {
+        boolean cacheable = validateHeader(imageBytes, ImageValidator.payloadBytes(watermarkText));
+
+        return new WatermarkEmbedStream(format, WatermarkAlgorithm.DCT, output -> {
+            // JPEG은 픽셀 디코딩/재인코딩 없이 DCT 계수에 바로 삽입
+            JpegImage jpegImage = FORMAT_JPG.equals(format)
+                ? readJpegCoefficients(imageBytes, jpegWatermark::read)
+                : null;
+            if (jpegImage != null) {
+                jpegWatermark.embedWatermark(jpegImage, watermarkText, output);
+                log.info("Watermark embedded in JPEG coefficients");
+                return;
+            }
+
+            // 본문은 band 단위로 읽어 삽입한다. 캐시에 담을 수 있는 크기면 변환 결과를 캐시에서 찾아
+            // 디코딩 없이 삽입한다. 처음 보는 이미지는 band 단위로 처리한다
+            TransformedImage transformed = cacheable ? transform(imageBytes) : null;
+            if (transformed != null) {
+                dctWatermark.embedWatermark(transformed, output, watermarkText, format);
+                return;
+            }
+            try (BandReader originalImage = codec.openBands(imageBytes)) {
+                dctWatermark.embedWatermark(originalImage, output, watermarkText, format);
+            }
+        });
+    }
+
+    // JPEG은 계수를 한 번만 엔트로피 디코딩하고, 그 외에는 픽셀을 한 번 디코딩해 블록 행별 순방향 계수를 공유한다.
+    // 여러 결과를 차례로 만들기 위해 원본 전체를 메모리에 올리므로 band 스트리밍은 쓰지 않는다
+    @Override
+    public WatermarkEmbedBatch prepareBatch(byte[] imageBytes, String format, List<String> watermarkTexts)
+        throws IOException {
+        boolean cacheable = validateHeader(imageBytes, ImageValidator.maxPayloadBytes(watermarkTexts));
+
+        return new WatermarkEmbedBatch(format, WatermarkAlgorithm.DCT, entries -> {
+            JpegImage jpegImage = FORMAT_JPG.equals(format)
+                ? readJpegCoefficients(imageBytes, jpegWatermark::read)
+                : null;
+            if (jpegImage != null) {
+                PreparedJpeg prepared = jpegWatermark.prepare(jpegImage);
+                for (int i = 0; i < watermarkTexts.size(); i++) {
+                    prepared.embedWatermark(watermarkTexts.get(i), entries.open(i));
+                }
+                log.info("{} watermarks embedded in JPEG coefficients", watermarkTexts.size());
+                return;
+            }
+
+            TransformedImage transformed = cacheable ? transform(imageBytes) : null;
+            PreparedImage prepared = transformed != null
+                ? dctWatermark.prepare(transformed)
+                : dctWatermark.prepare(decode(imageBytes));
+            for (int i = 0; i < watermarkTexts.size(); i++) {
+                prepared.embedWatermark(watermarkTexts.get(i), format, entries.open(i));
+            }
+            log.info("{} watermarks embedded in DCT", watermarkTexts.size());
+        });
+    }
+
+    @Override
+    public String extract(byte[] imageBytes, int watermarkLength) throws IOException {
+        // 페이로드가 담긴 위쪽 MCU 행까지만 엔트로피 디코딩한다
+        JpegImage jpegImage = readJpegCoefficients(imageBytes,
+            bytes -> jpegWatermark.readPayloadRegion(bytes, watermarkLength));
+        if (jpegImage != null) {
+            validateImage(jpegImage.getWidth(), jpegImage.getHeight(), watermarkLength);
+
+            String extractedText = jpegWatermark.extractWatermark(jpegImage, watermarkLength);
+
+            log.info("Watermark extracted from JPEG coefficients: {}", extractedText);
+            return extractedText;
+        }
+
+        // 페이로드가 담긴 위쪽 블록 행만 source region으로 디코딩한다
+        try (BandReader watermarkedImage = codec.openBands(imageBytes)) {
+            if (watermarkedImage == null) {
+                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+            }
+
+            validateImage(watermarkedImage.getWidth(), watermarkedImage.getHeight(), watermarkLength);
+
+            String extractedText = dctWatermark.extractWatermark(watermarkedImage, watermarkLength);
+
+            log.info("Watermark extracted successfully: {}", extractedText);
+            return extractedText;
+        }
+    }
+
+    // 헤더만 읽어 크기와 용량을 검증하고, 변환 결과를 캐시에 담을 수 있는 크기인지 돌려준다
+    private boolean validateHeader(byte[] imageBytes, int payloadBytes) throws IOException {
+        try (BandReader originalImage = codec.openBands(imageBytes)) {
+            if (originalImage == null) {
+                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+            }
+
+            validateImage(originalImage.getWidth(), originalImage.getHeight(), payloadBytes);
+            return cache.accepts(dctWatermark.transformedSize(originalImage.getWidth(), originalImage.getHeight()));
+        }
+    }
+
+    // 같은 내용의 이미지를 이미 변환해 두었으면 디코딩도 하지 않는다. 처음 보는 내용이면 null
+    private TransformedImage transform(byte[] imageBytes) throws IOException {
+        return cache.get(imageBytes, () -> dctWatermark.transform(decode(imageBytes), cache.isOffHeap()));
+    }
+
+    private BufferedImage decode(byte[] imageBytes) throws IOException {
+        BufferedImage image = codec.decode(imageBytes);
+        if (image == null) {
+            throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+        }
+        return image;
+    }
+
+    // JPEG이 아니거나 계수 영역에서 처리할 수 없으면 null (픽셀 경로로 대체)
+    private JpegImage readJpegCoefficients(byte[] imageBytes, JpegReader reader) {
+        if (!JpegCoefficientWatermark.isJpeg(imageBytes)) {
+            return null;
+        }
+        try {
+            return reader.read(imageBytes);
+        } catch (UnsupportedJpegException e) {
+            log.debug("JPEG not supported in coefficient domain, falling back to pixel path: {}", e.getMessage());
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to parse JPEG coefficients, falling back to pixel path: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // 8x8 블록 하나에 layout이 정한 비트 수를 담는다
+    private void validateImage(int imageWidth, int imageHeight, int payloadBytes) {
+        ImageValidator.validateImageSize(imageWidth, imageHeight);
+
+        int totalBlocks = (imageWidth / BLOCK_SIZE) * (imageHeight / BLOCK_SIZE);
+        ImageValidator.validateCapacity((long) payloadBytes * BITS_PER_BYTE, layout.capacity(totalBlocks));
+    }
+
+    @FunctionalInterface
+    private interface JpegReader {
+
+        JpegImage read(byte[] imageBytes) throws IOException;
+    }
+}
@@ -0,0 +1,41 @@
+package com.seungjjun.watermark.service.algorithm;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class ImageValidator {
+
+    private static final int MIN_IMAGE_SIZE = 8;
+
+    private ImageValidator() {
+    }
+
+    static void validateImageSize(int imageWidth, int imageHeight) {
+        if (imageWidth < MIN_IMAGE_SIZE || imageHeight < MIN_IMAGE_SIZE) {
+            throw new CoreException(ErrorCode.IMAGE_TOO_SMALL);
+        }
+    }
+
+    static void validateCapacity(long requiredBits, long capacityBits) {
+        if (requiredBits > capacityBits) {
+            throw new CoreException(ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
+        }
+    }
+
+    // 삽입/추출은 텍스트를 UTF-8로 인코딩하므로 용량도 UTF-8 바이트 수로 센다
+    static int payloadBytes(String watermarkText) {
+        return watermarkText.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // 용량은 페이로드 길이에만 달려 있으므로 배치는 가장 긴 텍스트 하나로 검증한다
+    static int maxPayloadBytes(List<String> watermarkTexts) {
+        int max = 0;
+        for (String watermarkText : watermarkTexts) {
+            max = Math.max(max, payloadBytes(watermarkText));
+        }
+        return max;
+    }
+}
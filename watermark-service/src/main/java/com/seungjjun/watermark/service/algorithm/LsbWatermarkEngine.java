@@ -0,0 +1,170 @@
+package com.seungjjun.watermark.service.algorithm;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.core.codec.ImageCodec;
+import com.seungjjun.watermark.core.lsb.embedder.LSBEmbedder;
+import com.seungjjun.watermark.core.lsb.extractor.LSBExtractor;
+import com.seungjjun.watermark.core.lsb.model.WatermarkData;
+import com.seungjjun.watermark.core.parallel.StripeScheduler;
+import com.seungjjun.watermark.core.raster.BandReader;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedBatch;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class LsbWatermarkEngine implements WatermarkEngine {
+
+    // 하위 비트는 손실 압축에서 사라지므로 입력 포맷과 관계없이 PNG로 출력한다
+    private static final String FORMAT_PNG = "png";
+    private static final int CHANNELS = 3;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int BITS_PER_BYTE = 8;
+
+    private final int bitDepth;
+    private final ImageCodec codec;
+    private final LSBEmbedder embedder;
+    private final LSBExtractor extractor;
+
+    public LsbWatermarkEngine(int bitDepth, ImageCodec codec) {
+        this.bitDepth = bitDepth;
+        this.codec = codec;
+        this.embedder = new LSBEmbedder(bitDepth, StripeScheduler.commonPool());
+        this.extractor = new LSBExtractor(bitDepth, StripeScheduler.commonPool());
+    }
+
+    @Override
+    public WatermarkAlgorithm algorithm() {
+        return WatermarkAlgorithm.LSB;
+    }
+
+    @Override
+    public WatermarkEmbedStream prepareEmbed(byte[] imageBytes, String format, String watermarkText)
+        throws IOException {
+        byte[] textBytes = watermarkText.getBytes(StandardCharsets.UTF_8);
+
+        // 헤더만 읽어 검증하고, 디코딩과 삽입은 body에서 한다
+        try (BandReader header = codec.openBands(imageBytes)) {
+            if (header == null) {
+                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+            }
+
+            validateImage(header.getWidth(), header.getHeight(), textBytes.length);
+        }
+
+        return new WatermarkEmbedStream(FORMAT_PNG, WatermarkAlgorithm.LSB, output -> {
+            BufferedImage image = toRgb(codec.decode(imageBytes));
+            embedder.embed(image, new WatermarkData(textBytes));
+            codec.encode(image, FORMAT_PNG, output);
+            log.info("Watermark embedded in LSB - bit depth: {}", bitDepth);
+        });
+    }
+
+    // 삽입은 이미지를 제자리에서 고치므로 가장 긴 페이로드가 닿는 위쪽 행만 원본을 떠 두고 결과마다 되돌린다
+    @Override
+    public WatermarkEmbedBatch prepareBatch(byte[] imageBytes, String format, List<String> watermarkTexts)
+        throws IOException {
+        int maxPayloadBytes = ImageValidator.maxPayloadBytes(watermarkTexts);
+
+        try (BandReader header = codec.openBands(imageBytes)) {
+            if (header == null) {
+                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+            }
+
+            validateImage(header.getWidth(), header.getHeight(), maxPayloadBytes);
+        }
+
+        return new WatermarkEmbedBatch(FORMAT_PNG, WatermarkAlgorithm.LSB, entries -> {
+            BufferedImage image = toRgb(codec.decode(imageBytes));
+            Raster original = image.getData(
+                new Rectangle(0, 0, image.getWidth(), payloadRows(image.getWidth(), maxPayloadBytes)));
+
+            for (int i = 0; i < watermarkTexts.size(); i++) {
+                if (i > 0) {
+                    image.setData(original);
+                }
+                embedder.embed(image, new WatermarkData(watermarkTexts.get(i).getBytes(StandardCharsets.UTF_8)));
+                codec.encode(image, FORMAT_PNG, entries.open(i));
+            }
+            log.info("{} watermarks embedded in LSB - bit depth: {}", watermarkTexts.size(), bitDepth);
+        });
+    }
+
+    // 길이 헤더가 요청한 길이와 다르면 LSB 워터마크가 없는 것으로 본다.
+    // 요청한 길이의 페이로드가 닿는 위쪽 행만 디코딩한다
+    @Override
+    public String extract(byte[] imageBytes, int watermarkLength) throws IOException {
+        try (BandReader watermarkedImage = codec.openBands(imageBytes)) {
+            if (watermarkedImage == null) {
+                throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+            }
+
+            int width = watermarkedImage.getWidth();
+            validateImage(width, watermarkedImage.getHeight(), watermarkLength);
+
+            BufferedImage payloadBand = watermarkedImage.read(0, payloadRows(width, watermarkLength));
+
+            byte[] data;
+            try {
+                data = extractor.extract(payloadBand).toBytes();
+            } catch (IllegalArgumentException e) {
+                throw new CoreException(ErrorCode.WATERMARK_NOT_FOUND, e);
+            }
+            if (data.length - HEADER_BYTES != watermarkLength) {
+                throw new CoreException(ErrorCode.WATERMARK_NOT_FOUND);
+            }
+
+            String extractedText = new String(data, HEADER_BYTES, watermarkLength, StandardCharsets.UTF_8);
+            log.info("Watermark extracted from LSB: {}", extractedText);
+            return extractedText;
+        }
+    }
+
+    // 픽셀마다 RGB 채널 하위 bitDepth 비트를 쓰고, 앞 4바이트는 길이 헤더
+    private void validateImage(int imageWidth, int imageHeight, int payloadBytes) {
+        ImageValidator.validateImageSize(imageWidth, imageHeight);
+
+        long capacityBits = (long) imageWidth * imageHeight * CHANNELS * bitDepth;
+        ImageValidator.validateCapacity(payloadBits(payloadBytes), capacityBits);
+    }
+
+    // 길이 헤더를 포함한 페이로드가 닿는 위쪽 행 수
+    private int payloadRows(int imageWidth, int payloadBytes) {
+        long rowBits = (long) imageWidth * CHANNELS * bitDepth;
+        return (int) ((payloadBits(payloadBytes) + rowBits - 1) / rowBits);
+    }
+
+    private static long payloadBits(int payloadBytes) {
+        return (long) (HEADER_BYTES + payloadBytes) * BITS_PER_BYTE;
+    }
+
+    // 그레이스케일/팔레트/16비트 이미지는 RGB 하위 비트를 그대로 담을 수 없으므로 8비트 RGB로 바꾼다
+    private static BufferedImage toRgb(BufferedImage image) {
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+                 BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> {
+                return image;
+            }
+            default -> {
+                int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+                BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+                Graphics2D graphics = converted.createGraphics();
+                try {
+                    graphics.drawImage(image, 0, 0, null);
+                } finally {
+                    graphics.dispose();
+                }
+                return converted;
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.seungjjun.watermark.service.algorithm;
+
+public enum WatermarkAlgorithm {
+
+    // 주파수 영역 삽입. JPEG 재압축에도 남지만 픽셀 경로는 블록 DCT 비용이 든다
+    DCT,
+    // RGB 하위 비트 삽입. 매우 빠르지만 무손실(PNG) 출력에서만 유지된다
+    LSB,
+    // 출력이 무손실이고 견고성이 필요 없으면 LSB, 그 외에는 DCT
+    AUTO
+}
@@ -0,0 +1,22 @@
+package com.seungjjun.watermark.service.algorithm;
+
+import com.seungjjun.watermark.service.dto.WatermarkEmbedBatch;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+
+import java.io.IOException;
+import java.util.List;
+
+// 알고리즘별 삽입/추출 구현. 이미지 크기와 용량 검증은 알고리즘마다 다르므로 각 구현이 맡는다
+public interface WatermarkEngine {
+
+    WatermarkAlgorithm algorithm();
+
+    // 입력 검증까지만 수행하고, 삽입과 인코딩은 반환된 body가 출력 스트림에 쓰는 동안 일어난다
+    WatermarkEmbedStream prepareEmbed(byte[] imageBytes, String format, String watermarkText) throws IOException;
+
+    // 모든 텍스트를 미리 검증하고, 원본 디코딩과 변환은 반환된 body에서 한 번만 한 뒤 텍스트마다 결과를 쓴다
+    WatermarkEmbedBatch prepareBatch(byte[] imageBytes, String format, List<String> watermarkTexts)
+        throws IOException;
+
+    String extract(byte[] imageBytes, int watermarkLength) throws IOException;
+}
@@ -0,0 +1,57 @@
+package com.seungjjun.watermark.service.algorithm;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// 요청한 알고리즘을 엔진으로 해석한다. AUTO는 출력/입력 포맷과 견고성 요구로 결정한다
+public class WatermarkEngineRegistry {
+
+    private final Map<WatermarkAlgorithm, WatermarkEngine> engines = new EnumMap<>(WatermarkAlgorithm.class);
+
+    public WatermarkEngineRegistry(Collection<? extends WatermarkEngine> engines) {
+        for (WatermarkEngine engine : engines) {
+            if (engine.algorithm() == WatermarkAlgorithm.AUTO) {
+                throw new IllegalArgumentException("AUTO is resolved by the registry and cannot have an engine");
+            }
+            if (this.engines.putIfAbsent(engine.algorithm(), engine) != null) {
+                throw new IllegalArgumentException("Duplicate engine for algorithm: " + engine.algorithm());
+            }
+        }
+        if (!this.engines.containsKey(WatermarkAlgorithm.DCT)) {
+            throw new IllegalArgumentException("DCT engine is required as the AUTO fallback");
+        }
+    }
+
+    // AUTO: 무손실 출력이고 견고성이 필요 없으면 LSB, 그 외에는 재압축에도 남는 DCT
+    public WatermarkEngine resolveForEmbed(WatermarkAlgorithm algorithm, boolean losslessOutput, boolean robust) {
+        if (algorithm != WatermarkAlgorithm.AUTO) {
+            return get(algorithm);
+        }
+        if (losslessOutput && !robust && engines.containsKey(WatermarkAlgorithm.LSB)) {
+            return engines.get(WatermarkAlgorithm.LSB);
+        }
+        return engines.get(WatermarkAlgorithm.DCT);
+    }
+
+    // AUTO: 어떤 알고리즘으로 삽입했는지 알 수 없으므로 무손실 입력이면 LSB를 먼저 시도하고 DCT로 넘어간다.
+    // 손실 압축 입력에는 LSB 워터마크가 남아 있을 수 없다
+    public List<WatermarkEngine> resolveForExtract(WatermarkAlgorithm algorithm, boolean losslessInput) {
+        if (algorithm != WatermarkAlgorithm.AUTO) {
+            return List.of(get(algorithm));
+        }
+        if (losslessInput && engines.containsKey(WatermarkAlgorithm.LSB)) {
+            return List.of(engines.get(WatermarkAlgorithm.LSB), engines.get(WatermarkAlgorithm.DCT));
+        }
+        return List.of(engines.get(WatermarkAlgorithm.DCT));
+    }
+
+    private WatermarkEngine get(WatermarkAlgorithm algorithm) {
+        WatermarkEngine engine = engines.get(algorithm);
+        if (engine == null) {
+            throw new IllegalArgumentException("No engine registered for algorithm: " + algorithm);
+        }
+        return engine;
+    }
+}
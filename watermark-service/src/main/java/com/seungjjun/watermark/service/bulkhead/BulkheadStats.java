@@ -0,0 +1,19 @@
+package com.seungjjun.watermark.service.bulkhead;
+
+// active: 지금 슬롯을 잡고 처리 중인 작업 수, waiting: 슬롯을 기다리는 작업 수
+// acquired/rejected: 슬롯을 얻은 횟수와 maxWait 안에 얻지 못해 거절한 횟수. 대기 시간은 거절된 대기도 포함한다.
+// 스트리밍 작업은 결과를 내보낼 때마다 슬롯을 놓았다가 다시 잡으므로 acquired에 여러 번 센다
+public record BulkheadStats(int maxConcurrent, int active, int waiting, long acquired, long rejected,
+                            long totalWaitNanos, long maxWaitNanos) {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    public double averageWaitMillis() {
+        long requests = acquired + rejected;
+        return requests == 0 ? 0.0 : totalWaitNanos / NANOS_PER_MILLI / requests;
+    }
+
+    public double maxWaitMillis() {
+        return maxWaitNanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,208 @@
+package com.seungjjun.watermark.service.bulkhead;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 디코딩/변환/인코딩처럼 CPU를 쓰는 구간을 동시에 maxConcurrent개까지만 실행한다.
+// 요청은 가상 스레드에서 받으므로 업로드를 읽는 동안에는 슬롯을 잡지 않고, 슬롯을 기다리는 동안에도 캐리어 스레드를 놓아 준다.
+// 공정한 세마포어라 먼저 기다린 작업부터 슬롯을 얻고, maxWait 안에 얻지 못하면 503으로 거절한다
+@Slf4j
+public class CpuBulkhead {
+
+    // 스트리밍 작업이 슬롯을 놓지 않고 모아 두는 결과 크기
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong longestWaitNanos = new AtomicLong();
+
+    public CpuBulkhead(int maxConcurrent, Duration maxWait) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrent must be at least 1: " + maxConcurrent);
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Max wait must not be negative: " + maxWait);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public <T, E extends Exception> T call(Work<T, E> work) throws E {
+        acquire();
+        try {
+            return work.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public <E extends Exception> void run(VoidWork<E> work) throws E {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // 결과를 output에 쓰는 작업. 결과는 CHUNK_SIZE만큼 모았다가 슬롯을 놓고 output에 내보낸 뒤 다시 잡으므로
+    // 느리게 읽는 클라이언트가 슬롯을 붙잡지 않는다. 처음 슬롯만 maxWait까지 기다리고, 이미 시작한 작업은
+    // 쓰기 시작한 응답을 중간에 끊지 않도록 제한 없이 다시 기다린다
+    public void stream(OutputStream output, OutputWork work) throws IOException {
+        stream(output, work, true);
+    }
+
+    // bounded가 false면 처음 슬롯도 maxWait 없이 기다린다. 이미 대기열에서 차례를 기다린 비동기 작업이
+    // 동기 요청이 몰린다는 이유로 503으로 실패하지 않도록 한다
+    public void stream(OutputStream output, OutputWork work, boolean bounded) throws IOException {
+        acquire(bounded);
+        ChunkedOutputStream chunked = new ChunkedOutputStream(output);
+        try {
+            work.writeTo(chunked);
+            chunked.drain();
+        } finally {
+            chunked.releaseSlot();
+        }
+    }
+
+    public BulkheadStats snapshot() {
+        return new BulkheadStats(maxConcurrent, maxConcurrent - permits.availablePermits(), waiting.get(),
+            acquired.sum(), rejected.sum(), totalWaitNanos.sum(), longestWaitNanos.get());
+    }
+
+    private void acquire() {
+        acquire(true);
+    }
+
+    private void acquire(boolean timed) {
+        long start = System.nanoTime();
+        boolean granted;
+        waiting.incrementAndGet();
+        try {
+            if (timed) {
+                granted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } else {
+                permits.acquire();
+                granted = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoreException(ErrorCode.IMAGE_PROCESSING_FAILED, e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        longestWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!granted) {
+            rejected.increment();
+            log.warn("CPU bulkhead wait timed out - waited: {} ms, active: {}, waiting: {}",
+                TimeUnit.NANOSECONDS.toMillis(waited), maxConcurrent - permits.availablePermits(), waiting.get());
+            throw new CoreException(ErrorCode.SERVER_BUSY);
+        }
+        acquired.increment();
+    }
+
+    @FunctionalInterface
+    public interface OutputWork {
+
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+
+        T run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface VoidWork<E extends Exception> {
+
+        void run() throws E;
+    }
+
+    // 슬롯을 잡은 동안 쓴 결과를 모아 두는 스트림. 가득 차면 슬롯을 놓고 내보낸다
+    private final class ChunkedOutputStream extends OutputStream {
+
+        private final OutputStream output;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int count;
+        private boolean holding = true;
+
+        private ChunkedOutputStream(OutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                writeChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    writeChunk();
+                }
+                int copied = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, copied);
+                count += copied;
+                off += copied;
+                len -= copied;
+            }
+        }
+
+        // ImageIO 스트림은 조금 쓸 때마다 flush하므로 여기서는 내보내지 않고 chunk가 찰 때까지 모은다
+        @Override
+        public void flush() {
+        }
+
+        // 마지막 결과는 슬롯을 놓은 채로 내보내고 다시 잡지 않는다
+        private void drain() throws IOException {
+            releaseSlot();
+            output.write(buffer, 0, count);
+            count = 0;
+            output.flush();
+        }
+
+        private void writeChunk() throws IOException {
+            releaseSlot();
+            output.write(buffer, 0, count);
+            count = 0;
+            output.flush();
+            acquire(false);
+            holding = true;
+        }
+
+        private void releaseSlot() {
+            if (holding) {
+                holding = false;
+                permits.release();
+            }
+        }
+    }
+}
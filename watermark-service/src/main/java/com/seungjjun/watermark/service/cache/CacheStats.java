@@ -0,0 +1,11 @@
+package com.seungjjun.watermark.service.cache;
+
+// misses는 처음 보는 내용이라 담지 않은 요청도 센다.
+// sizeInBytes: 캐시된 항목이 차지하는 바이트 수 합 (계수는 모든 블록 행을 계산한 것으로 센 상한)
+public record CacheStats(long hits, long misses, long evictions, int entries, long sizeInBytes, long maxBytes) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,124 @@
+package com.seungjjun.watermark.service.cache;
+
+import com.seungjjun.watermark.core.dct.TransformedImage;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 업로드한 이미지 내용의 해시로 찾는 변환 결과 LRU 캐시. 항목 수가 아니라 바이트 합이 maxBytes를 넘지 않게 오래된 항목부터 내보낸다.
+// 기본 설정(블록당 1비트, 공간 패턴 삽입)에서 항목은 디코딩한 원본 픽셀뿐이고 순방향 계수는 없으므로, 아끼는 것은 디코딩이다.
+// 한 번만 올라오는 이미지까지 통째로 디코딩해 두지 않도록 처음 보는 내용은 해시만 기억하고 다시 올라왔을 때 담는다.
+// 다른 이미지의 계수에 삽입하면 안 되므로 충돌을 무시할 수 있는 SHA-256을 키로 쓴다.
+// 같은 이미지를 동시에 요청하면 각자 변환하고 먼저 넣은 항목을 공유한다
+@Slf4j
+public class TransformedImageCache {
+
+    private static final String KEY_ALGORITHM = "SHA-256";
+    // 한 번 본 내용의 해시를 기억하는 개수. 해시 하나가 100바이트 남짓이므로 수백 KB
+    private static final int MAX_SEEN_KEYS = 4096;
+
+    private final long maxBytes;
+    private final boolean offHeap;
+    private final Map<String, TransformedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Boolean> seen = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_SEEN_KEYS;
+        }
+    };
+    private long sizeInBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // maxBytes가 0이면 캐시하지 않는다. offHeap이면 변환한 원본 픽셀을 힙 밖에 둔다
+    public TransformedImageCache(long maxBytes, boolean offHeap) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.offHeap = offHeap;
+    }
+
+    public static TransformedImageCache disabled() {
+        return new TransformedImageCache(0, false);
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // 꺼져 있거나 용량보다 큰 항목은 담지 않으므로 호출하는 쪽이 캐시를 거치지 않는 경로로 처리한다
+    public boolean accepts(long sizeInBytes) {
+        return maxBytes > 0 && sizeInBytes <= maxBytes;
+    }
+
+    // 처음 보는 내용이면 null. 호출하는 쪽은 캐시 없이 band 단위로 처리한다
+    public TransformedImage get(byte[] content, Loader loader) throws IOException {
+        String key = key(content);
+        synchronized (this) {
+            TransformedImage cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            if (seen.put(key, Boolean.TRUE) == null) {
+                return null;
+            }
+        }
+
+        TransformedImage loaded = loader.load();
+        return put(key, loaded);
+    }
+
+    public synchronized CacheStats snapshot() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), sizeInBytes, maxBytes);
+    }
+
+    private synchronized TransformedImage put(String key, TransformedImage image) {
+        TransformedImage existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (!accepts(image.sizeInBytes())) {
+            return image;
+        }
+
+        entries.put(key, image);
+        sizeInBytes += image.sizeInBytes();
+        Iterator<TransformedImage> eldest = entries.values().iterator();
+        while (sizeInBytes > maxBytes) {
+            TransformedImage evicted = eldest.next();
+            eldest.remove();
+            sizeInBytes -= evicted.sizeInBytes();
+            evictions.increment();
+        }
+        log.debug("Transformed image cached - {} bytes, {} entries, {} / {} bytes",
+            image.sizeInBytes(), entries.size(), sizeInBytes, maxBytes);
+        return image;
+    }
+
+    private static String key(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(KEY_ALGORITHM).digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(KEY_ALGORITHM + " is not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+
+        TransformedImage load() throws IOException;
+    }
+}
@@ -0,0 +1,9 @@
+package com.seungjjun.watermark.service.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WatermarkProperties.class)
+public class WatermarkConfig {
+}
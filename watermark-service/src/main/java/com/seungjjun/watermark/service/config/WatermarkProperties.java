@@ -0,0 +1,118 @@
+package com.seungjjun.watermark.service.config;
+
+import com.seungjjun.watermark.core.codec.EncodeOptions;
+import com.seungjjun.watermark.core.dct.color.ColorMode;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// bitsPerBlock: 블록 하나에 담는 비트 수 (1~4, 미설정 시 1)
+// algorithm: 요청에 알고리즘이 없을 때 쓰는 기본값 (미설정 시 DCT)
+@ConfigurationProperties(prefix = "watermark")
+public record WatermarkProperties(ColorMode colorMode, int bitsPerBlock, Codec codec,
+                                  WatermarkAlgorithm algorithm, Lsb lsb, Cache cache, Jobs jobs,
+                                  Bulkhead bulkhead) {
+
+    public WatermarkProperties {
+        if (colorMode == null) {
+            colorMode = ColorMode.AUTO;
+        }
+        if (bitsPerBlock == 0) {
+            bitsPerBlock = 1;
+        }
+        if (codec == null) {
+            codec = new Codec(null, false, null);
+        }
+        if (algorithm == null) {
+            algorithm = WatermarkAlgorithm.DCT;
+        }
+        if (lsb == null) {
+            lsb = new Lsb(0);
+        }
+        if (cache == null) {
+            cache = new Cache(null, false);
+        }
+        if (jobs == null) {
+            jobs = new Jobs(0, 0, null, null, null);
+        }
+        if (bulkhead == null) {
+            bulkhead = new Bulkhead(0, null);
+        }
+    }
+
+    public static WatermarkProperties defaults() {
+        return new WatermarkProperties(null, 0, null, null, null, null, null, null);
+    }
+
+    // 미설정 값은 JDK writer 기본값 (JPEG 품질 0.75, PNG deflate 레벨 4)
+    public record Codec(Float jpegQuality, boolean progressive, Integer pngCompressionLevel) {
+
+        public EncodeOptions toEncodeOptions() {
+            return new EncodeOptions(
+                jpegQuality != null ? jpegQuality : EncodeOptions.DEFAULT_JPEG_QUALITY,
+                progressive,
+                pngCompressionLevel != null ? pngCompressionLevel : EncodeOptions.DEFAULT_PNG_COMPRESSION_LEVEL);
+        }
+    }
+
+    // bitDepth: RGB 채널마다 쓰는 하위 비트 수 (1~8, 미설정 시 1)
+    public record Lsb(int bitDepth) {
+
+        public Lsb {
+            if (bitDepth == 0) {
+                bitDepth = 1;
+            }
+        }
+    }
+
+    // maxSize: DCT 변환 결과 캐시가 쓰는 최대 크기 (미설정 또는 0이면 캐시하지 않음)
+    // offHeap: 캐시한 원본 픽셀을 힙 밖 direct buffer에 둔다 (-XX:MaxDirectMemorySize 안에서)
+    public record Cache(DataSize maxSize, boolean offHeap) {
+
+        public Cache {
+            if (maxSize == null) {
+                maxSize = DataSize.ofBytes(0);
+            }
+        }
+    }
+
+    // workers: 비동기 삽입 작업을 동시에 처리하는 스레드 수 (미설정 시 2)
+    // queueCapacity: 처리를 기다릴 수 있는 작업 수. 넘으면 429로 거절한다 (미설정 시 16)
+    // resultTtl: 끝난 작업의 상태와 결과 파일을 보관하는 시간 (미설정 시 10분)
+    // retryAfter: 거절할 때 Retry-After로 알려 주는 대기 시간 (미설정 시 5초)
+    // directory: 결과 파일을 두는 디렉터리 (미설정 시 임시 디렉터리)
+    public record Jobs(int workers, int queueCapacity, Duration resultTtl, Duration retryAfter, String directory) {
+
+        public Jobs {
+            if (workers == 0) {
+                workers = 2;
+            }
+            if (queueCapacity == 0) {
+                queueCapacity = 16;
+            }
+            if (resultTtl == null) {
+                resultTtl = Duration.ofMinutes(10);
+            }
+            if (retryAfter == null) {
+                retryAfter = Duration.ofSeconds(5);
+            }
+        }
+    }
+
+    // maxConcurrent: 디코딩/변환/인코딩을 동시에 실행하는 요청 수 (미설정 시 사용 가능한 프로세서 수)
+    // maxWait: 실행 슬롯을 기다리는 최대 시간. 넘으면 503으로 거절한다 (미설정 시 30초)
+    public record Bulkhead(int maxConcurrent, Duration maxWait) {
+
+        public Bulkhead {
+            if (maxConcurrent == 0) {
+                maxConcurrent = Runtime.getRuntime().availableProcessors();
+            }
+            if (maxWait == null) {
+                maxWait = Duration.ofSeconds(30);
+            }
+        }
+    }
+}
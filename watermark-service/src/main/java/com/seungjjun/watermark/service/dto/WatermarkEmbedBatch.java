@@ -0,0 +1,31 @@
+package com.seungjjun.watermark.service.dto;
+
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 검증을 마친 배치 삽입 작업. body 안에서 원본을 한 번만 디코딩/변환하고 텍스트 순서대로 결과를 entries에 쓴다
+public record WatermarkEmbedBatch(
+    String format,
+    WatermarkAlgorithm algorithm,
+    Body body
+) {
+
+    public void writeTo(Entries entries) throws IOException {
+        body.writeTo(entries);
+    }
+
+    @FunctionalInterface
+    public interface Body {
+
+        void writeTo(Entries entries) throws IOException;
+    }
+
+    // index번째 텍스트의 결과를 쓸 스트림. 다음 항목을 열기 전에 이전 항목 쓰기를 끝낸다
+    @FunctionalInterface
+    public interface Entries {
+
+        OutputStream open(int index) throws IOException;
+    }
+}
@@ -0,0 +1,24 @@
+package com.seungjjun.watermark.service.dto;
+
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 검증을 마친 삽입 작업. body를 호출해야 실제 삽입/인코딩이 일어나며 결과는 output에 바로 쓰인다
+public record WatermarkEmbedStream(
+    String format,
+    WatermarkAlgorithm algorithm,
+    Body body
+) {
+
+    public void writeTo(OutputStream output) throws IOException {
+        body.writeTo(output);
+    }
+
+    @FunctionalInterface
+    public interface Body {
+
+        void writeTo(OutputStream output) throws IOException;
+    }
+}
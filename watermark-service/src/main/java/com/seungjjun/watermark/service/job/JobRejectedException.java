@@ -0,0 +1,21 @@
+package com.seungjjun.watermark.service.job;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+
+import java.time.Duration;
+
+// 대기열이 가득 차 작업을 받지 않았다. retryAfter 뒤에 다시 요청하도록 알린다
+public class JobRejectedException extends CoreException {
+
+    private final Duration retryAfter;
+
+    public JobRejectedException(Duration retryAfter) {
+        super(ErrorCode.JOB_QUEUE_FULL);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
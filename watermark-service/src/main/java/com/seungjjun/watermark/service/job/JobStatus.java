@@ -0,0 +1,13 @@
+package com.seungjjun.watermark.service.job;
+
+public enum JobStatus {
+
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isDone() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
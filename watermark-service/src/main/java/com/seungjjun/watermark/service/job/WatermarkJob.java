@@ -0,0 +1,43 @@
+package com.seungjjun.watermark.service.job;
+
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+// 작업 상태의 스냅숏. 상태가 바뀔 때마다 새 값으로 교체한다.
+// expiresAt은 끝난 작업에만 있고, 지나면 상태와 결과 파일을 함께 지운다
+public record WatermarkJob(
+    String id,
+    JobStatus status,
+    String format,
+    WatermarkAlgorithm algorithm,
+    Instant createdAt,
+    Instant completedAt,
+    Instant expiresAt,
+    ErrorCode errorCode,
+    Path resultFile
+) {
+
+    static WatermarkJob queued(String id, String format, WatermarkAlgorithm algorithm, Instant now) {
+        return new WatermarkJob(id, JobStatus.QUEUED, format, algorithm, now, null, null, null, null);
+    }
+
+    WatermarkJob running() {
+        return new WatermarkJob(id, JobStatus.RUNNING, format, algorithm, createdAt, null, null, null, null);
+    }
+
+    WatermarkJob succeeded(Path resultFile, Instant now, Instant expiresAt) {
+        return new WatermarkJob(id, JobStatus.SUCCEEDED, format, algorithm, createdAt, now, expiresAt, null,
+            resultFile);
+    }
+
+    WatermarkJob failed(ErrorCode errorCode, Instant now, Instant expiresAt) {
+        return new WatermarkJob(id, JobStatus.FAILED, format, algorithm, createdAt, now, expiresAt, errorCode, null);
+    }
+
+    boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,233 @@
+package com.seungjjun.watermark.service.job;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.service.WatermarkService;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+import com.seungjjun.watermark.service.config.WatermarkProperties;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 삽입을 요청 스레드 밖에서 처리하는 비동기 작업. 전용 스레드 workers개와 크기가 정해진 대기열로 처리하고,
+// 대기열이 가득 차면 작업을 만들지 않고 바로 거절한다. 결과는 로컬 디스크에 두고 끝난 뒤 resultTtl이 지나면 지운다.
+// 작업 상태는 메모리에만 있으므로 재시작하면 남은 결과 파일과 함께 사라진다
+@Slf4j
+@Service
+public class WatermarkJobService implements DisposableBean {
+
+    private static final String PART_SUFFIX = ".part";
+    // 작업 id(UUID).포맷[.part]
+    private static final Pattern JOB_FILE =
+        Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.\\w+(\\.part)?");
+    private static final long MAX_SWEEP_SECONDS = 60;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final WatermarkService watermarkService;
+    private final Duration resultTtl;
+    private final Duration retryAfter;
+    private final Path directory;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService sweeper;
+    private final Map<String, WatermarkJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WatermarkJobService(WatermarkService watermarkService, WatermarkProperties properties) {
+        this(watermarkService, properties.jobs(), Clock.systemUTC());
+    }
+
+    public WatermarkJobService(WatermarkService watermarkService, WatermarkProperties.Jobs properties, Clock clock) {
+        this.watermarkService = watermarkService;
+        this.resultTtl = properties.resultTtl();
+        this.retryAfter = properties.retryAfter();
+        this.clock = clock;
+        this.directory = resultDirectory(properties.directory());
+        deleteJobFiles();
+
+        // AbortPolicy: 대기열이 가득 차면 execute가 RejectedExecutionException을 던진다
+        this.executor = new ThreadPoolExecutor(properties.workers(), properties.workers(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            Thread.ofPlatform().name("watermark-job-", 1).factory(), new ThreadPoolExecutor.AbortPolicy());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("watermark-job-sweeper").daemon().factory());
+        long sweepSeconds = Math.max(1, Math.min(resultTtl.toSeconds(), MAX_SWEEP_SECONDS));
+        sweeper.scheduleWithFixedDelay(this::purgeExpired, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+
+        log.info("WatermarkJobService initialized - workers: {}, queue capacity: {}, result ttl: {}, directory: {}",
+            properties.workers(), properties.queueCapacity(), resultTtl, directory);
+    }
+
+    // 입력 검증은 요청 스레드에서 끝내 잘못된 요청은 작업을 만들지 않고 바로 응답한다.
+    // 검증은 헤더만 읽으므로 대기열의 작업은 업로드 바이트만 들고 있고, 디코딩은 작업 스레드에서 한다.
+    // 작업 스레드는 CPU 슬롯을 maxWait 없이 기다리므로 동기 요청이 몰려도 SERVER_BUSY로 실패하지 않는다
+    public WatermarkJob submit(MultipartFile imageFile, String watermarkText, WatermarkAlgorithm algorithm,
+                               boolean robust) {
+        WatermarkEmbedStream stream = watermarkService.embedWatermarkInBackground(imageFile, watermarkText,
+            algorithm, robust);
+
+        WatermarkJob job = WatermarkJob.queued(UUID.randomUUID().toString(), stream.format(), stream.algorithm(),
+            clock.instant());
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job, stream));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            log.warn("Watermark job rejected - queued: {}, running: {}", executor.getQueue().size(),
+                executor.getActiveCount());
+            throw new JobRejectedException(retryAfter);
+        }
+
+        log.info("Watermark job submitted - id: {}, format: {}, algorithm: {}", job.id(), job.format(),
+            job.algorithm());
+        return job;
+    }
+
+    public WatermarkJob getJob(String jobId) {
+        WatermarkJob job = jobs.get(jobId);
+        if (job == null || job.isExpired(clock.instant())) {
+            throw new CoreException(ErrorCode.JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    // 성공한 작업의 결과 파일을 열어 둔다. 열린 뒤 보관 기간이 지나 파일이 지워져도 끝까지 읽을 수 있다 (POSIX).
+    // 실패한 작업은 삽입이 실패한 원인 그대로 응답한다
+    public WatermarkEmbedStream openResult(String jobId) {
+        WatermarkJob job = getJob(jobId);
+        if (job.status() == JobStatus.FAILED) {
+            throw new CoreException(job.errorCode());
+        }
+        if (job.status() != JobStatus.SUCCEEDED) {
+            throw new CoreException(ErrorCode.JOB_NOT_COMPLETED);
+        }
+
+        InputStream content;
+        try {
+            content = Files.newInputStream(job.resultFile());
+        } catch (NoSuchFileException e) {
+            throw new CoreException(ErrorCode.JOB_NOT_FOUND, e);
+        } catch (IOException e) {
+            throw new CoreException(ErrorCode.INTERNAL_SERVER_ERROR, e);
+        }
+        return new WatermarkEmbedStream(job.format(), job.algorithm(), output -> {
+            try (content) {
+                content.transferTo(output);
+            }
+        });
+    }
+
+    // 보관 기간이 지난 작업과 결과 파일을 지운다
+    int purgeExpired() {
+        Instant now = clock.instant();
+        int purged = 0;
+        for (WatermarkJob job : jobs.values()) {
+            if (job.isExpired(now) && jobs.remove(job.id(), job)) {
+                if (job.resultFile() != null) {
+                    deleteQuietly(job.resultFile());
+                }
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            log.debug("Expired watermark jobs purged: {}, remaining: {}", purged, jobs.size());
+        }
+        return purged;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Watermark jobs still running after shutdown timeout");
+        }
+        deleteJobFiles();
+    }
+
+    // 결과는 .part 파일에 다 쓴 뒤 이름을 바꿔, 결과 파일이 있으면 항상 완전한 이미지다
+    private void run(WatermarkJob job, WatermarkEmbedStream stream) {
+        jobs.computeIfPresent(job.id(), (id, current) -> current.running());
+        Path part = directory.resolve(job.id() + "." + job.format() + PART_SUFFIX);
+        Path result = directory.resolve(job.id() + "." + job.format());
+
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(part))) {
+                stream.writeTo(output);
+            }
+            Files.move(part, result, StandardCopyOption.ATOMIC_MOVE);
+
+            Instant now = clock.instant();
+            jobs.computeIfPresent(job.id(), (id, current) -> current.succeeded(result, now, now.plus(resultTtl)));
+            log.info("Watermark job succeeded - id: {}", job.id());
+        } catch (Exception e) {
+            deleteQuietly(part);
+            ErrorCode errorCode = e instanceof CoreException coreException
+                ? coreException.getErrorCode()
+                : ErrorCode.WATERMARK_EMBEDDING_FAILED;
+
+            Instant now = clock.instant();
+            jobs.computeIfPresent(job.id(), (id, current) -> current.failed(errorCode, now, now.plus(resultTtl)));
+            log.warn("Watermark job failed - id: {}, error: {}", job.id(), errorCode, e);
+        }
+    }
+
+    private static Path resultDirectory(String directory) {
+        try {
+            return directory != null
+                ? Files.createDirectories(Path.of(directory))
+                : Files.createTempDirectory("watermark-jobs");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create watermark job directory", e);
+        }
+    }
+
+    // 이전 실행이 남긴 결과 파일. 작업 파일 이름 형식인 파일만 지운다
+    private void deleteJobFiles() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+            file -> JOB_FILE.matcher(file.getFileName().toString()).matches())) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean watermark job directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete watermark job file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -2,12 +2,18 @@ package com.seungjjun.watermark.service;
 
 import com.seungjjun.watermark.common.exception.CoreException;
 import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+import com.seungjjun.watermark.service.bulkhead.BulkheadStats;
+import com.seungjjun.watermark.service.cache.CacheStats;
+import com.seungjjun.watermark.service.config.WatermarkProperties;
 import com.seungjjun.watermark.service.dto.WatermarkEmbedResult;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
@@ -15,6 +21,21 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -98,6 +119,20 @@ class WatermarkServiceTest {
                     .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
         }
 
+        @Test
+        @DisplayName("용량은 글자 수가 아니라 UTF-8 바이트 수로 검증")
+        void embedWatermark_MultiByteTextExceedsCapacity_ThrowsException() {
+            // given
+            MultipartFile imageFile = createValidImageFile(64, 64); // 8x8 blocks = 64 bits = 8 bytes
+            String koreanText = "워터마크"; // 4글자, UTF-8 12바이트
+
+            // when & then
+            assertThatThrownBy(() -> watermarkService.embedWatermark(imageFile, koreanText))
+                    .isInstanceOf(CoreException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
+            assertThat(watermarkService.embedWatermark(imageFile, "워터").watermarkedImageBytes()).isNotEmpty();
+        }
+
         @Test
         @DisplayName("지원하지 않는 이미지 포맷이면 INVALID_IMAGE_FORMAT 예외 발생")
         void embedWatermark_WhenUnsupportedFormat_ThrowsException() throws IOException {
@@ -244,6 +279,484 @@ class WatermarkServiceTest {
         assertThat(extractedText).hasSize(originalText.length());
     }
 
+    @Test
+    @DisplayName("블록당 4비트 모드면 블록 수의 4배 비트까지 삽입 후 추출")
+    void embedAndExtract_FourBitsPerBlock_UsesExtendedCapacity() {
+        // given
+        MultipartFile originalImage = createValidImageFile(32, 32); // 4x4 blocks = 16 bits (4비트 모드 64 bits)
+        String originalText = "abcdefgh";
+        WatermarkService multiBitService = new WatermarkService(
+                new WatermarkProperties(null, 4, null, null, null, null, null, null));
+
+        // when
+        WatermarkEmbedResult embedResult = multiBitService.embedWatermark(originalImage, originalText);
+
+        MultipartFile watermarkedImage = new MockMultipartFile(
+            "file",
+            "watermarked.jpg",
+            "image/jpeg",
+            embedResult.watermarkedImageBytes()
+        );
+        String extractedText = multiBitService.extractWatermark(watermarkedImage, originalText.length());
+
+        // then
+        assertThat(extractedText).hasSize(originalText.length());
+        assertThatThrownBy(() -> watermarkService.embedWatermark(originalImage, originalText))
+                .isInstanceOf(CoreException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
+    }
+
+    @Test
+    @DisplayName("픽셀 경로로 삽입/추출하면 포맷별 코덱 통계가 쌓임")
+    void embedAndExtract_Png_RecordsCodecTimings() throws IOException {
+        // given
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        MultipartFile imageFile = new MockMultipartFile("file", "test.png", "image/png", baos.toByteArray());
+
+        // when
+        WatermarkEmbedResult embedResult = watermarkService.embedWatermark(imageFile, "test");
+        watermarkService.extractWatermark(
+            new MockMultipartFile("file", "watermarked.png", "image/png", embedResult.watermarkedImageBytes()), 4);
+
+        // then
+        assertThat(watermarkService.getCodecTimings()).containsOnlyKeys("png");
+        assertThat(watermarkService.getCodecTimings().get("png").getDecodeCount()).isEqualTo(2);
+        assertThat(watermarkService.getCodecTimings().get("png").getEncodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("스트리밍 삽입은 출력 스트림에 버퍼링 삽입과 같은 바이트를 씀")
+    void embedWatermarkStreaming_WritesSameBytesAsBufferedEmbed() throws IOException {
+        // given
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        MultipartFile imageFile = new MockMultipartFile("file", "test.png", "image/png", baos.toByteArray());
+
+        // when
+        WatermarkEmbedStream stream = watermarkService.embedWatermarkStreaming(imageFile, "test");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        stream.writeTo(output);
+
+        // then
+        assertThat(stream.format()).isEqualTo("png");
+        assertThat(output.toByteArray())
+                .isEqualTo(watermarkService.embedWatermark(imageFile, "test").watermarkedImageBytes());
+    }
+
+    @Test
+    @DisplayName("스트리밍 삽입은 검증할 때가 아니라 body가 결과를 만드는 동안에만 CPU 실행 슬롯을 잡고, 내보낼 때는 놓는다")
+    void embedWatermarkStreaming_HoldsBulkheadOnlyWhileEncoding() throws IOException {
+        // given
+        WatermarkService bulkheadService = new WatermarkService(new WatermarkProperties(null, 0, null, null, null,
+                null, null, new WatermarkProperties.Bulkhead(1, Duration.ofSeconds(1))));
+        MultipartFile imageFile = createNoisyPngFile(64, 64);
+        List<Integer> activeWhileSending = new ArrayList<>();
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                activeWhileSending.add(bulkheadService.getBulkheadStats().active());
+            }
+        };
+
+        // when
+        WatermarkEmbedStream stream = bulkheadService.embedWatermarkStreaming(imageFile, "test");
+        BulkheadStats prepared = bulkheadService.getBulkheadStats();
+        stream.writeTo(output);
+        String extracted = bulkheadService.extractWatermark(new MockMultipartFile("file", "watermarked.png",
+                "image/png", bulkheadService.embedWatermark(imageFile, "test").watermarkedImageBytes()), 4);
+
+        // then
+        assertThat(prepared.acquired()).isZero();
+        assertThat(activeWhileSending).isNotEmpty().containsOnly(0);
+        assertThat(extracted).hasSize(4);
+        BulkheadStats stats = bulkheadService.getBulkheadStats();
+        assertThat(stats.maxConcurrent()).isEqualTo(1);
+        assertThat(stats.acquired()).isEqualTo(3);
+        assertThat(stats.active()).isZero();
+        assertThat(stats.rejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("클라이언트가 응답을 읽지 않아 출력 스트림이 막혀도 CPU 실행 슬롯을 잡고 있지 않아 다른 요청을 처리한다")
+    void embedWatermarkStreaming_BlockedOutput_DoesNotHoldBulkhead() throws Exception {
+        // given: 슬롯이 하나뿐이고 슬롯을 기다리는 시간도 짧다
+        WatermarkService bulkheadService = new WatermarkService(new WatermarkProperties(null, 0, null, null, null,
+                null, null, new WatermarkProperties.Bulkhead(1, Duration.ofMillis(100))));
+        MultipartFile imageFile = createNoisyPngFile(64, 64);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream slowClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when
+        Future<?> slowResponse = executor.submit(() -> {
+            bulkheadService.embedWatermarkStreaming(imageFile, "slow").writeTo(slowClient);
+            return null;
+        });
+        assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+        BulkheadStats whileBlocked = bulkheadService.getBulkheadStats();
+        byte[] other = bulkheadService.embedWatermark(imageFile, "fast").watermarkedImageBytes();
+        release.countDown();
+        slowResponse.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertThat(whileBlocked.active()).isZero();
+        assertThat(other).isNotEmpty();
+        assertThat(bulkheadService.getBulkheadStats().rejected()).isZero();
+    }
+
+    @Nested
+    @DisplayName("알고리즘 선택")
+    class AlgorithmSelectionTest {
+
+        @Test
+        @DisplayName("LSB로 삽입하면 PNG로 출력하고 같은 텍스트를 추출")
+        void embedAndExtract_Lsb_RoundTrips() throws IOException {
+            // given
+            MultipartFile imageFile = createNoisyPngFile(120, 80);
+            String originalText = "internal-share user@example.com";
+
+            // when
+            WatermarkEmbedStream stream = watermarkService.embedWatermarkStreaming(
+                    imageFile, originalText, WatermarkAlgorithm.LSB, true);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            stream.writeTo(output);
+            String extractedText = watermarkService.extractWatermark(
+                    new MockMultipartFile("file", "watermarked.png", "image/png", output.toByteArray()),
+                    originalText.length(), WatermarkAlgorithm.LSB);
+
+            // then
+            assertThat(stream.format()).isEqualTo("png");
+            assertThat(stream.algorithm()).isEqualTo(WatermarkAlgorithm.LSB);
+            assertThat(extractedText).isEqualTo(originalText);
+        }
+
+        @Test
+        @DisplayName("LSB는 JPG 입력이어도 하위 비트가 남도록 PNG로 출력")
+        void embedWatermark_LsbWithJpgInput_OutputsPng() {
+            // given
+            MultipartFile imageFile = createValidImageFile(100, 100);
+
+            // when
+            WatermarkEmbedResult result = watermarkService.embedWatermark(
+                    imageFile, "test", WatermarkAlgorithm.LSB, true);
+
+            // then
+            assertThat(result.format()).isEqualTo("png");
+            assertThat(watermarkService.extractWatermark(
+                    new MockMultipartFile("file", "watermarked.png", "image/png", result.watermarkedImageBytes()),
+                    4, WatermarkAlgorithm.LSB)).isEqualTo("test");
+        }
+
+        @Test
+        @DisplayName("AUTO는 무손실 출력이고 견고성이 필요 없을 때만 LSB를 선택")
+        void embedWatermarkStreaming_Auto_PicksLsbOnlyForLosslessNonRobust() throws IOException {
+            // given
+            MultipartFile pngFile = createNoisyPngFile(64, 64);
+            MultipartFile jpgFile = createValidImageFile(64, 64);
+
+            // when & then
+            assertThat(watermarkService.embedWatermarkStreaming(pngFile, "test", WatermarkAlgorithm.AUTO, false)
+                    .algorithm()).isEqualTo(WatermarkAlgorithm.LSB);
+            assertThat(watermarkService.embedWatermarkStreaming(pngFile, "test", WatermarkAlgorithm.AUTO, true)
+                    .algorithm()).isEqualTo(WatermarkAlgorithm.DCT);
+            assertThat(watermarkService.embedWatermarkStreaming(jpgFile, "test", WatermarkAlgorithm.AUTO, false)
+                    .algorithm()).isEqualTo(WatermarkAlgorithm.DCT);
+        }
+
+        @Test
+        @DisplayName("AUTO 추출은 LSB 워터마크가 없으면 DCT 추출 결과를 반환")
+        void extractWatermark_Auto_FallsBackToDct() throws IOException {
+            // given
+            MultipartFile pngFile = createNoisyPngFile(64, 64);
+
+            // when
+            String autoResult = watermarkService.extractWatermark(pngFile, 4, WatermarkAlgorithm.AUTO);
+
+            // then
+            assertThat(autoResult).isEqualTo(watermarkService.extractWatermark(pngFile, 4, WatermarkAlgorithm.DCT));
+        }
+
+        @Test
+        @DisplayName("LSB 워터마크가 없는 이미지를 LSB로 추출하면 WATERMARK_NOT_FOUND 예외 발생")
+        void extractWatermark_LsbOnUnmarkedImage_ThrowsException() throws IOException {
+            // given
+            MultipartFile pngFile = createNoisyPngFile(64, 64);
+
+            // when & then
+            assertThatThrownBy(() -> watermarkService.extractWatermark(pngFile, 4, WatermarkAlgorithm.LSB))
+                    .isInstanceOf(CoreException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("LSB 용량(픽셀 수 x 3비트)을 넘으면 WATERMARK_LENGTH_EXCEEDS_CAPACITY 예외 발생")
+        void embedWatermark_LsbCapacityExceeded_ThrowsException() throws IOException {
+            // given: 8 x 8 x 3비트 = 192비트 < (4 + 25) x 8비트. DCT 용량(1비트 x 1블록)보다는 크다
+            MultipartFile pngFile = createNoisyPngFile(8, 8);
+            String text = "a".repeat(25);
+
+            // when & then
+            assertThatThrownBy(() -> watermarkService.embedWatermark(pngFile, text, WatermarkAlgorithm.LSB, true))
+                    .isInstanceOf(CoreException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
+            assertThat(watermarkService.embedWatermark(pngFile, "a".repeat(20), WatermarkAlgorithm.LSB, true)
+                    .watermarkedImageBytes()).isNotEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("embedWatermarkBatch 메서드")
+    class EmbedWatermarkBatchTest {
+
+        private final List<String> texts = List.of("alice@example.com 10.0.0.1", "bob@example.com", "carol");
+
+        @Test
+        @DisplayName("PNG 원본에 수신자별로 삽입한 zip 항목은 개별 삽입 결과와 픽셀 단위로 동일")
+        void embedWatermarkBatch_Png_MatchesIndividualEmbeds() throws IOException {
+            // given: 20 x 15 = 300블록
+            MultipartFile imageFile = createNoisyPngFile(160, 120);
+
+            // when
+            WatermarkEmbedStream stream = watermarkService.embedWatermarkBatch(imageFile, texts, null, true);
+            Map<String, byte[]> entries = unzip(stream);
+
+            // then
+            assertThat(stream.format()).isEqualTo("zip");
+            assertThat(stream.algorithm()).isEqualTo(WatermarkAlgorithm.DCT);
+            assertThat(entries.keySet())
+                    .containsExactly("watermarked-0001.png", "watermarked-0002.png", "watermarked-0003.png");
+            int index = 0;
+            for (byte[] entry : entries.values()) {
+                byte[] expected = watermarkService.embedWatermark(imageFile, texts.get(index++))
+                        .watermarkedImageBytes();
+                assertThat(pixels(entry)).isEqualTo(pixels(expected));
+            }
+        }
+
+        @Test
+        @DisplayName("JPG 원본은 계수 영역에서 삽입해 항목마다 개별 삽입과 같은 JPEG을 만든다")
+        void embedWatermarkBatch_Jpg_MatchesIndividualEmbeds() throws IOException {
+            // given
+            MultipartFile imageFile = createValidImageFile(160, 120);
+
+            // when
+            Map<String, byte[]> entries = unzip(watermarkService.embedWatermarkBatch(imageFile, texts, null, true));
+
+            // then
+            assertThat(entries).hasSize(texts.size());
+            int index = 0;
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                assertThat(entry.getKey()).endsWith(".jpg");
+                assertThat(entry.getValue()).isEqualTo(
+                        watermarkService.embedWatermark(imageFile, texts.get(index++)).watermarkedImageBytes());
+            }
+        }
+
+        @Test
+        @DisplayName("LSB 배치는 앞 수신자의 페이로드가 남지 않고 항목마다 자기 텍스트를 추출")
+        void embedWatermarkBatch_Lsb_ExtractsEachText() throws IOException {
+            // given: 긴 텍스트 다음에 짧은 텍스트를 삽입한다
+            MultipartFile imageFile = createNoisyPngFile(64, 64);
+
+            // when
+            WatermarkEmbedStream stream = watermarkService.embedWatermarkBatch(
+                    imageFile, texts, WatermarkAlgorithm.LSB, true);
+            Map<String, byte[]> entries = unzip(stream);
+
+            // then
+            assertThat(stream.algorithm()).isEqualTo(WatermarkAlgorithm.LSB);
+            int index = 0;
+            for (byte[] entry : entries.values()) {
+                String text = texts.get(index++);
+                assertThat(watermarkService.extractWatermark(
+                        new MockMultipartFile("file", "watermarked.png", "image/png", entry),
+                        text.length(), WatermarkAlgorithm.LSB)).isEqualTo(text);
+            }
+        }
+
+        @Test
+        @DisplayName("텍스트 목록이 비었거나 빈 텍스트가 있으면 WATERMARK_TEXT_EMPTY 예외 발생")
+        void embedWatermarkBatch_WhenTextMissing_ThrowsException() {
+            // given
+            MultipartFile imageFile = createValidImageFile(100, 100);
+
+            // when & then
+            assertThatThrownBy(() -> watermarkService.embedWatermarkBatch(imageFile, List.of(), null, true))
+                    .isInstanceOf(CoreException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_TEXT_EMPTY);
+            assertThatThrownBy(() -> watermarkService.embedWatermarkBatch(imageFile, List.of("a", " "), null, true))
+                    .isInstanceOf(CoreException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_TEXT_EMPTY);
+        }
+
+        @Test
+        @DisplayName("가장 긴 텍스트가 용량을 넘으면 쓰기 전에 WATERMARK_LENGTH_EXCEEDS_CAPACITY 예외 발생")
+        void embedWatermarkBatch_WhenLongestTextExceedsCapacity_ThrowsException() {
+            // given: 100 x 100 이미지는 12 x 12 = 144블록
+            MultipartFile imageFile = createValidImageFile(100, 100);
+
+            // when & then
+            assertThatThrownBy(() -> watermarkService.embedWatermarkBatch(
+                    imageFile, List.of("short", "a".repeat(19)), null, true))
+                    .isInstanceOf(CoreException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_LENGTH_EXCEEDS_CAPACITY);
+        }
+
+        private Map<String, byte[]> unzip(WatermarkEmbedStream stream) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            stream.writeTo(output);
+
+            Map<String, byte[]> entries = new LinkedHashMap<>();
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.put(entry.getName(), zip.readAllBytes());
+                }
+            }
+            return entries;
+        }
+
+        private int[] pixels(byte[] imageBytes) throws IOException {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        }
+    }
+
+    @Nested
+    @DisplayName("변환 결과 캐시")
+    class TransformCacheTest {
+
+        @Test
+        @DisplayName("같은 이미지가 두 번째 올라오면 캐시에 담고 그 뒤로는 변환 결과를 찾는다. 결과는 캐시 없이 삽입한 것과 동일")
+        void embedWatermark_SameImage_HitsCacheAndMatchesUncached() throws IOException {
+            // given: 블록당 4비트 모드는 순방향 계수를 캐시한다
+            WatermarkService cachedService = createCachedService(DataSize.ofMegabytes(16), true);
+            WatermarkService uncachedService = new WatermarkService(
+                    new WatermarkProperties(null, 4, null, null, null, null, null, null));
+            MultipartFile imageFile = createNoisyPngFile(160, 120);
+
+            // when
+            byte[] first = cachedService.embedWatermark(imageFile, "alice@example.com").watermarkedImageBytes();
+            byte[] second = cachedService.embedWatermark(imageFile, "bob@example.com").watermarkedImageBytes();
+            byte[] third = cachedService.embedWatermark(imageFile, "carol@example.com").watermarkedImageBytes();
+            cachedService.embedWatermarkBatch(imageFile, List.of("dave"), null, true)
+                    .writeTo(new ByteArrayOutputStream());
+
+            // then
+            assertThat(pixels(first)).isEqualTo(pixels(
+                    uncachedService.embedWatermark(imageFile, "alice@example.com").watermarkedImageBytes()));
+            assertThat(pixels(second)).isEqualTo(pixels(
+                    uncachedService.embedWatermark(imageFile, "bob@example.com").watermarkedImageBytes()));
+            assertThat(pixels(third)).isEqualTo(pixels(
+                    uncachedService.embedWatermark(imageFile, "carol@example.com").watermarkedImageBytes()));
+            CacheStats stats = cachedService.getCacheStats();
+            assertThat(stats.misses()).isEqualTo(2);
+            assertThat(stats.hits()).isEqualTo(2);
+            assertThat(stats.entries()).isEqualTo(1);
+            assertThat(stats.sizeInBytes()).isPositive();
+        }
+
+        @Test
+        @DisplayName("처음 보는 이미지는 캐시에 담지 않고 band 단위로 삽입한다")
+        void embedWatermark_FirstSighting_DoesNotCache() throws IOException {
+            // given
+            WatermarkService cachedService = createCachedService(DataSize.ofMegabytes(16), false);
+
+            // when
+            cachedService.embedWatermark(createNoisyPngFile(160, 120), "alice@example.com");
+            cachedService.embedWatermark(createNoisyPngFile(168, 120), "alice@example.com");
+
+            // then
+            CacheStats stats = cachedService.getCacheStats();
+            assertThat(stats.misses()).isEqualTo(2);
+            assertThat(stats.entries()).isZero();
+            assertThat(stats.sizeInBytes()).isZero();
+        }
+
+        @Test
+        @DisplayName("크기 합이 최대 크기를 넘으면 가장 오래 쓰지 않은 항목을 내보낸다")
+        void embedWatermark_OverMaxSize_EvictsLeastRecentlyUsed() throws IOException {
+            // given: 100KB에는 160x120 / 168x120 이미지의 변환 결과가 하나씩만 들어간다
+            WatermarkService cachedService = createCachedService(DataSize.ofBytes(100_000), false);
+            MultipartFile first = createNoisyPngFile(160, 120);
+            MultipartFile second = createNoisyPngFile(168, 120);
+
+            // when: 각 이미지는 두 번째 요청에서 캐시에 담긴다
+            cachedService.embedWatermark(first, "alice@example.com");
+            cachedService.embedWatermark(first, "alice@example.com");
+            cachedService.embedWatermark(second, "alice@example.com");
+            cachedService.embedWatermark(second, "alice@example.com");
+            cachedService.embedWatermark(first, "alice@example.com");
+
+            // then
+            CacheStats stats = cachedService.getCacheStats();
+            assertThat(stats.hits()).isZero();
+            assertThat(stats.misses()).isEqualTo(5);
+            assertThat(stats.evictions()).isEqualTo(2);
+            assertThat(stats.entries()).isEqualTo(1);
+            assertThat(stats.sizeInBytes()).isLessThanOrEqualTo(stats.maxBytes());
+        }
+
+        @Test
+        @DisplayName("최대 크기를 설정하지 않으면 캐시하지 않는다")
+        void embedWatermark_CacheDisabledByDefault() throws IOException {
+            // given
+            MultipartFile imageFile = createNoisyPngFile(160, 120);
+
+            // when
+            watermarkService.embedWatermark(imageFile, "alice@example.com");
+            watermarkService.embedWatermark(imageFile, "alice@example.com");
+
+            // then
+            CacheStats stats = watermarkService.getCacheStats();
+            assertThat(stats.hits() + stats.misses()).isZero();
+            assertThat(stats.maxBytes()).isZero();
+        }
+
+        private WatermarkService createCachedService(DataSize maxSize, boolean offHeap) {
+            return new WatermarkService(new WatermarkProperties(null, 4, null, null, null,
+                    new WatermarkProperties.Cache(maxSize, offHeap), null, null));
+        }
+
+        private int[] pixels(byte[] imageBytes) throws IOException {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        }
+    }
+
+    private MultipartFile createNoisyPngFile(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return new MockMultipartFile("file", "test.png", "image/png", baos.toByteArray());
+    }
+
     private MultipartFile createValidImageFile(int width, int height) {
         try {
             BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
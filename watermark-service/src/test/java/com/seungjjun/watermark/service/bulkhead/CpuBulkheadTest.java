@@ -0,0 +1,197 @@
+package com.seungjjun.watermark.service.bulkhead;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CpuBulkheadTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("동시에 maxConcurrent개까지만 실행하고 나머지는 슬롯을 기다린 시간을 남긴다")
+    void call_LimitsConcurrencyAndRecordsWait() throws Exception {
+        // given
+        CpuBulkhead bulkhead = new CpuBulkhead(2, Duration.ofSeconds(10));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        // when
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int task = i;
+            results.add(executor.submit(() -> bulkhead.call(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(30);
+                running.decrementAndGet();
+                return task;
+            })));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+
+        // then
+        BulkheadStats stats = bulkhead.snapshot();
+        assertThat(peak.get()).isEqualTo(2);
+        assertThat(stats.maxConcurrent()).isEqualTo(2);
+        assertThat(stats.acquired()).isEqualTo(8);
+        assertThat(stats.active()).isZero();
+        assertThat(stats.waiting()).isZero();
+        assertThat(stats.maxWaitMillis()).isGreaterThanOrEqualTo(30.0);
+        assertThat(stats.averageWaitMillis()).isPositive();
+    }
+
+    @Test
+    @DisplayName("maxWait 안에 슬롯을 얻지 못하면 SERVER_BUSY 예외 발생")
+    void call_WaitTimedOut_ThrowsServerBusy() throws Exception {
+        // given
+        CpuBulkhead bulkhead = new CpuBulkhead(1, Duration.ofMillis(20));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> {
+            bulkhead.run(() -> {
+                started.countDown();
+                release.await();
+            });
+            return null;
+        });
+        started.await();
+
+        // when & then
+        assertThatThrownBy(() -> bulkhead.call(() -> "rejected"))
+                .isInstanceOf(CoreException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.SERVER_BUSY);
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        BulkheadStats stats = bulkhead.snapshot();
+        assertThat(stats.acquired()).isEqualTo(1);
+        assertThat(stats.rejected()).isEqualTo(1);
+        assertThat(stats.maxWaitMillis()).isGreaterThanOrEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("작업이 예외를 던져도 슬롯을 돌려주고 예외는 그대로 전달")
+    void run_WorkThrows_ReleasesPermit() {
+        // given
+        CpuBulkhead bulkhead = new CpuBulkhead(1, Duration.ZERO);
+
+        // when & then
+        assertThatThrownBy(() -> bulkhead.run(() -> {
+            throw new IOException("broken pipe");
+        })).isInstanceOf(IOException.class).hasMessage("broken pipe");
+
+        assertThat(bulkhead.call(() -> "next")).isEqualTo("next");
+        assertThat(bulkhead.snapshot().active()).isZero();
+    }
+
+    @Test
+    @DisplayName("스트리밍 작업은 결과를 output에 내보내는 동안 슬롯을 놓고, 다음 결과를 만들 때 다시 잡는다")
+    void stream_ReleasesSlotWhileWritingToOutput() throws Exception {
+        // given: 64KB씩 내보내므로 200KB를 쓰면 중간에 세 번, 끝에 한 번 내보낸다
+        CpuBulkhead bulkhead = new CpuBulkhead(1, Duration.ofMillis(20));
+        byte[] result = new byte[200 * 1024];
+        new Random(42).nextBytes(result);
+        List<Integer> activeWhileSending = new ArrayList<>();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        OutputStream client = new OutputStream() {
+            @Override
+            public void write(int b) {
+                received.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                activeWhileSending.add(bulkhead.snapshot().active());
+                received.write(b, off, len);
+            }
+        };
+
+        // when
+        bulkhead.stream(client, output -> {
+            output.write(result, 0, 1000);
+            output.write(result[1000]);
+            output.write(result, 1001, result.length - 1001);
+        });
+
+        // then
+        assertThat(received.toByteArray()).isEqualTo(result);
+        assertThat(activeWhileSending).hasSize(4).containsOnly(0);
+        BulkheadStats stats = bulkhead.snapshot();
+        assertThat(stats.acquired()).isEqualTo(4);
+        assertThat(stats.active()).isZero();
+    }
+
+    @Test
+    @DisplayName("bounded가 false면 maxWait가 지나도 SERVER_BUSY 없이 슬롯을 기다린다")
+    void stream_Unbounded_WaitsPastMaxWait() throws Exception {
+        // given
+        CpuBulkhead bulkhead = new CpuBulkhead(1, Duration.ofMillis(20));
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> {
+            bulkhead.run(() -> {
+                started.countDown();
+                Thread.sleep(200);
+            });
+            return null;
+        });
+        started.await();
+
+        // when
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        bulkhead.stream(received, output -> output.write(42), false);
+        holder.get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(received.toByteArray()).isEqualTo(new byte[]{42});
+        BulkheadStats stats = bulkhead.snapshot();
+        assertThat(stats.acquired()).isEqualTo(2);
+        assertThat(stats.rejected()).isZero();
+        assertThat(stats.maxWaitMillis()).isGreaterThan(20.0);
+    }
+
+    @Test
+    @DisplayName("output 쓰기가 실패해도 슬롯을 남기지 않고 예외를 그대로 전달")
+    void stream_OutputFails_DoesNotLeakPermit() {
+        // given
+        CpuBulkhead bulkhead = new CpuBulkhead(1, Duration.ZERO);
+        OutputStream brokenClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("broken pipe");
+            }
+        };
+
+        // when & then
+        assertThatThrownBy(() -> bulkhead.stream(brokenClient, output -> output.write(new byte[100 * 1024])))
+                .isInstanceOf(IOException.class).hasMessage("broken pipe");
+
+        assertThat(bulkhead.snapshot().active()).isZero();
+        assertThat(bulkhead.call(() -> "next")).isEqualTo("next");
+    }
+}
@@ -0,0 +1,240 @@
+package com.seungjjun.watermark.service.job;
+
+import com.seungjjun.watermark.common.exception.CoreException;
+import com.seungjjun.watermark.common.exception.ErrorCode;
+import com.seungjjun.watermark.service.WatermarkService;
+import com.seungjjun.watermark.service.algorithm.WatermarkAlgorithm;
+import com.seungjjun.watermark.service.config.WatermarkProperties;
+import com.seungjjun.watermark.service.dto.WatermarkEmbedStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WatermarkJobServiceTest {
+
+    private static final Duration RESULT_TTL = Duration.ofMinutes(10);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(7);
+
+    @TempDir
+    Path directory;
+
+    private final MutableClock clock = new MutableClock();
+    private WatermarkJobService jobService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (jobService != null) {
+            jobService.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("제출한 작업은 작업 스레드에서 삽입하고, 결과는 동기 삽입과 같은 이미지")
+    void submit_CompletesWithSameResultAsSynchronousEmbed() throws Exception {
+        // given
+        WatermarkService watermarkService = new WatermarkService();
+        jobService = createJobService(watermarkService, 2, 4);
+        MultipartFile imageFile = createNoisyPngFile(160, 120);
+
+        // when
+        WatermarkJob submitted = jobService.submit(imageFile, "alice@example.com", null, true);
+        WatermarkJob completed = awaitDone(submitted.id());
+
+        // then
+        assertThat(submitted.format()).isEqualTo("png");
+        assertThat(submitted.algorithm()).isEqualTo(WatermarkAlgorithm.DCT);
+        assertThat(completed.status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(completed.expiresAt()).isEqualTo(clock.instant().plus(RESULT_TTL));
+        assertThat(readResult(submitted.id())).isEqualTo(
+                watermarkService.embedWatermark(imageFile, "alice@example.com").watermarkedImageBytes());
+    }
+
+    @Test
+    @DisplayName("입력 검증에 실패하면 작업을 만들지 않고 바로 예외 발생")
+    void submit_InvalidRequest_ThrowsWithoutJob() throws IOException {
+        // given
+        jobService = createJobService(new WatermarkService(), 1, 1);
+        MultipartFile imageFile = createNoisyPngFile(160, 120);
+
+        // when & then
+        assertThatThrownBy(() -> jobService.submit(imageFile, " ", null, true))
+                .isInstanceOf(CoreException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.WATERMARK_TEXT_EMPTY);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("처리 중인 작업과 대기열이 가득 차면 JobRejectedException으로 바로 거절")
+    void submit_QueueFull_RejectsWithRetryAfter() throws Exception {
+        // given: 작업 스레드 1개가 첫 작업을 붙잡고 있고 대기열 1칸은 두 번째 작업이 차지한다
+        CountDownLatch release = new CountDownLatch(1);
+        jobService = createJobService(blockingService(release), 1, 1);
+        MultipartFile imageFile = createNoisyPngFile(64, 64);
+        WatermarkJob running = jobService.submit(imageFile, "first", null, true);
+        WatermarkJob queued = jobService.submit(imageFile, "second", null, true);
+
+        // when & then
+        assertThatThrownBy(() -> jobService.submit(imageFile, "third", null, true))
+                .isInstanceOf(JobRejectedException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.JOB_QUEUE_FULL)
+                .hasFieldOrPropertyWithValue("retryAfter", RETRY_AFTER);
+        assertThatThrownBy(() -> jobService.openResult(queued.id()))
+                .isInstanceOf(CoreException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.JOB_NOT_COMPLETED);
+
+        release.countDown();
+        assertThat(awaitDone(running.id()).status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(awaitDone(queued.id()).status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(readResult(queued.id())).isEqualTo("second".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("삽입 중 실패한 작업은 원인 에러 코드를 남기고 결과 조회 시 그 에러로 응답")
+    void submit_EmbedFails_RecordsErrorCode() throws Exception {
+        // given
+        WatermarkService failingService = new WatermarkService() {
+            @Override
+            public WatermarkEmbedStream embedWatermarkInBackground(MultipartFile imageFile, String watermarkText,
+                                                                   WatermarkAlgorithm algorithm, boolean robust) {
+                return new WatermarkEmbedStream("png", WatermarkAlgorithm.DCT, output -> {
+                    throw new CoreException(ErrorCode.IMAGE_READ_FAILED);
+                });
+            }
+        };
+        jobService = createJobService(failingService, 1, 1);
+
+        // when
+        WatermarkJob job = awaitDone(jobService.submit(createNoisyPngFile(64, 64), "text", null, true).id());
+
+        // then
+        assertThat(job.status()).isEqualTo(JobStatus.FAILED);
+        assertThat(job.errorCode()).isEqualTo(ErrorCode.IMAGE_READ_FAILED);
+        assertThatThrownBy(() -> jobService.openResult(job.id()))
+                .isInstanceOf(CoreException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.IMAGE_READ_FAILED);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("보관 기간이 지난 작업은 조회할 수 없고 결과 파일과 함께 지운다")
+    void purgeExpired_RemovesJobAndResultFile() throws Exception {
+        // given
+        jobService = createJobService(new WatermarkService(), 1, 1);
+        WatermarkJob job = awaitDone(jobService.submit(createNoisyPngFile(64, 64), "text", null, true).id());
+        assertThat(job.resultFile()).exists();
+
+        // when
+        clock.advance(RESULT_TTL);
+
+        // then
+        assertThatThrownBy(() -> jobService.getJob(job.id()))
+                .isInstanceOf(CoreException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.JOB_NOT_FOUND);
+        assertThat(jobService.purgeExpired()).isEqualTo(1);
+        assertThat(job.resultFile()).doesNotExist();
+    }
+
+    private WatermarkJobService createJobService(WatermarkService watermarkService, int workers, int queueCapacity) {
+        return new WatermarkJobService(watermarkService,
+                new WatermarkProperties.Jobs(workers, queueCapacity, RESULT_TTL, RETRY_AFTER, directory.toString()),
+                clock);
+    }
+
+    // 텍스트를 그대로 결과로 쓰되 release가 열릴 때까지 작업 스레드를 붙잡는다
+    private WatermarkService blockingService(CountDownLatch release) {
+        return new WatermarkService() {
+            @Override
+            public WatermarkEmbedStream embedWatermarkInBackground(MultipartFile imageFile, String watermarkText,
+                                                                   WatermarkAlgorithm algorithm, boolean robust) {
+                return new WatermarkEmbedStream("png", WatermarkAlgorithm.DCT, output -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                    output.write(watermarkText.getBytes(StandardCharsets.UTF_8));
+                });
+            }
+        };
+    }
+
+    private WatermarkJob awaitDone(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        WatermarkJob job = jobService.getJob(jobId);
+        while (!job.status().isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = jobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private byte[] readResult(String jobId) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jobService.openResult(jobId).writeTo(output);
+        return output.toByteArray();
+    }
+
+    private MultipartFile createNoisyPngFile(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return new MockMultipartFile("file", "test.png", "image/png", baos.toByteArray());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}